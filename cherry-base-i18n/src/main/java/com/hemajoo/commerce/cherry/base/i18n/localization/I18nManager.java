@@ -14,29 +14,42 @@
  */
 package com.hemajoo.commerce.cherry.base.i18n.localization;
 
-import com.google.common.collect.Maps;
+import com.google.common.cache.CacheStats;
 import com.hemajoo.commerce.cherry.base.i18n.localization.annotation.I18n;
+import com.hemajoo.commerce.cherry.base.i18n.localization.catalog.Catalog;
+import com.hemajoo.commerce.cherry.base.i18n.localization.catalog.CatalogCompiler;
 import com.hemajoo.commerce.cherry.base.i18n.localization.exception.LocalizationException;
+import com.hemajoo.commerce.cherry.base.i18n.localization.internal.BundleRegistry;
+import com.hemajoo.commerce.cherry.base.i18n.localization.internal.BundleWatcher;
 import com.hemajoo.commerce.cherry.base.i18n.localization.internal.LocalizationFieldContext;
 import com.hemajoo.commerce.cherry.base.i18n.localization.internal.LocalizationInvocationContext;
+import com.hemajoo.commerce.cherry.base.i18n.localization.internal.LocalizationMetadata;
+import com.hemajoo.commerce.cherry.base.i18n.localization.internal.MessageCache;
 import com.hemajoo.commerce.cherry.base.i18n.localization.type.LocalizationInvocationType;
 import com.hemajoo.commerce.cherry.base.i18n.translation.Translation;
 import com.hemajoo.commerce.cherry.base.i18n.translation.engine.ITranslator;
-import com.hemajoo.commerce.cherry.base.i18n.translation.engine.google.GoogleFreeTranslator;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslationMemory;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslatorRegistry;
 import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
-import com.hemajoo.commerce.cherry.base.utilities.helper.ReflectionHelper;
 import com.hemajoo.commerce.cherry.base.utilities.helper.StringExpander;
 import com.hemajoo.commerce.cherry.base.utilities.helper.StringExpanderException;
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.Synchronized;
 import lombok.extern.log4j.Log4j2;
-import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
 
 /**
  * A localization manager (singleton) that serves as a central access point for resource bundle localization.
@@ -46,31 +59,53 @@ import java.util.*;
 @Log4j2
 public final class I18nManager
 {
+    /**
+     * Priority range of the authorized languages.
+     */
+    private static final String LANGUAGES_PRIORITY_RANGE = "en;q=1.0,fr;q=0.5,de;q=0.5,it;q=0.5,es;q=0.5,ja;q=0.5,af;q=0.5," +
+            "ar;q=0.5,bg;q=0.5,cs;q=0.5,da;q=0.5,el;q=0.5,et;q=0.5,fi;q=0.5,hi;q=0.5,hu;q=0.5,iw;q=0.5,ko;q=0.5," +
+            "nl;q=0.5,no;q=0.5,pl;q=0.5,pt;q=0.5,ro;q=0.5,ru;q=0.5,sq;q=0.5,th;q=0.5,tr;q=0.5,zh;q=0.5";
+
+    /**
+     * Locales of the authorized languages (computed once as the available locales do not change at runtime).
+     */
+    private static final List<Locale> FILTERED_LOCALES = filterLocales();
+
     /**
      * Create the unique (per JVM) instance of the singleton.
      */
     private static final I18nManager INSTANCE = new I18nManager();
 
     /**
-     * Setter method name.
+     * Minimum number of objects of the same class to localize them in parallel.
      */
-    public static final String SETTER_FIELD_NAME = "setValue";
+    private static final int PARALLEL_THRESHOLD = 1024;
 
     /**
-     * Locale of the manager.
+     * Stack walker used to find the method having invoked a localization.
+     */
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    /**
+     * Default locale of the manager (used when no locale is bound to the current thread through a {@link LocaleContext}).
      */
     @Getter
-    private Locale locale;
+    private volatile Locale defaultLocale;
+
+    /**
+     * Registry of the loaded resource bundles (lock-free for readers).
+     */
+    private final BundleRegistry bundles = new BundleRegistry();
 
     /**
-     * Collection of resource bundles (k = locale, v = Resource bundle name, w = Resource bundle).
+     * Cache of the resolved messages of the instant localizations.
      */
-    private final Map<Locale, Map<String, ResourceBundle>> bundles = new HashMap<>();
+    private final MessageCache messages = new MessageCache(bundles);
 
     /**
-     * <b>Google</b> free translation processor.
+     * Translation processor (by default, the translator engines discovered by a translator registry behind a translation memory).
      */
-    private final ITranslator translationProcessor = new GoogleFreeTranslator();
+    private volatile ITranslator translationProcessor = new TranslationMemory(TranslatorRegistry.load(I18nManager.class.getClassLoader()));
 
     /**
      * Return the unique instance of the <b>I18nManager</b>.
@@ -86,19 +121,31 @@ public final class I18nManager
      */
     private I18nManager()
     {
-        this.locale = Locale.forLanguageTag("en"); // Set the default manager's locale to english.
-        LOGGER.debug(String.format("I18nManager initialized with locale: '%s (%s)'", this.locale, this.locale.getDisplayLanguage()));
+        this.defaultLocale = Locale.forLanguageTag("en"); // Set the default manager's locale to english.
+        LOGGER.debug(String.format("I18nManager initialized with locale: '%s (%s)'", this.defaultLocale, this.defaultLocale.getDisplayLanguage()));
     }
 
     /**
-     * Set the locale to use.
+     * Return the locale to use for the current thread.
+     * @return Locale bound to the current thread through a {@link LocaleContext} if any, the manager's default locale otherwise.
+     */
+    public Locale getLocale()
+    {
+        Locale current = LocaleContext.current();
+
+        return current != null ? current : defaultLocale;
+    }
+
+    /**
+     * Set the default locale to use.
+     * <br>
+     * The default locale is shared by all the threads. To use a locale for a given request only, open a {@link LocaleContext} scope instead.
      * @param locale Locale to set.
      */
-    @Synchronized
     public void setLocale(final @NonNull Locale locale)
     {
-        this.locale = locale;
-        LOGGER.info(String.format("Locale set to: '%s (%s)'", this.locale, this.locale.getDisplayLanguage()));
+        this.defaultLocale = locale;
+        LOGGER.info(String.format("Locale set to: '%s (%s)'", locale, locale.getDisplayLanguage()));
     }
 
     /**
@@ -128,13 +175,177 @@ public final class I18nManager
         }
         else
         {
-            for (Locale current : getFilteredLocales())
+            for (Locale current : FILTERED_LOCALES)
             {
                 add(path,current);
             }
         }
     }
 
+    /**
+     * Preload a set of resource bundles for all the authorized languages using the common fork-join pool.
+     * @param paths Resource bundle paths (ex.: <b>i18n/time/month</b>).
+     * @return Load time of each resource bundle (k = resource bundle path, v = elapsed time from the start of the load of
+     * its first language to the end of the load of its last language).
+     * @throws LocalizationException Thrown to indicate a resource bundle cannot be found.
+     */
+    public Map<String, Duration> preload(final @NonNull Collection<String> paths) throws LocalizationException
+    {
+        return preload(paths, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Preload a set of resource bundles for all the authorized languages.
+     * <br>
+     * Each resource bundle and language is loaded by a separate task executed on the given fork-join pool. Once all the
+     * resource bundles are loaded, they are registered at once so the localization services either see none or all of them.
+     * Resource bundles already loaded are kept as is. As soon as a task fails, the remaining tasks are cancelled and none
+     * of the resource bundles is registered.
+     * @param paths Resource bundle paths (ex.: <b>i18n/time/month</b>).
+     * @param pool Fork-join pool executing the load tasks.
+     * @return Load time of each resource bundle (k = resource bundle path, v = elapsed time from the start of the load of
+     * its first language to the end of the load of its last language).
+     * @throws LocalizationException Thrown to indicate a resource bundle cannot be found.
+     */
+    public Map<String, Duration> preload(final @NonNull Collection<String> paths, final @NonNull ForkJoinPool pool) throws LocalizationException
+    {
+        Map<String, Map<Locale, ForkJoinTask<ResourceBundle>>> tasks = new LinkedHashMap<>();
+        Map<String, Map<Locale, ResourceBundle>> elements = new LinkedHashMap<>();
+        Map<String, LongAccumulator> starts = new LinkedHashMap<>();
+        Map<String, LongAccumulator> ends = new LinkedHashMap<>();
+        AtomicReference<LocalizationException> failure = new AtomicReference<>();
+
+        for (String path : new LinkedHashSet<>(paths))
+        {
+            LongAccumulator start = new LongAccumulator(Math::min, Long.MAX_VALUE);
+            LongAccumulator end = new LongAccumulator(Math::max, Long.MIN_VALUE);
+            Map<Locale, ForkJoinTask<ResourceBundle>> locales = new LinkedHashMap<>();
+
+            for (Locale current : FILTERED_LOCALES)
+            {
+                locales.put(current, pool.submit(() -> {
+                    if (failure.get() != null)
+                    {
+                        // Another task failed, the preloading is aborted
+                        throw new CancellationException();
+                    }
+
+                    start.accumulate(System.nanoTime());
+                    try
+                    {
+                        return resolve(path, current);
+                    }
+                    catch (LocalizationException | RuntimeException e)
+                    {
+                        failure.compareAndSet(null, new LocalizationException(String.format("Cannot preload bundle: '%s' for language: '%s', cause: %s", path, current, e.getMessage())));
+                        throw e;
+                    }
+                    finally
+                    {
+                        end.accumulate(System.nanoTime());
+                    }
+                }));
+            }
+
+            tasks.put(path, locales);
+            starts.put(path, start);
+            ends.put(path, end);
+        }
+
+        for (Map.Entry<String, Map<Locale, ForkJoinTask<ResourceBundle>>> entry : tasks.entrySet())
+        {
+            Map<Locale, ResourceBundle> locales = new LinkedHashMap<>();
+
+            for (Map.Entry<Locale, ForkJoinTask<ResourceBundle>> task : entry.getValue().entrySet())
+            {
+                try
+                {
+                    locales.put(task.getKey(), task.getValue().get());
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    cancel(tasks);
+                    throw new LocalizationException(String.format("Preloading of bundle: '%s' has been interrupted!", entry.getKey()));
+                }
+                catch (ExecutionException | CancellationException e)
+                {
+                    cancel(tasks);
+                    LocalizationException cause = failure.get();
+                    throw cause != null ? cause : new LocalizationException(String.format("Cannot preload bundle: '%s' for language: '%s', cause: %s", entry.getKey(), task.getKey(), e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+                }
+            }
+
+            elements.put(entry.getKey(), locales);
+        }
+
+        int count = bundles.registerAll(elements);
+
+        Map<String, Duration> report = new LinkedHashMap<>();
+        starts.forEach((path, start) -> {
+            Duration time = Duration.ofNanos(Math.max(0, ends.get(path).get() - start.get()));
+            report.put(path, time);
+            LOGGER.info(String.format("Preloaded resource bundle: '%s' for: '%s' languages in: '%s' ms", path, FILTERED_LOCALES.size(), time.toMillis()));
+        });
+        LOGGER.debug(String.format("Registered: '%s' preloaded resource bundles", count));
+
+        return Collections.unmodifiableMap(report);
+    }
+
+    /**
+     * Cancel the preloading tasks not yet completed.
+     * @param tasks Preloading tasks (k = resource bundle path, v = tasks per language).
+     */
+    private static void cancel(final Map<String, Map<Locale, ForkJoinTask<ResourceBundle>>> tasks)
+    {
+        tasks.values().forEach(locales -> locales.values().forEach(task -> task.cancel(true)));
+    }
+
+    /**
+     * Load and register all the resource bundles of a binary message catalog (see {@link CatalogCompiler}).
+     * <br>
+     * The catalog file is memory-mapped and its values are read on demand. Resource bundles already loaded are kept as is.
+     * @param path Catalog file path.
+     * @throws LocalizationException Thrown to indicate the catalog cannot be read or is not valid.
+     */
+    public void loadCatalog(final @NonNull Path path) throws LocalizationException
+    {
+        Catalog catalog = Catalog.open(path);
+        Map<String, Map<Locale, ResourceBundle>> elements = new LinkedHashMap<>();
+
+        for (String name : catalog.getBundles())
+        {
+            Map<Locale, ResourceBundle> locales = new LinkedHashMap<>();
+            for (Locale current : catalog.getLocales(name))
+            {
+                if (!current.equals(Locale.ROOT))
+                {
+                    locales.put(current, catalog.getBundle(name, current));
+                }
+            }
+
+            elements.put(name, locales);
+        }
+
+        int count = bundles.registerAll(elements);
+        LOGGER.info(String.format("Registered: '%s' resource bundles from message catalog: '%s'", count, path));
+    }
+
+    /**
+     * Watch a directory containing resource bundle <b>properties</b> files and hot reload the resource bundles when their files change.
+     * <br>
+     * The resource bundles of the directory (ex.: <b>i18n/time/month_fr.properties</b> for the resource bundle <b>i18n/time/month</b>)
+     * are registered immediately. Then, only the resource bundles affected by a changed file are replaced, atomically and in the
+     * background, so the localization services never block nor miss a resource bundle (as opposed to {@link #clearAll()}).
+     * @param directory Directory to watch.
+     * @return Watcher (to close to stop watching the directory).
+     * @throws LocalizationException Thrown to indicate the directory cannot be watched.
+     */
+    public LocalizationWatcher watch(final @NonNull Path directory) throws LocalizationException
+    {
+        return new BundleWatcher(directory, bundles, defaultLocale);
+    }
+
     /**
      * Retrieve the value of the given resource bundle key.
      * @param key Resource bundle key.
@@ -143,7 +354,7 @@ public final class I18nManager
      */
     public String get(final @NonNull String key) throws LocalizationException
     {
-        return get(key, locale);
+        return get(key, getLocale());
     }
 
     /**
@@ -207,6 +418,9 @@ public final class I18nManager
 
     /**
      * Localize a resource.
+     * <br>
+     * The element to localize is determined by the method (annotated with the <b>I18n</b> annotation) having invoked this
+     * service or, if not invoked from such a method, by the fields of the instance annotated with the <b>I18n</b> annotation.
      * @param instance Instance containing the resource to localize.
      * @param locale Locale.
      * @return Localized value.
@@ -214,21 +428,18 @@ public final class I18nManager
      */
     public String localize(final @NonNull Object instance, final Locale locale) throws LocalizationException
     {
-        LocalizationInvocationContext context = new LocalizationInvocationContext();
-        context.setInvocationType(LocalizationInvocationType.UNKNOWN);
-
         // Compute the invocation context
-        findInvocationMethod(context, instance);
+        LocalizationInvocationContext context = findInvocationMethod();
 
-        if (context.getInvocationType() == LocalizationInvocationType.UNKNOWN)
+        if (context == null)
         {
-            findInvocationField(context, instance);
+            context = LocalizationMetadata.of(instance.getClass()).getFieldContext();
         }
 
         switch (context.getInvocationType())
         {
             case METHOD:
-                return localizeElement(context.getInstanceClassAnnotation(), context.getMethodAnnotation(), instance, locale);
+                return localizeElement(getInstanceClassAnnotation(instance), context.getMethodAnnotation(), instance, locale);
 
             case FIELD:
                 localizeAllField(context, instance, locale);
@@ -241,343 +452,286 @@ public final class I18nManager
     }
 
     /**
-     * Returns a list of filtered locales based on a range of authorized languages.
-     * @return List of filtered locales.
+     * Localize the fields annotated with the <b>I18n</b> annotation of a collection of objects.
+     * @param elements Objects to localize.
+     * @param locale Locale.
+     * @throws LocalizationException Thrown to indicate an error occurred while trying to localize an object.
      */
-    private List<Locale> getFilteredLocales()
+    public void localizeAll(final @NonNull Collection<? extends Localize> elements, final @NonNull Locale locale) throws LocalizationException
     {
-        final String languagesPriorityRange = "en;q=1.0,fr;q=0.5,de;q=0.5,it;q=0.5,es;q=0.5,ja;q=0.5,af;q=0.5," +
-                "ar;q=0.5,bg;q=0.5,cs;q=0.5,da;q=0.5,el;q=0.5,et;q=0.5,fi;q=0.5,hi;q=0.5,hu;q=0.5,iw;q=0.5,ko;q=0.5," +
-                "nl;q=0.5,no;q=0.5,pl;q=0.5,pt;q=0.5,ro;q=0.5,ru;q=0.5,sq;q=0.5,th;q=0.5,tr;q=0.5,zh;q=0.5";
-
-        List<String> listWithDuplicates = new ArrayList<>();
-
-        // Get only locales for languages
-        for (Locale current : Locale.getAvailableLocales())
-        {
-            listWithDuplicates.add(current.getLanguage());
-        }
-
-        // Remove duplicates
-        List<String> listWithoutDuplicates = listWithDuplicates.stream()
-                .distinct()
-                .toList();
-
-        List<Locale.LanguageRange> languageRanges = Locale.LanguageRange.parse(languagesPriorityRange);
-        List<String> filtered = Locale.filterTags(languageRanges, listWithoutDuplicates);
-
-        return filtered.stream().map(Locale::forLanguageTag).toList();
+        localizeAll(elements, locale, null);
     }
 
     /**
-     * Add a resource bundle.
-     * @param path Resource bundle path and name.
+     * Localize the fields annotated with the <b>I18n</b> annotation of a collection of objects.
+     * <br>
+     * Objects are grouped by class and the localized fields (and their setters) of a class are resolved once for all its
+     * objects. When a pool is provided, the classes having at least 1024 objects are localized by
+     * chunks in parallel on the pool.
+     * @param elements Objects to localize.
      * @param locale Locale.
-     * @throws LocalizationException Thrown to indicate a resource bundle cannot be found.
+     * @param pool Fork-join pool or <b>null</b> to localize the objects on the calling thread.
+     * @throws LocalizationException Thrown to indicate an error occurred while trying to localize an object.
      */
-    private void add(final @NonNull String path, final @NonNull Locale locale) throws LocalizationException
+    public void localizeAll(final @NonNull Collection<? extends Localize> elements, final @NonNull Locale locale, final ForkJoinPool pool) throws LocalizationException
     {
-        ResourceBundle bundle = getBundleFor(path, locale);
-
-        if (bundle == null)
+        Map<Class<?>, List<Localize>> groups = new LinkedHashMap<>();
+        for (Localize element : elements)
         {
-            bundle = ResourceBundle.getBundle(path, locale);
+            groups.computeIfAbsent(element.getClass(), type -> new ArrayList<>()).add(element);
+        }
 
-            if (bundle == null)
+        for (Map.Entry<Class<?>, List<Localize>> group : groups.entrySet())
+        {
+            LocalizationInvocationContext context = LocalizationMetadata.of(group.getKey()).getFieldContext();
+            if (context.getInvocationType() != LocalizationInvocationType.FIELD)
             {
-                throw new LocalizationException(String.format("Cannot find bundle: '%s'", path));
+                throw new LocalizationException(String.format("Class: '%s' has no field annotated with the I18n annotation!", group.getKey().getName()));
             }
 
-            if (bundle.getLocale().equals(locale))
+            if (pool == null || group.getValue().size() < PARALLEL_THRESHOLD)
             {
-                LOGGER.debug(String.format("Found resource bundle: '%s' for language: '%s (%s)' with: '%s' entries", path, locale, locale.getDisplayLanguage(), bundle.keySet().size()));
+                for (Localize element : group.getValue())
+                {
+                    localizeAllField(context, element, locale);
+                }
             }
             else
             {
-                LOGGER.debug(String.format("Cannot find resource bundle: '%s' for language: '%s (%s)'. Replacing with default: '%s (%s)' with: '%s' entries", path, locale, locale.getDisplayLanguage(), bundle.getLocale(), bundle.getLocale().getDisplayLanguage(), bundle.keySet().size()));
+                localizeAllParallel(context, group.getValue(), locale, pool);
             }
-
-            bundles.computeIfAbsent(Locale.forLanguageTag(locale.getLanguage()), function -> Maps.newHashMap()).put(path, bundle);
         }
     }
 
     /**
-     * Return a registered resource bundle.
-     * @param path Path (and name) of the resource bundle.
+     * Localize the fields of objects of the same class by chunks in parallel.
+     * @param context Field localization context of the class.
+     * @param elements Objects to localize.
      * @param locale Locale.
-     * @return Resource bundle if one matches, <b>null</b> otherwise.
+     * @param pool Fork-join pool.
+     * @throws LocalizationException Thrown to indicate an error occurred while trying to localize an object.
      */
-    private ResourceBundle getBundleFor(final @NonNull String path, final @NonNull Locale locale)
+    private void localizeAllParallel(final LocalizationInvocationContext context, final List<Localize> elements, final Locale locale, final ForkJoinPool pool) throws LocalizationException
     {
-        Map<String, ResourceBundle> bundlesForLocale = bundles.get(locale);
-
-        return bundlesForLocale == null ? null : bundlesForLocale.get(path);
-    }
+        int chunk = Math.max(PARALLEL_THRESHOLD / 4, elements.size() / (pool.getParallelism() * 4));
+        List<ForkJoinTask<Void>> tasks = new ArrayList<>();
 
-    /**
-     * Lookup the first matching resource bundle entry matching the given key in registered resource bundles.
-     * @param key Resource bundle key.
-     * @param locale Locale.
-     * @return Resource bundle value matching the key, <b>null</b> otherwise.
-     * @throws LocalizationException Thrown to indicate an error occurred while trying to localize a resource.
-     */
-    private String lookup(final @NonNull String key, final @NonNull Locale locale) throws LocalizationException
-    {
-        if (bundles.isEmpty())
+        for (int start = 0; start < elements.size(); start += chunk)
         {
-            throw new LocalizationException(String.format(
-                    "No resource bundle found containing key: '%s' for locale: '%s'. Try loading the resource bundle first using I18nManager#load service!",
-                    key,
-                    locale));
+            List<Localize> slice = elements.subList(start, Math.min(start + chunk, elements.size()));
+            tasks.add(pool.submit(() -> {
+                for (Localize element : slice)
+                {
+                    localizeAllField(context, element, locale);
+                }
+                return null;
+            }));
         }
 
-        Locale currentLocale = Locale.forLanguageTag(locale.getLanguage());
-
-        Map<String, ResourceBundle> elements = bundles.get(currentLocale);
-        for (ResourceBundle bundle : elements.values())
+        for (ForkJoinTask<Void> task : tasks)
         {
-            if (!currentLocale.getDisplayLanguage().equals(locale.getDisplayLanguage()))
+            try
             {
-                LOGGER.warn(String.format("No resource bundle: '%s', language-tag: '%s', language: '%s' found!",
-                        bundle.getBaseBundleName(), locale.toLanguageTag(), locale.getDisplayLanguage()));
+                task.get();
             }
-
-            if (bundle.containsKey(key))
+            catch (InterruptedException e)
             {
-                return bundle.getString(key);
+                Thread.currentThread().interrupt();
+                throw new LocalizationException("Localization of the objects has been interrupted!");
             }
-            else
+            catch (ExecutionException e)
             {
-                loadBundle(bundle, locale);
-                if (bundle.containsKey(key))
+                if (e.getCause() instanceof LocalizationException cause)
                 {
-                    return bundle.getString(key);
+                    throw cause;
                 }
+
+                throw new LocalizationException(e.getCause().getMessage());
             }
         }
-
-        throw new LocalizationException(String.format("Resource key: '%s' for locale: '%s' not found!", key, locale));
     }
 
     /**
-     * Load a resource bundle, if absent.
-     * @param bundle Resource bundle.
+     * Localize a resource given an explicit resource bundle and key.
+     * <br>
+     * Contrary to {@link #localize(Object, Locale)}, this service does not need to inspect the call stack to find the
+     * element to localize. The resource bundle and the key may contain variables (ex.: <b>${this}</b>) expanded using the given instance.
+     * @param instance Instance containing the values of the variables to substitute in {@code bundle} and {@code key}.
+     * @param bundle Resource bundle (path and name).
+     * @param key Resource bundle key.
      * @param locale Locale.
+     * @return Localized value.
+     * @throws LocalizationException Thrown to indicate an error occurred while trying to localize a resource.
      */
-    private void loadBundle(final @NonNull ResourceBundle bundle, final @NonNull Locale locale)
+    public String localize(final @NonNull Object instance, final @NonNull String bundle, final @NonNull String key, final @NonNull Locale locale) throws LocalizationException
     {
-        try
-        {
-            load(bundle.getBaseBundleName(), locale);
-        }
-        catch (Exception e)
-        {
-            // Do nothing!
-        }
+        return getKey(expand(instance, bundle), expand(instance, key), locale);
     }
 
     /**
-     * Localize all fields of an object.
-     * @param context Localization context.
-     * @param instance Object instance.
-     * @param locale Locale.
-     * @throws LocalizationException Thrown to indicate an error occurred while trying to localize a resource.
+     * Expand a resource bundle or key template using its compiled version for the class of the given instance.
+     * @param instance Instance containing the values of the variables to substitute.
+     * @param template Template (ex.: <b>month.${this}.name</b>).
+     * @return Expanded template.
+     * @throws LocalizationException Thrown to indicate an error occurred while trying to expand the template.
      */
-    private void localizeAllField(final @NonNull LocalizationInvocationContext context, final Object instance, final Locale locale) throws LocalizationException
+    private String expand(final @NonNull Object instance, final @NonNull String template) throws LocalizationException
     {
-        Method method;
-        String localized;
-
-        // Localize value for each field found annotated with I18n annotation
-        for (LocalizationFieldContext fieldContext : context.getFields())
-        {
-            try
-            {
-                method = findSetterForField(context, fieldContext);
-                if (method != null)
-                {
-                    localized = localizeElement(context.getDeclaringClassAnnotation(), fieldContext.getFieldAnnotation(), instance, locale);
-                    method.invoke(instance, localized);
-                }
-            }
-            catch (Exception e)
-            {
-                throw new LocalizationException(e.getMessage());
-            }
-        }
+        return LocalizationMetadata.of(instance.getClass()).getTemplate(template).expand(instance);
     }
 
     /**
-     * Find the invocation method being the one which invoked the localization.
-     * @param context Localization context.
-     * @param instance Object instance.
+     * Returns a list of filtered locales based on a range of authorized languages.
+     * @return List of filtered locales.
      */
-    private void findInvocationMethod(final @NonNull LocalizationInvocationContext context, final Object instance)
+    private static List<Locale> filterLocales()
     {
-        Class<?> clazz;
+        // Get only locales for languages (without duplicates)
+        List<String> languages = Arrays.stream(Locale.getAvailableLocales())
+                .map(Locale::getLanguage)
+                .distinct()
+                .toList();
 
-        for (StackTraceElement trace : Thread.currentThread().getStackTrace())
-        {
-            try
-            {
-                clazz = Class.forName(trace.getClassName());
+        List<String> filtered = Locale.filterTags(Locale.LanguageRange.parse(LANGUAGES_PRIORITY_RANGE), languages);
 
-                isInvocationMethodValid(context, instance, clazz, trace);
-                if (context.getMethod() != null)
-                {
-                    return;
-                }
-            }
-            catch (ClassNotFoundException e)
-            {
-                // Do nothing, just process the next trace!
-            }
-        }
+        return filtered.stream().map(Locale::forLanguageTag).toList();
     }
 
     /**
-     * Find the invocation field being the one which invoked the localization.
-     * @param context Localization context.
-     * @param instance Object instance.
+     * Add a resource bundle.
+     * @param path Resource bundle path and name.
+     * @param locale Locale.
+     * @throws LocalizationException Thrown to indicate a resource bundle cannot be found.
      */
-    private void findInvocationField(final @NonNull LocalizationInvocationContext context, final Object instance)
+    private void add(final @NonNull String path, final @NonNull Locale locale) throws LocalizationException
     {
-        Class<?> declaringClass;
-
-        // Find all fields annotated with I18n annotation
-        List<Field> fields = ReflectionHelper.findAnnotatedFieldsInClassHierarchy(instance.getClass(), I18n.class);
-        for (Field field : fields)
+        if (bundles.get(path, locale) == null)
         {
-            declaringClass = field.getDeclaringClass();
-
-            context.setInvocationType(LocalizationInvocationType.FIELD);
-            context.addField(new LocalizationFieldContext(field, field.getAnnotation(I18n.class)));
-
-            if (context.getDeclaringClass() == null)
-            {
-                context.setDeclaringClass(declaringClass);
-                if (declaringClass.isAnnotationPresent(I18n.class))
-                {
-                    context.setDeclaringClassAnnotation(declaringClass.getAnnotation(I18n.class));
-                }
-            }
+            bundles.register(path, locale, resolve(path, locale));
         }
     }
 
     /**
-     * Check if the found method is a valid method which may have invoked the localization?
-     * @param context Localization context.
-     * @param instance Object instance.
-     * @param clazz Class.
-     * @param trace Stack trace element.
+     * Resolve (load) a resource bundle.
+     * @param path Resource bundle path and name.
+     * @param locale Locale.
+     * @return Resource bundle.
+     * @throws LocalizationException Thrown to indicate a resource bundle cannot be found.
      */
-    private void isInvocationMethodValid(final @NonNull LocalizationInvocationContext context, final Object instance, final @NonNull Class<?> clazz, final @NonNull StackTraceElement trace)
+    private ResourceBundle resolve(final @NonNull String path, final @NonNull Locale locale) throws LocalizationException
     {
-        Method method;
+        ResourceBundle bundle = ResourceBundle.getBundle(path, locale);
 
-        try
-        {
-            method = clazz.getMethod(trace.getMethodName());
-            verifyMethodSignature(context, instance, method);
-        }
-        catch (NoSuchMethodException e)
+        if (bundle == null)
         {
-            try
-            {
-                // Maybe the method has a parameter of type Locale
-                method = clazz.getMethod(trace.getMethodName(), Locale.class);
-                verifyMethodSignature(context, instance, method);
-            }
-            catch (NoSuchMethodException oe)
-            {
-                // Do nothing, seems to be the wrong method!
-            }
+            throw new LocalizationException(String.format("Cannot find bundle: '%s'", path));
         }
-    }
 
-    /**
-     * Verify the method signature.
-     * @param context Localization context.
-     * @param instance Object instance.
-     * @param method Method.
-     */
-    private void verifyMethodSignature(final @NonNull LocalizationInvocationContext context, final Object instance, final @NonNull Method method)
-    {
-        if (method.isAnnotationPresent(I18n.class)) // Method should be annotated with I18n annotation
+        if (bundle.getLocale().equals(locale))
         {
-            fillInvocationContext(context, instance, method);
+            LOGGER.debug(String.format("Found resource bundle: '%s' for language: '%s (%s)' with: '%s' entries", path, locale, locale.getDisplayLanguage(), bundle.keySet().size()));
         }
-
-        if (method.getDeclaringClass().isAssignableFrom(LocalizeEnum.class)) // Method's class should implement the LocalizeEnum interface
+        else
         {
-            fillInvocationContext(context, instance, method);
+            LOGGER.debug(String.format("Cannot find resource bundle: '%s' for language: '%s (%s)'. Replacing with default: '%s (%s)' with: '%s' entries", path, locale, locale.getDisplayLanguage(), bundle.getLocale(), bundle.getLocale().getDisplayLanguage(), bundle.keySet().size()));
         }
+
+        return bundle;
     }
 
     /**
-     * Fill the localization context.
-     * @param context Localization context.
-     * @param instance Object instance.
-     * @param method Method.
+     * Lookup the first matching resource bundle entry matching the given key in registered resource bundles.
+     * @param key Resource bundle key.
+     * @param locale Locale.
+     * @return Resource bundle value matching the key, <b>null</b> otherwise.
+     * @throws LocalizationException Thrown to indicate an error occurred while trying to localize a resource.
      */
-    private void fillInvocationContext(final @NonNull LocalizationInvocationContext context, final Object instance, final @NonNull Method method)
+    private String lookup(final @NonNull String key, final @NonNull Locale locale) throws LocalizationException
     {
-        // Fill the method's context data
-        context.setMethod(method);
-        context.setInvocationType(LocalizationInvocationType.METHOD);
+        String value = bundles.lookup(key, locale);
 
-        if (method.isAnnotationPresent(I18n.class))
+        if (value == null)
         {
-            context.setMethodAnnotation(method.getAnnotation(I18n.class));
-        }
-
-        // Fill the class's context data
-        Class<?> declaringClass = method.getDeclaringClass();
-        context.setDeclaringClass(declaringClass);
-
-        if (declaringClass.isAnnotationPresent(I18n.class))
-        {
-            context.setDeclaringClassAnnotation(declaringClass.getAnnotation(I18n.class));
-        }
-
-        if (instance instanceof Enum<?> value)
-        {
-            Class<?> instanceClass = value.getClass();
-            context.setInstanceClass(instanceClass);
-            if (instanceClass.isAnnotationPresent(I18n.class))
+            if (bundles.isEmpty())
             {
-                context.setInstanceClassAnnotation(instanceClass.getAnnotation(I18n.class));
+                throw new LocalizationException(String.format(
+                        "No resource bundle found containing key: '%s' for locale: '%s'. Try loading the resource bundle first using I18nManager#load service!",
+                        key,
+                        locale));
             }
+
+            throw new LocalizationException(String.format("Resource key: '%s' for locale: '%s' not found!", key, locale));
         }
+
+        return value;
     }
 
     /**
-     * Find the setter method for a given field.
+     * Localize all fields of an object.
      * @param context Localization context.
-     * @param fieldContext Field localization context.
+     * @param instance Object instance.
+     * @param locale Locale.
      * @throws LocalizationException Thrown to indicate an error occurred while trying to localize a resource.
      */
-    private Method findSetterForField(LocalizationInvocationContext context, LocalizationFieldContext fieldContext) throws LocalizationException
+    private void localizeAllField(final @NonNull LocalizationInvocationContext context, final Object instance, final Locale locale) throws LocalizationException
     {
-        Method method = null;
+        Method setter;
+        String localized;
 
-        try
-        {
-            method = context.getDeclaringClass().getMethod("set" + StringUtils.capitalize(fieldContext.getField().getName()), String.class);
-        }
-        catch (Exception e)
+        // Localize value for each field found annotated with I18n annotation
+        for (LocalizationFieldContext fieldContext : context.getFields())
         {
+            setter = fieldContext.getSetter();
+            if (setter == null)
+            {
+                throw new LocalizationException(String.format("Cannot find setter for localized field: '%s' of class: '%s'", fieldContext.getField().getName(), instance.getClass().getName()));
+            }
+
+            localized = localizeElement(context.getDeclaringClassAnnotation(), fieldContext.getFieldAnnotation(), instance, locale);
+
             try
             {
-                method = context.getDeclaringClass().getMethod("set" + StringUtils.capitalize(fieldContext.getField().getName()), String.class, Locale.class);
+                if (fieldContext.getAccessor() != null)
+                {
+                    fieldContext.getAccessor().set(instance, localized);
+                }
+                else if (setter.getParameterCount() == 1)
+                {
+                    setter.invoke(instance, localized);
+                }
+                else
+                {
+                    setter.invoke(instance, localized, locale);
+                }
             }
-            catch (Exception ex)
+            catch (Exception e)
             {
                 throw new LocalizationException(e.getMessage());
             }
         }
+    }
 
-        return method;
+    /**
+     * Find the invocation method being the one which invoked the localization.
+     * @return Method localization context or <b>null</b> if not invoked from a localization method.
+     */
+    private LocalizationInvocationContext findInvocationMethod()
+    {
+        return STACK_WALKER.walk(frames -> frames
+                .map(frame -> LocalizationMetadata.of(frame.getDeclaringClass()).getMethodContext(frame.getMethodName()))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null));
+    }
+
+    /**
+     * Return the localization annotation of the class of an instance (only for enumerated values).
+     * @param instance Object instance.
+     * @return Localization annotation or <b>null</b> if none.
+     */
+    private I18n getInstanceClassAnnotation(final @NonNull Object instance)
+    {
+        return instance instanceof Enum<?> ? LocalizationMetadata.of(instance.getClass()).getAnnotation() : null;
     }
 
     /**
@@ -604,12 +758,12 @@ public final class I18nManager
 
                 if (!annotation.bundle().isEmpty())
                 {
-                    classBundle = StringExpander.expandVariables(instance, annotation.bundle());
+                    classBundle = expand(instance, annotation.bundle());
                 }
 
                 if (!annotation.key().isEmpty())
                 {
-                    classKey = StringExpander.expandVariables(instance, annotation.key());
+                    classKey = expand(instance, annotation.key());
                 }
             }
 
@@ -619,12 +773,12 @@ public final class I18nManager
 
                 if (!annotation.bundle().isEmpty())
                 {
-                    bundle = StringExpander.expandVariables(instance, annotation.bundle());
+                    bundle = expand(instance, annotation.bundle());
                 }
 
                 if (!annotation.key().isEmpty())
                 {
-                    key = StringExpander.expandVariables(instance, annotation.key());
+                    key = expand(instance, annotation.key());
                 }
             }
 
@@ -657,36 +811,11 @@ public final class I18nManager
      */
     public void localizeInstantLocalization(final @NonNull Object instance, final Object reference, final Locale locale) throws LocalizationException
     {
-        Method method;
-        String expandedKey;
-        String expandedBundle;
-        String translated;
-
         if (instance instanceof InstantLocalization element)
         {
             if (element.getKey() != null)
             {
-                try
-                {
-                    expandedBundle = StringExpander.expandVariables(reference != null ? reference : instance, element.getBundle() != null ? element.getBundle() : element.getKey());
-                    expandedKey = StringExpander.expandVariables(reference != null ? reference : instance, element.getKey());
-
-                    if (element.getBundle() != null)
-                    {
-                        translated = get(expandedBundle, expandedKey, locale);
-                    }
-                    else
-                    {
-                        translated = get(expandedKey, locale);
-                    }
-
-                    method = instance.getClass().getDeclaredMethod(SETTER_FIELD_NAME, String.class);
-                    method.invoke(element, translated);
-                }
-                catch (Exception e)
-                {
-                    throw new LocalizationException(e.getMessage());
-                }
+                element.setValue(resolve(element.getBundle(), element.getKey(), reference != null ? reference : instance, locale));
             }
             else
             {
@@ -695,6 +824,63 @@ public final class I18nManager
         }
     }
 
+    /**
+     * Resolve the localized value of a resource bundle key.
+     * <br>
+     * Values of the resource bundle keys without variable are cached (see {@link #getMessageCacheStatistics()}).
+     * @param bundle Resource bundle (path and name) or <b>null</b> to lookup the key in all the registered resource bundles.
+     * @param key Resource bundle key.
+     * @param instance Instance containing the values of the variables to substitute in {@code bundle} and {@code key}.
+     * @param locale Locale.
+     * @return Value (localized).
+     * @throws LocalizationException Thrown to indicate an error occurred while trying to localize a resource.
+     */
+    String resolve(final String bundle, final @NonNull String key, final Object instance, final @NonNull Locale locale) throws LocalizationException
+    {
+        boolean cacheable = !StringExpander.containsVariable(key) && (bundle == null || !StringExpander.containsVariable(bundle));
+
+        if (cacheable)
+        {
+            String value = messages.get(bundle, key, locale);
+            if (value != null)
+            {
+                return value;
+            }
+        }
+
+        long version = bundles.getVersion();
+        String value;
+
+        try
+        {
+            String expandedKey = StringExpander.expandVariables(instance, key);
+
+            value = bundle != null
+                    ? get(StringExpander.expandVariables(instance, bundle), expandedKey, locale)
+                    : get(expandedKey, locale);
+        }
+        catch (StringExpanderException e)
+        {
+            throw new LocalizationException(e.getMessage());
+        }
+
+        if (cacheable)
+        {
+            messages.put(bundle, key, locale, value, version);
+        }
+
+        return value;
+    }
+
+    /**
+     * Return the statistics (hits, misses and evictions) of the resolved messages cache.
+     * @return Statistics.
+     */
+    public CacheStats getMessageCacheStatistics()
+    {
+        return messages.getStatistics();
+    }
+
     /**
      * Retrieve the given key from the given resource bundle path.
      * @param filePath Resource bundle path and name.
@@ -704,52 +890,52 @@ public final class I18nManager
      */
     private String getKey(final @NonNull String filePath, final @NonNull String key, final @NonNull Locale locale) throws LocalizationException
     {
-        ResourceBundle bundle;
-        Locale currentLocale = locale;
+        String value = bundles.lookup(filePath, key, locale);
+        if (value != null)
+        {
+            return value;
+        }
+
+        if (bundles.isMissing(filePath, key, locale))
+        {
+            throw new LocalizationException(String.format("Cannot find key: '%s' in bundle: '%s' for locale: '%s'", key, filePath, locale));
+        }
 
         // Ensure the resource bundles are loaded
         load(filePath);
 
-        Map<String, ResourceBundle> elements = bundles.get(currentLocale);
-        if (elements != null)
+        ResourceBundle bundle = bundles.get(filePath, locale);
+        if (bundle != null)
         {
-            bundle = elements.get(filePath);
-            if (bundle != null)
+            if (!bundle.getLocale().getLanguage().equals(locale.getLanguage()))
             {
-                if (!bundle.getLocale().toLanguageTag().equals(currentLocale.toLanguageTag()))
-                {
-                    LOGGER.warn(String.format("Warning: cannot find resource bundle: '%s', language-tag: '%s', language: '%s'!",
-                            bundle.getBaseBundleName(), currentLocale, currentLocale.getDisplayLanguage()));
-                }
+                LOGGER.warn(String.format("Warning: cannot find resource bundle: '%s', language-tag: '%s', language: '%s'!",
+                        bundle.getBaseBundleName(), locale, locale.getDisplayLanguage()));
+            }
 
-                try
-                {
-                    return bundle.getString(key);
-                }
-                catch (MissingResourceException e)
-                {
-                    throw new LocalizationException(
-                            String.format(
-                                    "Cannot find key: '%s' in bundle: '%s' for locale: '%s'",
-                                    key,
-                                    filePath,
-                                    currentLocale));
-                }
+            value = bundles.lookupOrMarkMissing(filePath, key, locale);
+            if (value == null)
+            {
+                throw new LocalizationException(String.format("Cannot find key: '%s' in bundle: '%s' for locale: '%s'", key, filePath, locale));
             }
+
+            return value;
         }
-        else
+
+        Locale defaultLanguage = Locale.forLanguageTag(this.defaultLocale.getLanguage());
+        if (defaultLanguage.getLanguage().equals(locale.getLanguage()))
         {
-            LOGGER.warn(String.format("No resource bundle found for bundle: '%s', language: '%s (%s)'. Use of default language: '%s (%s)' instead!",
-                    filePath,
-                    currentLocale,
-                    currentLocale.getDisplayLanguage(),
-                    getLocale().toLanguageTag(),
-                    getLocale().getDisplayLanguage()));
-
-            currentLocale = Locale.forLanguageTag(getLocale().getLanguage());
+            throw new LocalizationException(String.format("Cannot find bundle: '%s' for locale: '%s'", filePath, locale));
         }
 
-        return getKey(filePath, key, currentLocale);
+        LOGGER.warn(String.format("No resource bundle found for bundle: '%s', language: '%s (%s)'. Use of default language: '%s (%s)' instead!",
+                filePath,
+                locale,
+                locale.getDisplayLanguage(),
+                defaultLanguage.toLanguageTag(),
+                defaultLanguage.getDisplayLanguage()));
+
+        return getKey(filePath, key, defaultLanguage);
     }
 
     /**
@@ -766,17 +952,55 @@ public final class I18nManager
 //        return (GoogleTranslationResult) translationProcessor.translate(text,source,target);
 //    }
 
+    /**
+     * Set the translation processor.
+     * <br>
+     * The manager owns its translation processor: the replaced translation processor is closed (releasing the threads
+     * and connections of its translation chain).
+     * @param translator Translation processor.
+     */
+    public synchronized void setTranslator(final @NonNull ITranslator translator)
+    {
+        ITranslator previous = translationProcessor;
+        this.translationProcessor = translator;
+
+        if (previous != translator)
+        {
+            try
+            {
+                previous.close();
+            }
+            catch (IOException e)
+            {
+                LOGGER.warn(String.format("Cannot close the replaced translation processor: %s", e.getMessage()));
+            }
+        }
+    }
+
     /**
      * Translate a text.
+     * <br>
+     * Translations are not serialized, the translation processor is responsible for bounding its concurrent requests.
      * @param text Text to translate.
      * @param source Source locale.
      * @param target Target locale.
      * @return Translated text.
      * @throws TranslationException Thrown to indicate an error occurred while trying to translate a text.
      */
-    @Synchronized
     public String translate(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target) throws TranslationException
     {
         return translationProcessor.translate(text,source,target);
     }
+
+    /**
+     * Translate a text asynchronously.
+     * @param text Text to translate.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @return Future translated text, completed exceptionally with a {@link TranslationException} if an error occurred while trying to translate the text.
+     */
+    public CompletableFuture<String> translateAsync(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+    {
+        return translationProcessor.translateAsync(text, source, target);
+    }
 }
@@ -16,6 +16,7 @@ package com.hemajoo.commerce.cherry.base.i18n.localization;
 
 import com.google.gson.annotations.SerializedName;
 import com.hemajoo.commerce.cherry.base.i18n.localization.exception.LocalizationException;
+import com.hemajoo.commerce.cherry.base.utilities.helper.StringExpander;
 import lombok.*;
 import lombok.extern.log4j.Log4j2;
 
@@ -154,10 +155,7 @@ public final class InstantLocalization implements Serializable
      */
     public static String asString(final @NonNull String key) throws LocalizationException
     {
-        InstantLocalization i18n = new InstantLocalization(null, key, null);
-        i18n.localize();
-
-        return i18n.getValue();
+        return asString(key, I18nManager.getInstance().getLocale());
     }
 
     /**
@@ -169,10 +167,13 @@ public final class InstantLocalization implements Serializable
      */
     public static String asString(final @NonNull String key, final @NonNull Locale locale) throws LocalizationException
     {
-        InstantLocalization i18n = new InstantLocalization(null, key, null);
-        i18n.localize(locale);
+        if (StringExpander.containsVariable(key))
+        {
+            return from(key, locale).getValue();
+        }
 
-        return i18n.getValue();
+        // No variable to expand, no need to create an instance
+        return I18nManager.getInstance().resolve(null, key, null, locale);
     }
 
     /**
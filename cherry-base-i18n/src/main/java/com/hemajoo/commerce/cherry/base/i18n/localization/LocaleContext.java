@@ -0,0 +1,149 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.localization;
+
+import lombok.NonNull;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * A scoped locale context.
+ * <br>
+ * Binds a locale to the current thread (platform or virtual) for the duration of a scope (ex.: a request). While a scope
+ * is open, the localization services invoked without an explicit locale (ex.: {@link Localize#localize()} or
+ * {@link LocalizeEnum#getName()}) use the scoped locale instead of the {@link I18nManager} default locale. Closing a scope
+ * restores the locale bound before it was opened, so scopes can be nested.
+ * <pre>
+ * try (LocaleContext.Scope scope = LocaleContext.open(Locale.FRENCH))
+ * {
+ *     String name = MonthType.MARCH.getName(); // Mars
+ * }
+ * </pre>
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class LocaleContext
+{
+    /**
+     * Locale bound to the current thread.
+     */
+    private static final ThreadLocal<Locale> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Avoid direct instantiation!
+     */
+    private LocaleContext()
+    {
+        // Empty
+    }
+
+    /**
+     * Return the locale bound to the current thread.
+     * @return Locale or <b>null</b> if no scope is open on the current thread.
+     */
+    public static Locale current()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * Open a scope binding a locale to the current thread.
+     * @param locale Locale.
+     * @return Scope to close (ideally using a try-with-resources statement) once done.
+     */
+    public static Scope open(final @NonNull Locale locale)
+    {
+        Locale previous = CURRENT.get();
+        CURRENT.set(locale);
+
+        return new Scope(previous);
+    }
+
+    /**
+     * Execute an action with a locale bound to the current thread.
+     * @param locale Locale.
+     * @param action Action to execute.
+     */
+    public static void run(final @NonNull Locale locale, final @NonNull Runnable action)
+    {
+        try (Scope scope = open(locale))
+        {
+            action.run();
+        }
+    }
+
+    /**
+     * Execute an action with a locale bound to the current thread.
+     * @param <T> Type of the result.
+     * @param locale Locale.
+     * @param action Action to execute.
+     * @return Result of the action.
+     * @throws Exception Thrown to indicate an error occurred while executing the action.
+     */
+    public static <T> T call(final @NonNull Locale locale, final @NonNull Callable<T> action) throws Exception
+    {
+        try (Scope scope = open(locale))
+        {
+            return action.call();
+        }
+    }
+
+    /**
+     * A locale scope restoring, when closed, the locale bound to the thread before it was opened.
+     */
+    public static final class Scope implements AutoCloseable
+    {
+        /**
+         * Locale bound before the scope was opened.
+         */
+        private final Locale previous;
+
+        /**
+         * Thread having opened the scope.
+         */
+        private final Thread owner = Thread.currentThread();
+
+        /**
+         * Create a new scope.
+         * @param previous Locale bound before the scope was opened or <b>null</b>.
+         */
+        private Scope(final Locale previous)
+        {
+            this.previous = previous;
+        }
+
+        /**
+         * Close the scope.
+         */
+        @Override
+        public void close()
+        {
+            if (Thread.currentThread() != owner)
+            {
+                throw new IllegalStateException("A locale scope must be closed by the thread having opened it!");
+            }
+
+            if (previous == null)
+            {
+                CURRENT.remove();
+            }
+            else
+            {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.localization;
+
+import java.nio.file.Path;
+
+/**
+ * A watcher of a directory containing resource bundle <b>properties</b> files hot reloading the resource bundles when their
+ * files change (see {@link I18nManager#watch(Path)}).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public interface LocalizationWatcher extends AutoCloseable
+{
+    /**
+     * Return the watched directory.
+     * @return Directory.
+     */
+    Path getDirectory();
+
+    /**
+     * Return the number of resource bundles reloaded since the watcher has been started.
+     * @return Number of reloaded resource bundles.
+     */
+    long getReloadCount();
+
+    /**
+     * Stop watching the directory.
+     */
+    @Override
+    void close();
+}
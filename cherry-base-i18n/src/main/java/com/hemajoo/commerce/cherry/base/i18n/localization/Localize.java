@@ -29,7 +29,7 @@ import java.util.Locale;
 public interface Localize extends Serializable
 {
     /**
-     * Localize fields annotated with the <b>I18n</b> annotation.
+     * Localize fields annotated with the <b>I18n</b> annotation (using the {@link LocaleContext} locale if any, the {@link I18nManager} default locale otherwise).
      * @throws LocalizationException Thrown to indicate an error occurred while trying to localize an element.
      */
     default void localize() throws LocalizationException
@@ -29,7 +29,7 @@ import java.util.Locale;
 public interface LocalizeEnum extends Serializable
 {
     /**
-     * Return the enumerated value localized <b>name</b>.
+     * Return the enumerated value localized <b>name</b> (using the {@link LocaleContext} locale if any, the {@link I18nManager} default locale otherwise).
      * @return Localized enumerated value name.
      * @throws LocalizationException Thrown to indicate an error occurred while trying to process a localization.
      */
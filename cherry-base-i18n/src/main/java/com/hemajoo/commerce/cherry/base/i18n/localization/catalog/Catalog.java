@@ -0,0 +1,406 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.localization.catalog;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.exception.LocalizationException;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A binary message catalog (read-only).
+ * <br>
+ * A catalog is produced by the {@link CatalogCompiler} and contains a set of resource bundles with their values for each
+ * of their locales. Its layout (all integers are big-endian) is:
+ * <ul>
+ *     <li><b>header</b>: magic number, version,</li>
+ *     <li><b>string table</b>: number of strings, offset of each string, UTF-8 bytes of all the (interned) strings,</li>
+ *     <li><b>bundles</b>: number of bundles and for each bundle: name, number of keys, perfect hash displacements (one per
+ *     bucket), key of each slot, number of locales and for each locale: locale tag and the value of each slot (or -1 if missing).</li>
+ * </ul>
+ * The catalog is accessed in place (ex.: from a memory-mapped file). Strings are only decoded when read and a key lookup
+ * is two hash computations and a byte comparison whatever the number of keys.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class Catalog
+{
+    /**
+     * Catalog magic number ('CHCT').
+     */
+    static final int MAGIC = 0x43484354;
+
+    /**
+     * Catalog format version.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Value index used for a key having no value for a locale.
+     */
+    static final int NO_VALUE = -1;
+
+    /**
+     * Catalog content.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Position of the string offsets.
+     */
+    private final int offsetsPosition;
+
+    /**
+     * Position of the string data.
+     */
+    private final int dataPosition;
+
+    /**
+     * Bundle sections (k = bundle name, v = section).
+     */
+    private final Map<String, Section> sections;
+
+    /**
+     * Create a catalog.
+     * @param buffer Catalog content.
+     * @throws LocalizationException Thrown to indicate the content is not a valid catalog.
+     */
+    private Catalog(final ByteBuffer buffer) throws LocalizationException
+    {
+        this.buffer = buffer;
+
+        try
+        {
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            {
+                throw new LocalizationException("Invalid message catalog: bad magic number or unsupported version!");
+            }
+
+            int strings = buffer.getInt(8);
+            offsetsPosition = 12;
+            dataPosition = offsetsPosition + (strings + 1) * Integer.BYTES;
+
+            int position = dataPosition + buffer.getInt(offsetsPosition + strings * Integer.BYTES);
+            int count = buffer.getInt(position);
+            position += Integer.BYTES;
+
+            Map<String, Section> elements = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++)
+            {
+                Section section = new Section(position);
+                elements.put(section.name, section);
+                position = section.end;
+            }
+
+            sections = Collections.unmodifiableMap(elements);
+        }
+        catch (IndexOutOfBoundsException | BufferUnderflowException e)
+        {
+            throw new LocalizationException("Invalid message catalog: truncated content!");
+        }
+    }
+
+    /**
+     * Open a catalog file (the file is memory-mapped).
+     * @param path Catalog file path.
+     * @return Catalog.
+     * @throws LocalizationException Thrown to indicate the catalog cannot be read or is not valid.
+     */
+    public static Catalog open(final @NonNull Path path) throws LocalizationException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            return new Catalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        catch (IOException e)
+        {
+            throw new LocalizationException(String.format("Cannot open message catalog: '%s'", path), e);
+        }
+    }
+
+    /**
+     * Create a catalog from its content.
+     * @param buffer Catalog content.
+     * @return Catalog.
+     * @throws LocalizationException Thrown to indicate the content is not a valid catalog.
+     */
+    public static Catalog of(final @NonNull ByteBuffer buffer) throws LocalizationException
+    {
+        return new Catalog(buffer.slice());
+    }
+
+    /**
+     * Return the names of the resource bundles contained in the catalog.
+     * @return Resource bundle names.
+     */
+    public Set<String> getBundles()
+    {
+        return sections.keySet();
+    }
+
+    /**
+     * Return the locales of a resource bundle.
+     * @param bundle Resource bundle name.
+     * @return Locales or an empty set if the catalog does not contain the resource bundle.
+     */
+    public Set<Locale> getLocales(final @NonNull String bundle)
+    {
+        Section section = sections.get(bundle);
+
+        return section == null ? Collections.emptySet() : section.locales.keySet();
+    }
+
+    /**
+     * Return a resource bundle of the catalog.
+     * @param bundle Resource bundle name.
+     * @param locale Locale.
+     * @return Resource bundle or <b>null</b> if the catalog does not contain the resource bundle for the given locale.
+     */
+    public CatalogResourceBundle getBundle(final @NonNull String bundle, final @NonNull Locale locale)
+    {
+        Section section = sections.get(bundle);
+        if (section == null)
+        {
+            return null;
+        }
+
+        Integer values = section.locales.get(locale);
+
+        return values == null ? null : new CatalogResourceBundle(this, bundle, locale);
+    }
+
+    /**
+     * Return the value of a key.
+     * @param bundle Resource bundle name.
+     * @param key Key.
+     * @param locale Locale.
+     * @return Value or <b>null</b> if the catalog does not contain the key for the given resource bundle and locale.
+     */
+    public String get(final @NonNull String bundle, final @NonNull String key, final @NonNull Locale locale)
+    {
+        Section section = sections.get(bundle);
+        if (section == null)
+        {
+            return null;
+        }
+
+        Integer values = section.locales.get(locale);
+        if (values == null)
+        {
+            return null;
+        }
+
+        int slot = section.find(key.getBytes(StandardCharsets.UTF_8));
+        if (slot < 0)
+        {
+            return null;
+        }
+
+        int value = buffer.getInt(values + slot * Integer.BYTES);
+
+        return value == NO_VALUE ? null : string(value);
+    }
+
+    /**
+     * Return the keys having a value in a resource bundle for a given locale.
+     * @param bundle Resource bundle name.
+     * @param locale Locale.
+     * @return Keys (decoded on each call).
+     */
+    List<String> getKeys(final @NonNull String bundle, final @NonNull Locale locale)
+    {
+        Section section = sections.get(bundle);
+        Integer values = section == null ? null : section.locales.get(locale);
+        if (values == null)
+        {
+            return Collections.emptyList();
+        }
+
+        List<String> keys = new ArrayList<>(section.size);
+        for (int slot = 0; slot < section.size; slot++)
+        {
+            if (buffer.getInt(values + slot * Integer.BYTES) != NO_VALUE)
+            {
+                keys.add(string(buffer.getInt(section.keys + slot * Integer.BYTES)));
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * Compute the hash of a key.
+     * @param key Key (UTF-8 bytes).
+     * @param seed Seed.
+     * @return Hash.
+     */
+    static int hash(final byte[] key, final int seed)
+    {
+        int hash = 0x811C9DC5 ^ (seed * 0x9E3779B9);
+
+        for (byte b : key)
+        {
+            hash ^= b & 0xFF;
+            hash *= 0x01000193;
+        }
+
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+
+        return hash;
+    }
+
+    /**
+     * Return the index (bucket or slot) of a hash.
+     * @param hash Hash.
+     * @param size Number of buckets or slots.
+     * @return Index.
+     */
+    static int index(final int hash, final int size)
+    {
+        return (hash & Integer.MAX_VALUE) % size;
+    }
+
+    /**
+     * Decode a string of the string table.
+     * @param index String index.
+     * @return String.
+     */
+    private String string(final int index)
+    {
+        int start = buffer.getInt(offsetsPosition + index * Integer.BYTES);
+        int end = buffer.getInt(offsetsPosition + (index + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(dataPosition + start, bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Return if a string of the string table is equal to the given bytes.
+     * @param index String index.
+     * @param bytes UTF-8 bytes.
+     * @return <b>True</b> if equal, <b>false</b> otherwise.
+     */
+    private boolean matches(final int index, final byte[] bytes)
+    {
+        int start = buffer.getInt(offsetsPosition + index * Integer.BYTES);
+        int end = buffer.getInt(offsetsPosition + (index + 1) * Integer.BYTES);
+        if (end - start != bytes.length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < bytes.length; i++)
+        {
+            if (buffer.get(dataPosition + start + i) != bytes[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Section of a resource bundle in the catalog.
+     */
+    private final class Section
+    {
+        /**
+         * Resource bundle name.
+         */
+        private final String name;
+
+        /**
+         * Number of keys (and of buckets and slots).
+         */
+        private final int size;
+
+        /**
+         * Position of the bucket displacements.
+         */
+        private final int displacements;
+
+        /**
+         * Position of the slot keys.
+         */
+        private final int keys;
+
+        /**
+         * Position of the slot values per locale (k = locale, v = position).
+         */
+        private final Map<Locale, Integer> locales;
+
+        /**
+         * Position following the section.
+         */
+        private final int end;
+
+        /**
+         * Read a section.
+         * @param position Position of the section.
+         */
+        private Section(final int position)
+        {
+            int current = position;
+
+            name = string(buffer.getInt(current));
+            size = buffer.getInt(current + Integer.BYTES);
+            displacements = current + 2 * Integer.BYTES;
+            keys = displacements + size * Integer.BYTES;
+            current = keys + size * Integer.BYTES;
+
+            int count = buffer.getInt(current);
+            current += Integer.BYTES;
+
+            Map<Locale, Integer> elements = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++)
+            {
+                elements.put(Locale.forLanguageTag(string(buffer.getInt(current))), current + Integer.BYTES);
+                current += (size + 1) * Integer.BYTES;
+            }
+
+            locales = Collections.unmodifiableMap(elements);
+            end = current;
+        }
+
+        /**
+         * Find the slot of a key.
+         * @param key Key (UTF-8 bytes).
+         * @return Slot or -1 if the key does not exist.
+         */
+        private int find(final byte[] key)
+        {
+            if (size == 0)
+            {
+                return -1;
+            }
+
+            int seed = buffer.getInt(displacements + index(hash(key, 0), size) * Integer.BYTES);
+            int slot = index(hash(key, seed), size);
+
+            return matches(buffer.getInt(keys + slot * Integer.BYTES), key) ? slot : -1;
+        }
+    }
+}
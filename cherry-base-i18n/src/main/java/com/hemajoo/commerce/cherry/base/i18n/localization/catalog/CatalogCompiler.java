@@ -0,0 +1,442 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.localization.catalog;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.exception.LocalizationException;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * A compiler turning a set of <b>properties</b> resource bundles into a binary message {@link Catalog}.
+ * <br>
+ * For each resource bundle, all its locales (one per <b>properties</b> file) are compiled with their values resolved
+ * the same way as a {@link PropertyResourceBundle} (a locale inherits the values of its parent locales). Keys are indexed
+ * using a minimal perfect hash function (hash and displace) and all the strings are interned in a single string table.
+ * <br>
+ * Usage: {@code CatalogCompiler <source directory> <catalog file> <bundle> [<bundle>...]}, ex.:
+ * {@code CatalogCompiler target/classes target/classes/i18n/catalog.bin i18n/time/month i18n/iso/639/language}
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Log4j2
+public final class CatalogCompiler
+{
+    /**
+     * Resource bundle file extension.
+     */
+    private static final String PROPERTIES_EXTENSION = ".properties";
+
+    /**
+     * Maximum seed tried to place the keys of a bucket.
+     */
+    private static final int MAX_SEED = 1 << 24;
+
+    /**
+     * String table (k = string, v = string index).
+     */
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+
+    /**
+     * Avoid direct instantiation!
+     */
+    private CatalogCompiler()
+    {
+        // Empty
+    }
+
+    /**
+     * Compile a set of resource bundles into a catalog file.
+     * @param directory Source directory containing the resource bundles (ex.: <b>src/main/resources</b>).
+     * @param bundles Resource bundle names (ex.: <b>i18n/time/month</b>).
+     * @param output Catalog file.
+     * @throws LocalizationException Thrown to indicate an error occurred while compiling the catalog.
+     */
+    public static void compile(final @NonNull Path directory, final @NonNull Collection<String> bundles, final @NonNull Path output) throws LocalizationException
+    {
+        new CatalogCompiler().run(directory, new LinkedHashSet<>(bundles), output);
+    }
+
+    /**
+     * Compile a set of resource bundles into a catalog file.
+     * @param args Arguments: source directory, catalog file and resource bundle names.
+     * @throws LocalizationException Thrown to indicate an error occurred while compiling the catalog.
+     */
+    public static void main(final String[] args) throws LocalizationException
+    {
+        if (args.length < 3)
+        {
+            throw new LocalizationException("Usage: CatalogCompiler <source directory> <catalog file> <bundle> [<bundle>...]");
+        }
+
+        compile(Paths.get(args[0]), Arrays.asList(args).subList(2, args.length), Paths.get(args[1]));
+    }
+
+    /**
+     * Compile the resource bundles.
+     * @param directory Source directory.
+     * @param bundles Resource bundle names.
+     * @param output Catalog file.
+     * @throws LocalizationException Thrown to indicate an error occurred while compiling the catalog.
+     */
+    private void run(final Path directory, final Set<String> bundles, final Path output) throws LocalizationException
+    {
+        List<int[]> sections = new ArrayList<>();
+
+        for (String bundle : bundles)
+        {
+            sections.add(compileBundle(bundle, readBundle(directory, bundle)));
+        }
+
+        try
+        {
+            Path parent = output.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, output.getFileName().toString(), ".tmp");
+
+            try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary))))
+            {
+                write(stream, sections);
+            }
+
+            Files.move(temporary, output, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e)
+        {
+            throw new LocalizationException(String.format("Cannot write message catalog: '%s'", output), e);
+        }
+
+        LOGGER.info(String.format("Compiled: '%s' resource bundles with: '%s' strings into message catalog: '%s'", bundles.size(), strings.size(), output));
+    }
+
+    /**
+     * Read the values of all the locales of a resource bundle.
+     * @param directory Source directory.
+     * @param bundle Resource bundle name.
+     * @return Values per locale (k = locale, v = (k = key, v = value)).
+     * @throws LocalizationException Thrown to indicate the resource bundle cannot be read.
+     */
+    private static Map<Locale, Map<String, String>> readBundle(final Path directory, final String bundle) throws LocalizationException
+    {
+        Path base = directory.resolve(bundle + PROPERTIES_EXTENSION);
+        Path folder = base.getParent();
+        String prefix = base.getFileName().toString().replace(PROPERTIES_EXTENSION, "");
+        Map<Locale, Map<String, String>> files = new TreeMap<>(Comparator.comparing(Locale::toString));
+
+        try (Stream<Path> stream = Files.list(folder))
+        {
+            for (Path file : stream.toList())
+            {
+                String name = file.getFileName().toString();
+
+                if (name.equals(prefix + PROPERTIES_EXTENSION))
+                {
+                    files.put(Locale.ROOT, readProperties(file));
+                }
+                else if (name.startsWith(prefix + "_") && name.endsWith(PROPERTIES_EXTENSION))
+                {
+                    files.put(toLocale(name.substring(prefix.length() + 1, name.length() - PROPERTIES_EXTENSION.length())), readProperties(file));
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            throw new LocalizationException(String.format("Cannot read bundle: '%s' from: '%s'", bundle, directory), e);
+        }
+
+        if (files.isEmpty())
+        {
+            throw new LocalizationException(String.format("Cannot find bundle: '%s' in: '%s'", bundle, directory));
+        }
+
+        // Resolve the values of each locale including the ones inherited from its parent locales
+        Map<Locale, Map<String, String>> locales = new LinkedHashMap<>();
+        for (Locale locale : files.keySet())
+        {
+            Map<String, String> values = new HashMap<>();
+            for (Locale parent : parentsOf(locale))
+            {
+                files.getOrDefault(parent, Collections.emptyMap()).forEach(values::putIfAbsent);
+            }
+
+            locales.put(locale, values);
+        }
+
+        return locales;
+    }
+
+    /**
+     * Read a <b>properties</b> file the same way as a {@link PropertyResourceBundle}.
+     * @param file File.
+     * @return Values (k = key, v = value).
+     * @throws IOException Thrown to indicate the file cannot be read.
+     */
+    private static Map<String, String> readProperties(final Path file) throws IOException
+    {
+        try (InputStream stream = Files.newInputStream(file))
+        {
+            PropertyResourceBundle properties = new PropertyResourceBundle(stream);
+            Map<String, String> values = new HashMap<>();
+
+            for (String key : properties.keySet())
+            {
+                values.put(key, properties.getString(key));
+            }
+
+            return values;
+        }
+    }
+
+    /**
+     * Convert a resource bundle file name suffix to a locale.
+     * @param suffix Suffix (ex.: <b>fr</b> or <b>fr_CA</b>).
+     * @return Locale.
+     */
+    private static Locale toLocale(final String suffix)
+    {
+        String[] parts = suffix.split("_", 3);
+
+        return new Locale(parts[0], parts.length > 1 ? parts[1] : "", parts.length > 2 ? parts[2] : "");
+    }
+
+    /**
+     * Return a locale followed by its parent locales down to the root locale.
+     * @param locale Locale.
+     * @return Locales (most specific first).
+     */
+    private static List<Locale> parentsOf(final Locale locale)
+    {
+        List<Locale> parents = new ArrayList<>();
+        parents.add(locale);
+
+        if (!locale.getVariant().isEmpty())
+        {
+            parents.add(new Locale(locale.getLanguage(), locale.getCountry()));
+        }
+        if (!locale.getCountry().isEmpty())
+        {
+            parents.add(new Locale(locale.getLanguage()));
+        }
+        if (!locale.equals(Locale.ROOT))
+        {
+            parents.add(Locale.ROOT);
+        }
+
+        return parents;
+    }
+
+    /**
+     * Compile a resource bundle section.
+     * <br>
+     * Section layout: name, number of keys, displacements, slot keys, number of locales and for each locale its tag and slot values.
+     * @param bundle Resource bundle name.
+     * @param locales Values per locale.
+     * @return Section content.
+     * @throws LocalizationException Thrown to indicate a perfect hash function cannot be found for the keys.
+     */
+    private int[] compileBundle(final String bundle, final Map<Locale, Map<String, String>> locales) throws LocalizationException
+    {
+        SortedSet<String> names = new TreeSet<>();
+        locales.values().forEach(values -> names.addAll(values.keySet()));
+
+        List<byte[]> keys = new ArrayList<>();
+        names.forEach(name -> keys.add(name.getBytes(StandardCharsets.UTF_8)));
+
+        int size = keys.size();
+        int[] displacements = new int[size];
+        int[] slots = build(bundle, keys, displacements);
+
+        List<String> ordered = new ArrayList<>(names);
+        int[] section = new int[2 + 2 * size + 1 + locales.size() * (size + 1)];
+        int position = 0;
+
+        section[position++] = intern(bundle);
+        section[position++] = size;
+        System.arraycopy(displacements, 0, section, position, size);
+        position += size;
+
+        int[] slotKeys = new int[size];
+        for (int i = 0; i < size; i++)
+        {
+            slotKeys[slots[i]] = intern(ordered.get(i));
+        }
+        System.arraycopy(slotKeys, 0, section, position, size);
+        position += size;
+
+        section[position++] = locales.size();
+        for (Map.Entry<Locale, Map<String, String>> entry : locales.entrySet())
+        {
+            section[position++] = intern(entry.getKey().toLanguageTag());
+            for (int i = 0; i < size; i++)
+            {
+                String value = entry.getValue().get(ordered.get(i));
+                section[position + slots[i]] = value == null ? Catalog.NO_VALUE : intern(value);
+            }
+            position += size;
+        }
+
+        return section;
+    }
+
+    /**
+     * Build a minimal perfect hash function for a set of keys (hash and displace).
+     * @param bundle Resource bundle name.
+     * @param keys Keys (UTF-8 bytes).
+     * @param displacements Displacement (seed) per bucket (filled by this method).
+     * @return Slot of each key.
+     * @throws LocalizationException Thrown to indicate a perfect hash function cannot be found.
+     */
+    private static int[] build(final String bundle, final List<byte[]> keys, final int[] displacements) throws LocalizationException
+    {
+        int size = keys.size();
+        int[] slots = new int[size];
+        boolean[] occupied = new boolean[size];
+
+        List<List<Integer>> buckets = new ArrayList<>();
+        for (int i = 0; i < size; i++)
+        {
+            buckets.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++)
+        {
+            buckets.get(Catalog.index(Catalog.hash(keys.get(i), 0), size)).add(i);
+        }
+
+        // Place the largest buckets first
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < size; i++)
+        {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingInt((Integer bucket) -> buckets.get(bucket).size()).reversed());
+
+        for (int bucket : order)
+        {
+            List<Integer> members = buckets.get(bucket);
+            if (members.isEmpty())
+            {
+                break;
+            }
+
+            int seed = 1;
+            int[] candidates = new int[members.size()];
+            while (!place(keys, members, seed, occupied, candidates))
+            {
+                if (++seed > MAX_SEED)
+                {
+                    throw new LocalizationException(String.format("Cannot build perfect hash function for bundle: '%s'", bundle));
+                }
+            }
+
+            displacements[bucket] = seed;
+            for (int i = 0; i < candidates.length; i++)
+            {
+                occupied[candidates[i]] = true;
+                slots[members.get(i)] = candidates[i];
+            }
+        }
+
+        return slots;
+    }
+
+    /**
+     * Try to place the keys of a bucket using a given seed.
+     * @param keys Keys.
+     * @param members Indexes of the keys of the bucket.
+     * @param seed Seed.
+     * @param occupied Occupied slots.
+     * @param candidates Candidate slot of each key of the bucket (filled by this method).
+     * @return <b>True</b> if all the keys have a distinct free slot, <b>false</b> otherwise.
+     */
+    private static boolean place(final List<byte[]> keys, final List<Integer> members, final int seed, final boolean[] occupied, final int[] candidates)
+    {
+        for (int i = 0; i < members.size(); i++)
+        {
+            int slot = Catalog.index(Catalog.hash(keys.get(members.get(i)), seed), occupied.length);
+            if (occupied[slot])
+            {
+                return false;
+            }
+
+            for (int j = 0; j < i; j++)
+            {
+                if (candidates[j] == slot)
+                {
+                    return false;
+                }
+            }
+
+            candidates[i] = slot;
+        }
+
+        return true;
+    }
+
+    /**
+     * Intern a string in the string table.
+     * @param value String.
+     * @return String index.
+     */
+    private int intern(final String value)
+    {
+        return strings.computeIfAbsent(value, k -> strings.size());
+    }
+
+    /**
+     * Write the catalog.
+     * @param stream Output stream.
+     * @param sections Resource bundle sections.
+     * @throws IOException Thrown to indicate an error occurred while writing the catalog.
+     */
+    private void write(final DataOutputStream stream, final List<int[]> sections) throws IOException
+    {
+        List<byte[]> encoded = new ArrayList<>(strings.size());
+        strings.keySet().forEach(value -> encoded.add(value.getBytes(StandardCharsets.UTF_8)));
+
+        stream.writeInt(Catalog.MAGIC);
+        stream.writeInt(Catalog.VERSION);
+        stream.writeInt(encoded.size());
+
+        int offset = 0;
+        for (byte[] bytes : encoded)
+        {
+            stream.writeInt(offset);
+            offset += bytes.length;
+        }
+        stream.writeInt(offset);
+
+        for (byte[] bytes : encoded)
+        {
+            stream.write(bytes);
+        }
+
+        stream.writeInt(sections.size());
+        for (int[] section : sections)
+        {
+            for (int value : section)
+            {
+                stream.writeInt(value);
+            }
+        }
+    }
+}
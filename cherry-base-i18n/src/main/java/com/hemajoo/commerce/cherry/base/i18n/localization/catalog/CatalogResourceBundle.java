@@ -0,0 +1,121 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.localization.catalog;
+
+import lombok.NonNull;
+
+import java.util.*;
+
+/**
+ * A resource bundle backed by a binary message {@link Catalog}.
+ * <br>
+ * Values are read from the catalog on demand, nothing is copied on the heap when the resource bundle is created.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class CatalogResourceBundle extends ResourceBundle
+{
+    /**
+     * Catalog.
+     */
+    private final Catalog catalog;
+
+    /**
+     * Resource bundle name.
+     */
+    private final String name;
+
+    /**
+     * Resource bundle locale.
+     */
+    private final Locale locale;
+
+    /**
+     * Create a resource bundle backed by a catalog.
+     * @param catalog Catalog.
+     * @param name Resource bundle name.
+     * @param locale Resource bundle locale.
+     */
+    CatalogResourceBundle(final @NonNull Catalog catalog, final @NonNull String name, final @NonNull Locale locale)
+    {
+        this.catalog = catalog;
+        this.name = name;
+        this.locale = locale;
+    }
+
+    @Override
+    public Locale getLocale()
+    {
+        return locale;
+    }
+
+    @Override
+    public String getBaseBundleName()
+    {
+        return name;
+    }
+
+    @Override
+    protected Object handleGetObject(final @NonNull String key)
+    {
+        return catalog.get(name, key, locale);
+    }
+
+    @Override
+    protected Set<String> handleKeySet()
+    {
+        return new HashSet<>(catalog.getKeys(name, locale));
+    }
+
+    @Override
+    public Enumeration<String> getKeys()
+    {
+        return Collections.enumeration(catalog.getKeys(name, locale));
+    }
+
+    /**
+     * Return a read-only map view of the resource bundle (values are read from the catalog on demand).
+     * @return Map view (k = key, v = value).
+     */
+    public Map<String, String> asMap()
+    {
+        return new AbstractMap<>()
+        {
+            @Override
+            public String get(final Object key)
+            {
+                return key instanceof String value ? catalog.get(name, value, locale) : null;
+            }
+
+            @Override
+            public boolean containsKey(final Object key)
+            {
+                return get(key) != null;
+            }
+
+            @Override
+            public Set<Entry<String, String>> entrySet()
+            {
+                Set<Entry<String, String>> entries = new LinkedHashSet<>();
+                for (String key : catalog.getKeys(name, locale))
+                {
+                    entries.add(new SimpleImmutableEntry<>(key, catalog.get(name, key, locale)));
+                }
+
+                return entries;
+            }
+        };
+    }
+}
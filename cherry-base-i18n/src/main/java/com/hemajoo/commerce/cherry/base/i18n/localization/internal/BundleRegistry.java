@@ -0,0 +1,532 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.localization.internal;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.catalog.CatalogResourceBundle;
+import lombok.NonNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A concurrent registry of resource bundles.
+ * <br>
+ * The registry holds an immutable snapshot of the registered resource bundles (k = language, v = resource bundle name,
+ * w = resource bundle). Readers always access the current snapshot without any lock while writers build a new snapshot
+ * (copy-on-write) and atomically publish it. Registrations are expected to be rare (once per bundle and language) compared
+ * to the lookups.
+ * <br><br>
+ * When a resource bundle is registered, its entries are flattened into a per-language index so a lookup is a single hash
+ * probe whatever the number of registered resource bundles:
+ * <ul>
+ *     <li>a <b>key -> value</b> index (the first registered resource bundle containing a key wins),</li>
+ *     <li>a <b>bundle -> key -> value</b> index for the resource bundle qualified lookups.</li>
+ * </ul>
+ * A negative cache remembers the keys known to be missing, both the bundle qualified ones and the non-qualified ones (which
+ * would otherwise be searched in every message catalog on each lookup). It is discarded each time a resource bundle is
+ * registered, replaced or removed for the language.
+ * <br><br>
+ * Resource bundles backed by a binary message catalog ({@link CatalogResourceBundle}) are not flattened, their values are
+ * read from the catalog on demand (after the ones of the flattened resource bundles for the non-qualified lookups).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class BundleRegistry
+{
+    /**
+     * Maximum number of missing keys remembered per language.
+     */
+    private static final int MAX_MISSING_KEYS = 10_000;
+
+    /**
+     * Current snapshot of the registered resource bundles.
+     */
+    private final AtomicReference<Map<Locale, LanguageIndex>> snapshot = new AtomicReference<>(Collections.emptyMap());
+
+    /**
+     * Version of the registry (incremented each time a registered resource bundle is replaced or removed).
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Return the language locale (language only) used as a key of the registry for the given locale.
+     * @param locale Locale.
+     * @return Language locale.
+     */
+    public static Locale languageOf(final @NonNull Locale locale)
+    {
+        return locale.getCountry().isEmpty() && locale.getVariant().isEmpty() && locale.getScript().isEmpty()
+                ? locale
+                : Locale.forLanguageTag(locale.getLanguage());
+    }
+
+    /**
+     * Return the version of the registry.
+     * <br>
+     * The version changes each time a registered resource bundle is replaced or removed, i.e. each time a previously
+     * resolved value may change. Registering new resource bundles does not change the version.
+     * @return Version.
+     */
+    public long getVersion()
+    {
+        return version.get();
+    }
+
+    /**
+     * Return if the registry is empty.
+     * @return <b>True</b> if no resource bundle is registered, <b>false</b> otherwise.
+     */
+    public boolean isEmpty()
+    {
+        return snapshot.get().isEmpty();
+    }
+
+    /**
+     * Return the resource bundles registered for the language of the given locale.
+     * @param locale Locale.
+     * @return Resource bundles (k = resource bundle name, v = resource bundle) or <b>null</b> if none is registered.
+     */
+    public Map<String, ResourceBundle> get(final @NonNull Locale locale)
+    {
+        LanguageIndex index = snapshot.get().get(languageOf(locale));
+
+        return index == null ? null : index.bundles;
+    }
+
+    /**
+     * Return a registered resource bundle.
+     * @param path Path (and name) of the resource bundle.
+     * @param locale Locale.
+     * @return Resource bundle if one matches, <b>null</b> otherwise.
+     */
+    public ResourceBundle get(final @NonNull String path, final @NonNull Locale locale)
+    {
+        Map<String, ResourceBundle> elements = get(locale);
+
+        return elements == null ? null : elements.get(path);
+    }
+
+    /**
+     * Return the resource bundles registered for a given resource bundle path.
+     * @param path Path (and name) of the resource bundle.
+     * @return Resource bundles (k = language, v = resource bundle).
+     */
+    public Map<Locale, ResourceBundle> getAll(final @NonNull String path)
+    {
+        Map<Locale, ResourceBundle> elements = new LinkedHashMap<>();
+
+        snapshot.get().forEach((language, index) -> {
+            ResourceBundle bundle = index.bundles.get(path);
+            if (bundle != null)
+            {
+                elements.put(language, bundle);
+            }
+        });
+
+        return elements;
+    }
+
+    /**
+     * Lookup the value of a key in the resource bundles registered for the language of the given locale.
+     * @param key Resource bundle key.
+     * @param locale Locale.
+     * @return Value or <b>null</b> if no registered resource bundle contains the key.
+     */
+    public String lookup(final @NonNull String key, final @NonNull Locale locale)
+    {
+        LanguageIndex index = snapshot.get().get(languageOf(locale));
+
+        return index == null ? null : index.lookup(key);
+    }
+
+    /**
+     * Lookup the value of a key in a given resource bundle registered for the language of the given locale.
+     * @param path Path (and name) of the resource bundle.
+     * @param key Resource bundle key.
+     * @param locale Locale.
+     * @return Value or <b>null</b> if the resource bundle is not registered or does not contain the key.
+     */
+    public String lookup(final @NonNull String path, final @NonNull String key, final @NonNull Locale locale)
+    {
+        LanguageIndex index = snapshot.get().get(languageOf(locale));
+        if (index == null)
+        {
+            return null;
+        }
+
+        Map<String, String> values = index.qualified.get(path);
+
+        return values == null ? null : values.get(key);
+    }
+
+    /**
+     * Return if a key is known to be missing from all the resource bundles registered for the language of the given locale.
+     * <br>
+     * Non-qualified lookups (see {@link #lookup(String, Locale)}) remember their misses by themselves.
+     * @param key Resource bundle key.
+     * @param locale Locale.
+     * @return <b>True</b> if the key is known to be missing, <b>false</b> otherwise.
+     */
+    public boolean isMissing(final @NonNull String key, final @NonNull Locale locale)
+    {
+        LanguageIndex index = snapshot.get().get(languageOf(locale));
+
+        return index != null && index.unqualifiedMissing.contains(key);
+    }
+
+    /**
+     * Return if a key is known to be missing from a given resource bundle.
+     * @param path Path (and name) of the resource bundle.
+     * @param key Resource bundle key.
+     * @param locale Locale.
+     * @return <b>True</b> if the key is known to be missing, <b>false</b> otherwise.
+     */
+    public boolean isMissing(final @NonNull String path, final @NonNull String key, final @NonNull Locale locale)
+    {
+        LanguageIndex index = snapshot.get().get(languageOf(locale));
+        if (index == null)
+        {
+            return false;
+        }
+
+        Set<String> keys = index.missing.get(path);
+
+        return keys != null && keys.contains(key);
+    }
+
+    /**
+     * Lookup the value of a key in a given resource bundle registered for the language of the given locale, remembering
+     * the key is missing (until a new resource bundle is registered) if the resource bundle is registered but does not
+     * contain the key.
+     * <br>
+     * The miss is remembered in the snapshot the lookup has been made against, so a resource bundle registered
+     * concurrently (and containing the key) is never hidden by the miss.
+     * @param path Path (and name) of the resource bundle.
+     * @param key Resource bundle key.
+     * @param locale Locale.
+     * @return Value or <b>null</b> if the resource bundle is not registered or does not contain the key.
+     */
+    public String lookupOrMarkMissing(final @NonNull String path, final @NonNull String key, final @NonNull Locale locale)
+    {
+        LanguageIndex index = snapshot.get().get(languageOf(locale));
+        if (index == null)
+        {
+            return null;
+        }
+
+        Map<String, String> values = index.qualified.get(path);
+        if (values == null)
+        {
+            return null;
+        }
+
+        String value = values.get(key);
+        if (value == null)
+        {
+            index.markMissing(index.missing.computeIfAbsent(path, k -> ConcurrentHashMap.newKeySet()), key);
+        }
+
+        return value;
+    }
+
+    /**
+     * Register a resource bundle if not already registered.
+     * @param path Path (and name) of the resource bundle.
+     * @param locale Locale.
+     * @param bundle Resource bundle.
+     * @return <b>True</b> if the resource bundle has been registered, <b>false</b> if a resource bundle was already registered for the given path and locale.
+     */
+    public boolean register(final @NonNull String path, final @NonNull Locale locale, final @NonNull ResourceBundle bundle)
+    {
+        Locale language = languageOf(locale);
+        Map<String, String> values = flatten(bundle);
+        Map<Locale, LanguageIndex> current;
+        Map<Locale, LanguageIndex> next;
+
+        do
+        {
+            current = snapshot.get();
+
+            LanguageIndex index = current.get(language);
+            if (index != null && index.bundles.containsKey(path))
+            {
+                return false;
+            }
+
+            next = new LinkedHashMap<>(current);
+            next.put(language, new LanguageIndex(index, path, bundle, values));
+            next = Collections.unmodifiableMap(next);
+        }
+        while (!snapshot.compareAndSet(current, next));
+
+        return true;
+    }
+
+    /**
+     * Register a resource bundle, replacing the one registered (if any) for the given path and locale.
+     * <br>
+     * The other resource bundles are kept as is and readers see either the previous or the new resource bundle, never none.
+     * @param path Path (and name) of the resource bundle.
+     * @param locale Locale.
+     * @param bundle Resource bundle.
+     */
+    public void replace(final @NonNull String path, final @NonNull Locale locale, final @NonNull ResourceBundle bundle)
+    {
+        Locale language = languageOf(locale);
+        Map<String, String> values = flatten(bundle);
+        Map<Locale, LanguageIndex> current;
+        Map<Locale, LanguageIndex> next;
+
+        do
+        {
+            current = snapshot.get();
+            next = new LinkedHashMap<>(current);
+            next.put(language, new LanguageIndex(current.get(language), path, bundle, values));
+            next = Collections.unmodifiableMap(next);
+        }
+        while (!snapshot.compareAndSet(current, next));
+
+        version.incrementAndGet();
+    }
+
+    /**
+     * Register a set of resource bundles at once (the resource bundles already registered are ignored).
+     * <br>
+     * All the resource bundles are published in a single snapshot, so readers either see none or all of them.
+     * @param elements Resource bundles to register (k = resource bundle path and name, v = (k = locale, v = resource bundle)).
+     * @return Number of registered resource bundles.
+     */
+    public int registerAll(final @NonNull Map<String, Map<Locale, ResourceBundle>> elements)
+    {
+        Map<ResourceBundle, Map<String, String>> flattened = new IdentityHashMap<>();
+        elements.values().forEach(locales -> locales.values().forEach(bundle -> flattened.computeIfAbsent(bundle, BundleRegistry::flatten)));
+
+        Map<Locale, LanguageIndex> current;
+        Map<Locale, LanguageIndex> next;
+        int count;
+
+        do
+        {
+            current = snapshot.get();
+            next = new LinkedHashMap<>(current);
+            count = 0;
+
+            for (Map.Entry<String, Map<Locale, ResourceBundle>> element : elements.entrySet())
+            {
+                for (Map.Entry<Locale, ResourceBundle> entry : element.getValue().entrySet())
+                {
+                    Locale language = languageOf(entry.getKey());
+                    LanguageIndex index = next.get(language);
+
+                    if (index == null || !index.bundles.containsKey(element.getKey()))
+                    {
+                        next.put(language, new LanguageIndex(index, element.getKey(), entry.getValue(), flattened.get(entry.getValue())));
+                        count++;
+                    }
+                }
+            }
+
+            next = Collections.unmodifiableMap(next);
+        }
+        while (!snapshot.compareAndSet(current, next));
+
+        return count;
+    }
+
+    /**
+     * Remove all registered resource bundles.
+     */
+    public void clear()
+    {
+        snapshot.set(Collections.emptyMap());
+        version.incrementAndGet();
+    }
+
+    /**
+     * Flatten the entries (including the ones inherited from the parent resource bundles) of a resource bundle.
+     * @param bundle Resource bundle.
+     * @return Immutable map of the resource bundle entries (k = key, v = value).
+     */
+    private static Map<String, String> flatten(final ResourceBundle bundle)
+    {
+        if (bundle instanceof CatalogResourceBundle catalog)
+        {
+            return catalog.asMap();
+        }
+
+        Map<String, String> values = new HashMap<>();
+
+        for (String key : bundle.keySet())
+        {
+            if (bundle.getObject(key) instanceof String value)
+            {
+                values.put(key, value);
+            }
+        }
+
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Immutable index of the resource bundles registered for a language.
+     */
+    private static final class LanguageIndex
+    {
+        /**
+         * Resource bundles (k = resource bundle name, v = resource bundle).
+         */
+        private final Map<String, ResourceBundle> bundles;
+
+        /**
+         * Flattened values of all the resource bundles (k = key, v = value).
+         */
+        private final Map<String, String> values;
+
+        /**
+         * Values of the resource bundles backed by a message catalog (read on demand).
+         */
+        private final List<Map<String, String>> catalogs;
+
+        /**
+         * Flattened values per resource bundle (k = resource bundle name, v = (k = key, v = value)).
+         */
+        private final Map<String, Map<String, String>> qualified;
+
+        /**
+         * Keys known to be missing per resource bundle (k = resource bundle name, v = missing keys).
+         */
+        private final Map<String, Set<String>> missing = new ConcurrentHashMap<>();
+
+        /**
+         * Keys known to be missing from all the resource bundles.
+         */
+        private final Set<String> unqualifiedMissing = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Number of keys known to be missing (qualified or not).
+         */
+        private final AtomicInteger missingCount = new AtomicInteger();
+
+        /**
+         * Create a new language index based on a previous one and including a new (or replacing an existing) resource bundle.
+         * @param previous Previous language index or <b>null</b>.
+         * @param path Path (and name) of the resource bundle.
+         * @param bundle Resource bundle.
+         * @param entries Flattened entries of the resource bundle.
+         */
+        private LanguageIndex(final LanguageIndex previous, final String path, final ResourceBundle bundle, final Map<String, String> entries)
+        {
+            Map<String, ResourceBundle> nextBundles = new LinkedHashMap<>();
+            Map<String, String> nextValues = new HashMap<>();
+            Map<String, Map<String, String>> nextQualified = new HashMap<>();
+            List<Map<String, String>> nextCatalogs = new ArrayList<>();
+
+            if (previous != null)
+            {
+                nextBundles.putAll(previous.bundles);
+                nextValues.putAll(previous.values);
+                nextQualified.putAll(previous.qualified);
+                nextCatalogs.addAll(previous.catalogs);
+            }
+
+            boolean replaced = nextBundles.containsKey(path);
+            nextBundles.put(path, bundle);
+            nextQualified.put(path, entries);
+
+            if (replaced)
+            {
+                // Rebuild the non-qualified index keeping the registration order of the resource bundles
+                nextValues.clear();
+                nextCatalogs.clear();
+                nextBundles.forEach((name, element) -> merge(element, nextQualified.get(name), nextValues, nextCatalogs));
+            }
+            else
+            {
+                merge(bundle, entries, nextValues, nextCatalogs);
+            }
+
+            this.bundles = Collections.unmodifiableMap(nextBundles);
+            this.values = Collections.unmodifiableMap(nextValues);
+            this.qualified = Collections.unmodifiableMap(nextQualified);
+            this.catalogs = Collections.unmodifiableList(nextCatalogs);
+        }
+
+        /**
+         * Merge the entries of a resource bundle into the non-qualified index.
+         * @param bundle Resource bundle.
+         * @param entries Resource bundle entries.
+         * @param values Flattened values (the first resource bundle containing a key wins).
+         * @param catalogs Values of the resource bundles backed by a message catalog.
+         */
+        private static void merge(final ResourceBundle bundle, final Map<String, String> entries, final Map<String, String> values, final List<Map<String, String>> catalogs)
+        {
+            if (bundle instanceof CatalogResourceBundle)
+            {
+                catalogs.add(entries);
+            }
+            else
+            {
+                entries.forEach(values::putIfAbsent);
+            }
+        }
+
+        /**
+         * Lookup the value of a key in all the resource bundles of the language.
+         * @param key Resource bundle key.
+         * @return Value or <b>null</b> if no resource bundle contains the key.
+         */
+        private String lookup(final String key)
+        {
+            String value = values.get(key);
+            if (value != null || catalogs.isEmpty())
+            {
+                return value;
+            }
+
+            if (unqualifiedMissing.contains(key))
+            {
+                return null;
+            }
+
+            for (int i = 0; value == null && i < catalogs.size(); i++)
+            {
+                value = catalogs.get(i).get(key);
+            }
+
+            if (value == null)
+            {
+                markMissing(unqualifiedMissing, key);
+            }
+
+            return value;
+        }
+
+        /**
+         * Remember a key is missing (unless too many keys are already known to be missing).
+         * @param keys Missing keys the key is added to.
+         * @param key Resource bundle key.
+         */
+        private void markMissing(final Set<String> keys, final String key)
+        {
+            if (missingCount.get() < MAX_MISSING_KEYS && keys.add(key))
+            {
+                missingCount.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,452 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.localization.internal;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.LocalizationWatcher;
+import com.hemajoo.commerce.cherry.base.i18n.localization.exception.LocalizationException;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * A watcher of a directory containing resource bundle <b>properties</b> files (ex.: <b>i18n/time/month_fr.properties</b>).
+ * <br>
+ * When started, the resource bundles found in the directory are registered (replacing the registered ones). Then, each
+ * time a <b>properties</b> file is created, modified or deleted, only the affected resource bundles are re-read in the
+ * background and atomically replaced in the registry. Readers never block and never see a missing resource bundle. A file
+ * that cannot be parsed is ignored and the previous version of the resource bundle is kept.
+ * <br>
+ * The registry holds one resource bundle per language. It is read from the chain of files of its locale, the most
+ * specific file winning (ex.: <b>month.properties</b>, then <b>month_fr.properties</b>, then <b>month_fr_CA.properties</b>
+ * for <b>fr_CA</b>). A language is registered with the locale of its language file if any (so <b>month_fr_CA.properties</b>
+ * is only used when <b>month_fr.properties</b> does not exist), a resource bundle only having a base file is registered for
+ * the default language. A changed file affects all the registered resource bundles whose chain contains it.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Log4j2
+public final class BundleWatcher implements LocalizationWatcher
+{
+    /**
+     * Resource bundle file extension.
+     */
+    private static final String PROPERTIES_EXTENSION = ".properties";
+
+    /**
+     * Quiet period (in milliseconds) waited for more changes before reloading (editors often write a file several times).
+     */
+    private static final long QUIET_PERIOD = 100;
+
+    /**
+     * Watched directory.
+     */
+    @Getter
+    private final Path directory;
+
+    /**
+     * Registry of the resource bundles.
+     */
+    private final BundleRegistry registry;
+
+    /**
+     * Language the resource bundles only having a base file are registered for.
+     */
+    private final Locale defaultLanguage;
+
+    /**
+     * Watch service.
+     */
+    private final WatchService service;
+
+    /**
+     * Background thread processing the file changes.
+     */
+    private final Thread thread;
+
+    /**
+     * Number of resource bundles reloaded.
+     */
+    private final AtomicLong reloads = new AtomicLong();
+
+    /**
+     * Create and start a watcher.
+     * @param directory Directory containing the resource bundle files.
+     * @param registry Registry of the resource bundles.
+     * @param defaultLocale Default locale (the resource bundles only having a base file are registered for its language).
+     * @throws LocalizationException Thrown to indicate the directory cannot be watched.
+     */
+    public BundleWatcher(final @NonNull Path directory, final @NonNull BundleRegistry registry, final @NonNull Locale defaultLocale) throws LocalizationException
+    {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.registry = registry;
+        this.defaultLanguage = BundleRegistry.languageOf(Locale.forLanguageTag(defaultLocale.getLanguage()));
+
+        try
+        {
+            this.service = this.directory.getFileSystem().newWatchService();
+
+            List<Path> files = new ArrayList<>();
+            try (Stream<Path> stream = Files.walk(this.directory))
+            {
+                for (Path path : stream.toList())
+                {
+                    if (Files.isDirectory(path))
+                    {
+                        path.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                    }
+                    else if (isBundleFile(path))
+                    {
+                        files.add(path);
+                    }
+                }
+            }
+
+            // Base files first, then the language files and the country files, so the registered languages do not depend on the listing order
+            files.sort(Comparator.comparingLong((Path path) -> path.getFileName().toString().chars().filter(c -> c == '_').count())
+                    .thenComparing(Path::toString));
+            files.forEach(this::reload);
+        }
+        catch (IOException e)
+        {
+            throw new LocalizationException(String.format("Cannot watch directory: '%s'", directory), e);
+        }
+
+        thread = new Thread(this::watch, "i18n-bundle-watcher");
+        thread.setDaemon(true);
+        thread.start();
+
+        LOGGER.info(String.format("Watching resource bundles in directory: '%s'", this.directory));
+    }
+
+    @Override
+    public long getReloadCount()
+    {
+        return reloads.get();
+    }
+
+    @Override
+    public void close()
+    {
+        thread.interrupt();
+
+        try
+        {
+            service.close();
+        }
+        catch (IOException e)
+        {
+            LOGGER.warn(String.format("Cannot close watch service of directory: '%s', cause: %s", directory, e.getMessage()));
+        }
+    }
+
+    /**
+     * Process the file changes until the watcher is closed.
+     */
+    private void watch()
+    {
+        try
+        {
+            while (!Thread.currentThread().isInterrupted())
+            {
+                Set<Path> changed = new LinkedHashSet<>();
+
+                WatchKey key = service.take();
+                do
+                {
+                    collect(key, changed);
+                }
+                while ((key = service.poll(QUIET_PERIOD, TimeUnit.MILLISECONDS)) != null);
+
+                changed.forEach(this::reload);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ClosedWatchServiceException e)
+        {
+            // Watcher has been closed
+        }
+    }
+
+    /**
+     * Collect the changed files of a watch key.
+     * @param key Watch key.
+     * @param changed Changed files.
+     */
+    private void collect(final WatchKey key, final Set<Path> changed)
+    {
+        Path folder = (Path) key.watchable();
+
+        for (WatchEvent<?> event : key.pollEvents())
+        {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+            {
+                continue;
+            }
+
+            Path path = folder.resolve((Path) event.context());
+            if (Files.isDirectory(path) && event.kind() == StandardWatchEventKinds.ENTRY_CREATE)
+            {
+                try
+                {
+                    path.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                }
+                catch (IOException e)
+                {
+                    LOGGER.warn(String.format("Cannot watch directory: '%s', cause: %s", path, e.getMessage()));
+                }
+            }
+            else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE ? path.getFileName().toString().endsWith(PROPERTIES_EXTENSION) : isBundleFile(path))
+            {
+                changed.add(path);
+            }
+        }
+
+        key.reset();
+    }
+
+    /**
+     * Reload the resource bundles affected by a changed file.
+     * @param file Changed file.
+     */
+    private void reload(final Path file)
+    {
+        String relative = directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+        relative = relative.substring(0, relative.length() - PROPERTIES_EXTENSION.length());
+
+        int separator = relative.indexOf('_', relative.lastIndexOf('/') + 1);
+        String path = separator < 0 ? relative : relative.substring(0, separator);
+        Locale source = separator < 0 ? Locale.ROOT : toLocale(relative.substring(separator + 1));
+
+        try
+        {
+            Map<Locale, ResourceBundle> registered = registry.getAll(path);
+
+            for (Map.Entry<Locale, ResourceBundle> entry : registered.entrySet())
+            {
+                // A resource bundle registered as a fallback of another language is read for its own language
+                Locale locale = entry.getValue().getLocale();
+                if (!locale.getLanguage().equals(entry.getKey().getLanguage()))
+                {
+                    locale = entry.getKey();
+                }
+
+                if (isInChain(source, locale))
+                {
+                    registry.replace(path, entry.getKey(), read(path, locale));
+                    reloads.incrementAndGet();
+                }
+            }
+
+            Locale language = source.equals(Locale.ROOT) ? defaultLanguage : BundleRegistry.languageOf(source);
+            if (Files.exists(file) && !registered.containsKey(language))
+            {
+                Locale locale = source.equals(Locale.ROOT) || Files.exists(directory.resolve(path + "_" + language + PROPERTIES_EXTENSION)) ? language : source;
+                registry.replace(path, language, read(path, locale));
+                reloads.incrementAndGet();
+            }
+
+            ResourceBundle.clearCache();
+            LOGGER.info(String.format("Reloaded resource bundle: '%s' from file: '%s'", path, file));
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOGGER.error(String.format("Cannot reload resource bundle: '%s' from file: '%s', keeping the previous version, cause: %s", path, file, e.getMessage()));
+        }
+    }
+
+    /**
+     * Read a resource bundle from the chain of files of its locale (base, language, country and variant files, the most
+     * specific one winning).
+     * @param path Path (and name) of the resource bundle.
+     * @param locale Locale.
+     * @return Resource bundle.
+     * @throws IOException Thrown to indicate an error occurred while reading the resource bundle.
+     */
+    private ResourceBundle read(final String path, final Locale locale) throws IOException
+    {
+        Map<String, Object> values = new HashMap<>();
+
+        for (String suffix : getSuffixes(locale))
+        {
+            Path file = directory.resolve(path + suffix + PROPERTIES_EXTENSION);
+            if (Files.exists(file))
+            {
+                values.putAll(readProperties(file));
+            }
+        }
+
+        return new WatchedResourceBundle(path, locale, values);
+    }
+
+    /**
+     * Return the file name suffixes of the chain of files of a locale (ex.: <b>""</b>, <b>_fr</b> and <b>_fr_CA</b>).
+     * @param locale Locale.
+     * @return File name suffixes (from the least to the most specific).
+     */
+    private static List<String> getSuffixes(final Locale locale)
+    {
+        List<String> suffixes = new ArrayList<>();
+        suffixes.add("");
+
+        if (!locale.getLanguage().isEmpty())
+        {
+            String suffix = "_" + locale.getLanguage();
+            suffixes.add(suffix);
+
+            if (!locale.getCountry().isEmpty())
+            {
+                suffix += "_" + locale.getCountry();
+                suffixes.add(suffix);
+
+                if (!locale.getVariant().isEmpty())
+                {
+                    suffixes.add(suffix + "_" + locale.getVariant());
+                }
+            }
+        }
+
+        return suffixes;
+    }
+
+    /**
+     * Return if the file of a locale belongs to the chain of files of another locale.
+     * @param source Locale of the file.
+     * @param locale Locale of the chain of files.
+     * @return <b>True</b> if the file belongs to the chain, <b>false</b> otherwise.
+     */
+    private static boolean isInChain(final Locale source, final Locale locale)
+    {
+        return getSuffixes(locale).containsAll(getSuffixes(source));
+    }
+
+    /**
+     * Read a <b>properties</b> file the same way as a {@link PropertyResourceBundle}.
+     * @param file File.
+     * @return Values (k = key, v = value).
+     * @throws IOException Thrown to indicate the file cannot be read.
+     */
+    private static Map<String, Object> readProperties(final Path file) throws IOException
+    {
+        try (InputStream stream = Files.newInputStream(file))
+        {
+            PropertyResourceBundle properties = new PropertyResourceBundle(stream);
+            Map<String, Object> values = new HashMap<>();
+
+            for (String key : properties.keySet())
+            {
+                values.put(key, properties.getObject(key));
+            }
+
+            return values;
+        }
+    }
+
+    /**
+     * Return if a file is a resource bundle file.
+     * @param path File path.
+     * @return <b>True</b> if the file is a resource bundle file, <b>false</b> otherwise.
+     */
+    private static boolean isBundleFile(final Path path)
+    {
+        return path.getFileName().toString().endsWith(PROPERTIES_EXTENSION) && Files.isRegularFile(path);
+    }
+
+    /**
+     * Convert a resource bundle file name suffix to a locale.
+     * @param suffix Suffix (ex.: <b>fr</b> or <b>fr_CA</b>).
+     * @return Locale.
+     */
+    private static Locale toLocale(final String suffix)
+    {
+        String[] parts = suffix.split("_", 3);
+
+        return new Locale(parts[0], parts.length > 1 ? parts[1] : "", parts.length > 2 ? parts[2] : "");
+    }
+
+    /**
+     * A resource bundle read from a watched directory.
+     */
+    private static final class WatchedResourceBundle extends ResourceBundle
+    {
+        /**
+         * Resource bundle name.
+         */
+        private final String name;
+
+        /**
+         * Resource bundle locale.
+         */
+        private final Locale locale;
+
+        /**
+         * Resource bundle values.
+         */
+        private final Map<String, Object> values;
+
+        /**
+         * Create a resource bundle.
+         * @param name Resource bundle name.
+         * @param locale Resource bundle locale.
+         * @param values Resource bundle values.
+         */
+        private WatchedResourceBundle(final String name, final Locale locale, final Map<String, Object> values)
+        {
+            this.name = name;
+            this.locale = locale;
+            this.values = Collections.unmodifiableMap(values);
+        }
+
+        @Override
+        public Locale getLocale()
+        {
+            return locale;
+        }
+
+        @Override
+        public String getBaseBundleName()
+        {
+            return name;
+        }
+
+        @Override
+        protected Object handleGetObject(final @NonNull String key)
+        {
+            return values.get(key);
+        }
+
+        @Override
+        protected Set<String> handleKeySet()
+        {
+            return values.keySet();
+        }
+
+        @Override
+        public Enumeration<String> getKeys()
+        {
+            return Collections.enumeration(values.keySet());
+        }
+    }
+}
@@ -14,6 +14,7 @@
  */
 package com.hemajoo.commerce.cherry.base.i18n.localization.internal;
 
+import com.hemajoo.commerce.cherry.base.utilities.helper.PropertyAccessor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
@@ -21,6 +22,7 @@ import lombok.Setter;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 
 /**
  * Field localization context.
@@ -44,6 +46,20 @@ public class LocalizationFieldContext
     @Setter
     private Annotation fieldAnnotation;
 
+    /**
+     * Field's setter (with a parameter of type {@link String} and optionally a second parameter of type {@link java.util.Locale}) or <b>null</b> if none.
+     */
+    @Getter
+    @Setter
+    private Method setter;
+
+    /**
+     * Accessor invoking the field's setter (with a single parameter of type {@link String}) without reflection or <b>null</b> if none.
+     */
+    @Getter
+    @Setter
+    private PropertyAccessor accessor;
+
     /**
      * Create a field localization context.
      * @param field Field.
@@ -0,0 +1,272 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.localization.internal;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.LocalizeEnum;
+import com.hemajoo.commerce.cherry.base.i18n.localization.annotation.I18n;
+import com.hemajoo.commerce.cherry.base.i18n.localization.exception.LocalizationException;
+import com.hemajoo.commerce.cherry.base.i18n.localization.type.LocalizationInvocationType;
+import com.hemajoo.commerce.cherry.base.utilities.helper.ClassMetadata;
+import com.hemajoo.commerce.cherry.base.utilities.helper.PropertyAccessor;
+import com.hemajoo.commerce.cherry.base.utilities.helper.ReflectionHelper;
+import lombok.Getter;
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Localization metadata of a class.
+ * <br>
+ * Holds the <b>I18n</b> annotations of a class, of its localization methods, of its localized fields (and their setters) and the compiled <b>I18n</b> templates. The metadata of a
+ * class is resolved once (per method for the localization methods) and cached for the lifetime of the class.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class LocalizationMetadata
+{
+    /**
+     * Maximum number of compiled templates cached per class.
+     */
+    private static final int MAX_TEMPLATES = 256;
+
+    /**
+     * Cache of the localization metadata per class.
+     */
+    private static final ClassValue<LocalizationMetadata> METADATA = new ClassValue<>()
+    {
+        @Override
+        protected LocalizationMetadata computeValue(final Class<?> type)
+        {
+            return new LocalizationMetadata(type);
+        }
+    };
+
+    /**
+     * Class.
+     */
+    @Getter
+    private final Class<?> type;
+
+    /**
+     * Class's localization annotation.
+     */
+    @Getter
+    private final I18n annotation;
+
+    /**
+     * Localization method contexts (k = method name, v = method context or empty if not a localization method).
+     */
+    private final Map<String, Optional<LocalizationInvocationContext>> methods = new ConcurrentHashMap<>();
+
+    /**
+     * Field localization context (lazily resolved).
+     */
+    private volatile LocalizationInvocationContext fields;
+
+    /**
+     * Compiled templates (k = template text, v = compiled template).
+     */
+    private final Map<String, LocalizationTemplate> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Create the localization metadata of a class.
+     * @param type Class.
+     */
+    private LocalizationMetadata(final @NonNull Class<?> type)
+    {
+        this.type = type;
+        this.annotation = type.getAnnotation(I18n.class);
+    }
+
+    /**
+     * Return the localization metadata of a class.
+     * @param type Class.
+     * @return Localization metadata.
+     */
+    public static LocalizationMetadata of(final @NonNull Class<?> type)
+    {
+        return METADATA.get(type);
+    }
+
+    /**
+     * Return the localization context of a method given its name.
+     * <br>
+     * A method is a localization method if it is a public method (without parameter or with a single parameter of type
+     * {@link Locale}) annotated with the <b>I18n</b> annotation or inherited from the {@link LocalizeEnum} interface.
+     * @param name Method name.
+     * @return Method localization context or <b>null</b> if the class has no localization method with such name.
+     */
+    public LocalizationInvocationContext getMethodContext(final @NonNull String name)
+    {
+        return methods.computeIfAbsent(name, this::resolveMethodContext).orElse(null);
+    }
+
+    /**
+     * Return the field localization context.
+     * @return Field localization context. Its invocation type is {@link LocalizationInvocationType#UNKNOWN} if the class has no localized field.
+     */
+    public LocalizationInvocationContext getFieldContext()
+    {
+        LocalizationInvocationContext context = fields;
+
+        if (context == null)
+        {
+            context = resolveFieldContext();
+            fields = context;
+        }
+
+        return context;
+    }
+
+    /**
+     * Return the compiled version of a template for this class.
+     * @param text Template text.
+     * @return Compiled template.
+     * @throws LocalizationException Thrown to indicate the template cannot be compiled for this class.
+     */
+    public LocalizationTemplate getTemplate(final @NonNull String text) throws LocalizationException
+    {
+        LocalizationTemplate template = templates.get(text);
+
+        if (template == null)
+        {
+            template = LocalizationTemplate.compile(type, text);
+            if (templates.size() < MAX_TEMPLATES)
+            {
+                templates.putIfAbsent(text, template);
+            }
+        }
+
+        return template;
+    }
+
+    /**
+     * Resolve the localization context of a method.
+     * @param name Method name.
+     * @return Optional method localization context.
+     */
+    private Optional<LocalizationInvocationContext> resolveMethodContext(final String name)
+    {
+        Method method;
+
+        try
+        {
+            method = type.getMethod(name);
+        }
+        catch (NoSuchMethodException e)
+        {
+            try
+            {
+                // Maybe the method has a parameter of type Locale
+                method = type.getMethod(name, Locale.class);
+            }
+            catch (NoSuchMethodException oe)
+            {
+                return Optional.empty(); // Seems to be the wrong method!
+            }
+        }
+        catch (SecurityException e)
+        {
+            return Optional.empty();
+        }
+
+        // Method should be annotated with I18n annotation or its class should implement the LocalizeEnum interface
+        if (!method.isAnnotationPresent(I18n.class) && !method.getDeclaringClass().isAssignableFrom(LocalizeEnum.class))
+        {
+            return Optional.empty();
+        }
+
+        LocalizationInvocationContext context = new LocalizationInvocationContext();
+        context.setInvocationType(LocalizationInvocationType.METHOD);
+        context.setMethod(method);
+        context.setMethodAnnotation(method.getAnnotation(I18n.class));
+
+        Class<?> declaringClass = method.getDeclaringClass();
+        context.setDeclaringClass(declaringClass);
+        context.setDeclaringClassAnnotation(declaringClass.getAnnotation(I18n.class));
+
+        return Optional.of(context);
+    }
+
+    /**
+     * Resolve the field localization context.
+     * @return Field localization context.
+     */
+    private LocalizationInvocationContext resolveFieldContext()
+    {
+        Class<?> declaringClass;
+
+        LocalizationInvocationContext context = new LocalizationInvocationContext();
+        context.setInvocationType(LocalizationInvocationType.UNKNOWN);
+
+        // Find all fields annotated with I18n annotation
+        for (Field field : ReflectionHelper.findAnnotatedFieldsInClassHierarchy(type, I18n.class))
+        {
+            declaringClass = field.getDeclaringClass();
+
+            LocalizationFieldContext fieldContext = new LocalizationFieldContext(field, field.getAnnotation(I18n.class));
+            fieldContext.setSetter(findSetter(field));
+
+            PropertyAccessor accessor = ClassMetadata.of(type).getProperty(field.getName());
+            if (fieldContext.getSetter() != null && fieldContext.getSetter().getParameterCount() == 1 && accessor != null && accessor.isWritable() && accessor.getType() == String.class)
+            {
+                fieldContext.setAccessor(accessor);
+            }
+
+            context.setInvocationType(LocalizationInvocationType.FIELD);
+            context.addField(fieldContext);
+
+            if (context.getDeclaringClass() == null)
+            {
+                context.setDeclaringClass(declaringClass);
+                context.setDeclaringClassAnnotation(declaringClass.getAnnotation(I18n.class));
+            }
+        }
+
+        return context;
+    }
+
+    /**
+     * Find the setter of a localized field.
+     * @param field Field.
+     * @return Setter or <b>null</b> if none.
+     */
+    private Method findSetter(final Field field)
+    {
+        String name = "set" + StringUtils.capitalize(field.getName());
+
+        try
+        {
+            return type.getMethod(name, String.class);
+        }
+        catch (NoSuchMethodException e)
+        {
+            try
+            {
+                return type.getMethod(name, String.class, Locale.class);
+            }
+            catch (NoSuchMethodException oe)
+            {
+                return null;
+            }
+        }
+    }
+}
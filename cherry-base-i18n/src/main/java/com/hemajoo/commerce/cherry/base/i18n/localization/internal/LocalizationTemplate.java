@@ -0,0 +1,132 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.localization.internal;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.exception.LocalizationException;
+import com.hemajoo.commerce.cherry.base.utilities.helper.StringExpanderException;
+import com.hemajoo.commerce.cherry.base.utilities.helper.StringTemplate;
+import lombok.NonNull;
+
+/**
+ * A compiled <b>I18n</b> resource bundle or key template (ex.: <b>month.${this}.name</b>) for a given class.
+ * <br>
+ * Parsing and rendering are delegated to a {@link StringTemplate}. For an enumeration whose template only references
+ * <b>${this}</b>, the expanded values are precomputed per enumerated value.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class LocalizationTemplate
+{
+    /**
+     * Compiled string template.
+     */
+    private final StringTemplate template;
+
+    /**
+     * Precomputed expanded values per enumerated value ordinal (only for enumerations referencing <b>${this}</b> only).
+     */
+    private final String[] constants;
+
+    /**
+     * Create a compiled template.
+     * @param template Compiled string template.
+     * @param constants Precomputed expanded values per enumerated value ordinal or <b>null</b>.
+     */
+    private LocalizationTemplate(final StringTemplate template, final String[] constants)
+    {
+        this.template = template;
+        this.constants = constants;
+    }
+
+    /**
+     * Compile a template for a given class.
+     * @param type Class of the instances the template will be expanded with.
+     * @param text Template text.
+     * @return Compiled template.
+     * @throws LocalizationException Thrown to indicate the template references a variable that cannot be resolved for the given class.
+     */
+    public static LocalizationTemplate compile(final @NonNull Class<?> type, final @NonNull String text) throws LocalizationException
+    {
+        StringTemplate template;
+
+        try
+        {
+            template = StringTemplate.compile(type, text);
+        }
+        catch (StringExpanderException e)
+        {
+            throw new LocalizationException(e.getMessage());
+        }
+
+        if (template.hasProperties() || !type.isEnum())
+        {
+            return new LocalizationTemplate(template, null);
+        }
+
+        Object[] values = type.getEnumConstants();
+        String[] constants = new String[values.length];
+
+        for (int i = 0; i < values.length; i++)
+        {
+            constants[i] = render(template, values[i]);
+        }
+
+        return new LocalizationTemplate(template, constants);
+    }
+
+    /**
+     * Return the template text.
+     * @return Template text.
+     */
+    public String getText()
+    {
+        return template.getText();
+    }
+
+    /**
+     * Expand the template with the values of the given instance.
+     * @param instance Instance (of the class the template has been compiled for).
+     * @return Expanded template.
+     * @throws LocalizationException Thrown to indicate an error occurred while reading a variable value.
+     */
+    public String expand(final Object instance) throws LocalizationException
+    {
+        if (constants != null)
+        {
+            return constants[((Enum<?>) instance).ordinal()];
+        }
+
+        return render(template, instance);
+    }
+
+    /**
+     * Render a string template.
+     * @param template Compiled string template.
+     * @param instance Instance.
+     * @return Rendered text.
+     * @throws LocalizationException Thrown to indicate an error occurred while reading a variable value.
+     */
+    private static String render(final StringTemplate template, final Object instance) throws LocalizationException
+    {
+        try
+        {
+            return template.render(instance);
+        }
+        catch (StringExpanderException e)
+        {
+            throw new LocalizationException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.localization.internal;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import lombok.NonNull;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of resolved messages (k = resource bundle, key and locale, v = localized value).
+ * <br>
+ * Messages are cached per locale and resource bundle (using nested maps so a cache hit does not allocate any composite key)
+ * in size-bounded caches recording their hit and miss counts. The cache is discarded each time a registered resource bundle
+ * is replaced or all resource bundles are cleared (new registrations do not change the already resolved values).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class MessageCache
+{
+    /**
+     * Resource bundle name used for the messages resolved without a resource bundle.
+     */
+    private static final String NO_BUNDLE = "";
+
+    /**
+     * Maximum number of messages cached per locale and resource bundle.
+     */
+    private static final int MAX_MESSAGES = 4_096;
+
+    /**
+     * Registry of the resource bundles.
+     */
+    private final BundleRegistry registry;
+
+    /**
+     * Cached messages (k = locale, v = (k = resource bundle name, v = (k = key, v = value))).
+     */
+    private final Map<Locale, Map<String, Cache<String, String>>> messages = new ConcurrentHashMap<>();
+
+    /**
+     * Number of misses for which no cache exists (yet or anymore) for the locale and resource bundle.
+     */
+    private final LongAdder coldMisses = new LongAdder();
+
+    /**
+     * Statistics of the discarded caches.
+     */
+    private CacheStats discarded = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    /**
+     * Version of the registry the cached messages have been resolved with.
+     */
+    private volatile long version;
+
+    /**
+     * Create a message cache.
+     * @param registry Registry of the resource bundles.
+     */
+    public MessageCache(final @NonNull BundleRegistry registry)
+    {
+        this.registry = registry;
+        this.version = registry.getVersion();
+    }
+
+    /**
+     * Return a cached message.
+     * @param bundle Resource bundle name or <b>null</b>.
+     * @param key Resource bundle key.
+     * @param locale Locale.
+     * @return Value or <b>null</b> if not cached.
+     */
+    public String get(final String bundle, final @NonNull String key, final @NonNull Locale locale)
+    {
+        if (version != registry.getVersion())
+        {
+            invalidate();
+            coldMisses.increment();
+            return null;
+        }
+
+        Map<String, Cache<String, String>> bundles = messages.get(locale);
+        Cache<String, String> cache = bundles == null ? null : bundles.get(bundle == null ? NO_BUNDLE : bundle);
+
+        if (cache == null)
+        {
+            coldMisses.increment();
+            return null;
+        }
+
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Cache a message.
+     * @param bundle Resource bundle name or <b>null</b>.
+     * @param key Resource bundle key.
+     * @param locale Locale.
+     * @param value Value.
+     * @param resolvedVersion Version of the registry the value has been resolved with (see {@link BundleRegistry#getVersion()}).
+     */
+    public void put(final String bundle, final @NonNull String key, final @NonNull Locale locale, final @NonNull String value, final long resolvedVersion)
+    {
+        if (resolvedVersion != version || resolvedVersion != registry.getVersion())
+        {
+            return; // Value may be stale
+        }
+
+        Cache<String, String> cache = messages.computeIfAbsent(locale, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(bundle == null ? NO_BUNDLE : bundle, k -> CacheBuilder.newBuilder()
+                        .maximumSize(MAX_MESSAGES)
+                        .recordStats()
+                        .build());
+        cache.put(key, value);
+
+        // The registry may have changed (and the cache been invalidated) between the check and the store
+        if (resolvedVersion != version || resolvedVersion != registry.getVersion())
+        {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Return the statistics (hits, misses and evictions) of the cache since its creation.
+     * @return Statistics.
+     */
+    public synchronized CacheStats getStatistics()
+    {
+        CacheStats statistics = discarded.plus(new CacheStats(0, coldMisses.sumThenReset(), 0, 0, 0, 0));
+        discarded = statistics;
+
+        for (Map<String, Cache<String, String>> bundles : messages.values())
+        {
+            for (Cache<String, String> cache : bundles.values())
+            {
+                statistics = statistics.plus(cache.stats());
+            }
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Discard all the cached messages.
+     */
+    public synchronized void invalidate()
+    {
+        discarded = getStatistics();
+        messages.clear();
+        version = registry.getVersion();
+    }
+}
@@ -21,10 +21,16 @@ import lombok.*;
 import lombok.extern.log4j.Log4j2;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Entity providing services for a string to be easily localized (see: i18n, g11n, L10n).
+ * <br>
+ * A translation is thread safe: its state is guarded by the translation itself, so the state written by an asynchronous
+ * translation (completed on a thread of the translator) is visible to the threads reading it through the accessors.
  * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
  * @version 1.0.0
  */
@@ -36,30 +42,22 @@ public final class Translation implements Serializable
      * Original text.
      */
     @SerializedName("string:text")
-    @Getter
-    @Setter
     private String text;
 
     /**
      * Translated text.
      */
     @SerializedName("string:translated")
-    @Getter
-    @Setter
     private String translated;
 
     /**
      * Source locale.
      */
-    @Getter
-    @Setter
     private Locale sourceLocale;
 
     /**
      * Target locale.
      */
-    @Getter
-    @Setter
     private Locale targetLocale;
 
     /**
@@ -77,6 +75,11 @@ public final class Translation implements Serializable
      */
     private transient Locale previousLocale;
 
+    /**
+     * Number of the last translation started (the state of an earlier translation completing later is not kept).
+     */
+    private transient long generation;
+
     /**
      * Create a translation instance.
      */
@@ -100,6 +103,78 @@ public final class Translation implements Serializable
         this.targetLocale = target != null ? target : Locale.ENGLISH;
     }
 
+    /**
+     * Return the original text.
+     * @return Original text.
+     */
+    public synchronized String getText()
+    {
+        return text;
+    }
+
+    /**
+     * Set the original text.
+     * @param text Original text.
+     */
+    public synchronized void setText(final String text)
+    {
+        this.text = text;
+    }
+
+    /**
+     * Return the translated text.
+     * @return Translated text.
+     */
+    public synchronized String getTranslated()
+    {
+        return translated;
+    }
+
+    /**
+     * Set the translated text.
+     * @param translated Translated text.
+     */
+    public synchronized void setTranslated(final String translated)
+    {
+        this.translated = translated;
+    }
+
+    /**
+     * Return the source locale.
+     * @return Source locale.
+     */
+    public synchronized Locale getSourceLocale()
+    {
+        return sourceLocale;
+    }
+
+    /**
+     * Set the source locale.
+     * @param sourceLocale Source locale.
+     */
+    public synchronized void setSourceLocale(final Locale sourceLocale)
+    {
+        this.sourceLocale = sourceLocale;
+    }
+
+    /**
+     * Return the target locale.
+     * @return Target locale.
+     */
+    public synchronized Locale getTargetLocale()
+    {
+        return targetLocale;
+    }
+
+    /**
+     * Set the target locale.
+     * @param targetLocale Target locale.
+     */
+    public synchronized void setTargetLocale(final Locale targetLocale)
+    {
+        this.targetLocale = targetLocale;
+    }
+
     /**
      * Translate a text.
      * @param text Text tp translate.
@@ -121,6 +196,23 @@ public final class Translation implements Serializable
         return translation.getTranslated();
     }
 
+    /**
+     * Translate a text asynchronously.
+     * @param text Text tp translate.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @return Future translated text, completed exceptionally with a {@link TranslationException} if an error occurred while trying to translate the text.
+     */
+    public static CompletableFuture<String> translateAsync(final @NonNull String text, final @NonNull Locale source, final @NonNull Locale target)
+    {
+        return Translation.builder()
+                .withSource(source)
+                .withTarget(target)
+                .withText(text)
+                .build()
+                .translateAsync();
+    }
+
     /**
      * Translate a text from a given source language to a target language.
      * <hr>
@@ -130,7 +222,7 @@ public final class Translation implements Serializable
      */
     public boolean translate() throws TranslationException
     {
-        return translate(sourceLocale, targetLocale);
+        return translate(getSourceLocale(), getTargetLocale());
     }
 
     /**
@@ -144,45 +236,132 @@ public final class Translation implements Serializable
      */
     public boolean translate(final @NonNull Locale source, final @NonNull Locale target) throws TranslationException
     {
-        isTranslated = false;
+        final long request;
+        final String original;
 
-        if (previousText == null || !previousText.equals(text))
+        synchronized (this)
         {
-            // No previous text to translate or previous text is different from new one to translate.
-            previousText = text;
-            translated = I18nManager.getInstance().translate(this, source, target);
-            previousLocale = target;
-            setTranslated(translated);
-            isTranslated = true;
-
-            return true;
-        }
-        else
-        {
-            // Text to translate is same as previous one, are the locale different?
-            if (previousLocale == null || !previousLocale.toLanguageTag().equals(target.toLanguageTag()))
+            isTranslated = false;
+            request = ++generation;
+            original = text;
+
+            if (previousText != null && previousText.equals(original))
             {
-                if (text == null || text.isBlank())
+                // Text to translate is same as previous one, are the locale different?
+                if (previousLocale != null && previousLocale.toLanguageTag().equals(target.toLanguageTag()))
                 {
-                    previousText = text;
-                    setTranslated(text);
-                    previousLocale = target;
-                    isTranslated = true;
+                    return false;
+                }
+
+                if (original.isBlank())
+                {
+                    complete(request, original, original, target);
 
                     return true;
                 }
+            }
+        }
+
+        // The translator is invoked without holding the lock, the accessors are not blocked during the remote call
+        complete(request, original, I18nManager.getInstance().translate(this, source, target), target);
+
+        return true;
+    }
+
+    /**
+     * Translate a text asynchronously from its source language to its target language.
+     * <br>
+     * The calling thread is not blocked while the remote service translates the text. Once translated, the translated text
+     * is also available using <b>getTranslated()</b>.
+     * @return Future translated text, completed exceptionally with a {@link TranslationException} if an error occurred while trying to translate the text.
+     */
+    public CompletableFuture<String> translateAsync()
+    {
+        return translateAsync(getSourceLocale(), getTargetLocale());
+    }
+
+    /**
+     * Translate a text asynchronously from its source language to its target language.
+     * <br>
+     * If the translation does not complete within the given timeout, the returned future is completed exceptionally with
+     * a {@link java.util.concurrent.TimeoutException} and the pending request is cancelled.
+     * @param timeout Maximum time to wait for the translation.
+     * @return Future translated text.
+     */
+    public CompletableFuture<String> translateAsync(final @NonNull Duration timeout)
+    {
+        return translateAsync().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Translate a text asynchronously from a given source language to a target language.
+     * <br>
+     * Cancelling the returned future cancels the pending request (a request shared with other translations of the same
+     * text is only cancelled once all of them have been cancelled).
+     * @param source Source locale.
+     * @param target Target locale.
+     * @return Future translated text, completed exceptionally with a {@link TranslationException} if an error occurred while trying to translate the text.
+     */
+    public CompletableFuture<String> translateAsync(final @NonNull Locale source, final @NonNull Locale target)
+    {
+        final long request;
+        final String original;
+
+        synchronized (this)
+        {
+            isTranslated = false;
+            request = ++generation;
+            original = text;
+
+            if (original != null && original.equals(previousText) && previousLocale != null && previousLocale.toLanguageTag().equals(target.toLanguageTag()))
+            {
+                // Same text and same target locale as the previous translation.
+                return CompletableFuture.completedFuture(translated);
+            }
+
+            if (original == null || original.isBlank())
+            {
+                complete(request, original, original, target);
+
+                return CompletableFuture.completedFuture(original);
+            }
+        }
 
-                previousText = text;
-                translated = I18nManager.getInstance().translate(this, source, target);
-                previousLocale = target;
-                setTranslated(translated);
-                isTranslated = true;
+        CompletableFuture<String> call = I18nManager.getInstance().translateAsync(this, source, target);
+        CompletableFuture<String> translation = call.thenApply(result -> {
+            complete(request, original, result, target);
 
-                return true;
+            return result;
+        });
+
+        // Cancelling (or timing out) the translation cancels the pending request.
+        translation.whenComplete((result, exception) -> {
+            if (exception != null)
+            {
+                call.cancel(true);
             }
+        });
+
+        return translation;
+    }
+
+    /**
+     * Record the result of a translation, unless another translation has been started since.
+     * @param request Number of the translation.
+     * @param original Original text.
+     * @param result Translated text.
+     * @param target Target locale.
+     */
+    private synchronized void complete(final long request, final String original, final String result, final Locale target)
+    {
+        if (request != generation)
+        {
+            return;
         }
 
-        return false;
+        previousText = original;
+        translated = result;
+        previousLocale = target;
+        isTranslated = true;
     }
 }
-
@@ -0,0 +1,289 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.engine;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.Translation;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A translator of the entries of a translation request packing several entries in each translation request sent to a
+ * translator.
+ * <br>
+ * Each entry source is prefixed by a numbered sentinel (ex.: <b>[[0]] Hello [[1]] World</b>) surviving the translation,
+ * so the translated text can be split back per entry. Batches are bounded both in number of entries and in payload length.
+ * When a translated batch cannot be split back (a sentinel has been lost, translated or moved) or its request fails, the
+ * entries of the batch are translated individually. Entries whose source is too long or contains a sentinel are always
+ * translated individually.
+ * <br>
+ * Batches are sent concurrently using {@link ITranslator#translateAsync(Translation, Locale, Locale)}, the translator is
+ * responsible for bounding the number of requests in flight.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Log4j2
+public final class BatchTranslator
+{
+    /**
+     * Default maximum number of entries per batch.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 32;
+
+    /**
+     * Default maximum length (in characters) of the text of a batch.
+     */
+    public static final int DEFAULT_MAX_LENGTH = 1_500;
+
+    /**
+     * Sentinel format prefixing each entry source of a batch.
+     */
+    private static final String SENTINEL_FORMAT = "[[%d]] ";
+
+    /**
+     * Sentinel pattern (tolerating the spaces a translation may add or remove).
+     */
+    private static final Pattern SENTINEL = Pattern.compile("\\[\\[\\s*(\\d+)\\s*]]");
+
+    /**
+     * Translator.
+     */
+    @Getter
+    private final ITranslator translator;
+
+    /**
+     * Maximum number of entries per batch.
+     */
+    @Getter
+    private final int maxEntries;
+
+    /**
+     * Maximum length (in characters) of the text of a batch.
+     */
+    @Getter
+    private final int maxLength;
+
+    /**
+     * Create a batch translator.
+     * @param translator Translator.
+     */
+    public BatchTranslator(final @NonNull ITranslator translator)
+    {
+        this(translator, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * Create a batch translator.
+     * @param translator Translator.
+     * @param maxEntries Maximum number of entries per batch.
+     * @param maxLength Maximum length (in characters) of the text of a batch.
+     */
+    public BatchTranslator(final @NonNull ITranslator translator, final int maxEntries, final int maxLength)
+    {
+        if (maxEntries < 1 || maxLength < 1)
+        {
+            throw new IllegalArgumentException("Maximum number of entries and maximum length must be strictly positive!");
+        }
+
+        this.translator = translator;
+        this.maxEntries = maxEntries;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Translate the entries of a translation request requiring a translation.
+     * @param request Translation request.
+     * @throws TranslationException Thrown to indicate an error occurred while trying to translate an entry.
+     */
+    public void translate(final @NonNull ITranslationRequest request) throws TranslationException
+    {
+        if (request.getSourceLocale() == null || request.getTargetLocale() == null)
+        {
+            throw new TranslationException("Source and target locales of the translation request must be set!");
+        }
+
+        List<List<ITranslationRequestEntry>> batches = pack(request.getEntries());
+        List<CompletableFuture<Void>> translations = new ArrayList<>(batches.size());
+
+        for (List<ITranslationRequestEntry> batch : batches)
+        {
+            translations.add(translate(batch, request.getSourceLocale(), request.getTargetLocale()));
+        }
+
+        TranslationException.await(CompletableFuture.allOf(translations.toArray(new CompletableFuture[0])));
+
+        LOGGER.debug(String.format("Translated request from: '%s' to: '%s' using: %d batch(es)", request.getSourceLocale(), request.getTargetLocale(), batches.size()));
+    }
+
+    /**
+     * Pack the entries requiring a translation into batches.
+     * @param entries Translation request entries.
+     * @return Batches (a batch containing a single entry is translated individually).
+     */
+    private List<List<ITranslationRequestEntry>> pack(final List<? extends ITranslationRequestEntry> entries)
+    {
+        List<List<ITranslationRequestEntry>> batches = new ArrayList<>();
+        List<ITranslationRequestEntry> batch = new ArrayList<>();
+        int length = 0;
+
+        for (ITranslationRequestEntry entry : entries)
+        {
+            if (!entry.requireTranslation())
+            {
+                continue;
+            }
+
+            int entryLength = String.format(SENTINEL_FORMAT, batch.size()).length() + entry.getSource().length() + 1;
+
+            if (entryLength > maxLength || SENTINEL.matcher(entry.getSource()).find())
+            {
+                batches.add(List.of(entry)); // Always translated individually
+                continue;
+            }
+
+            if (batch.size() == maxEntries || length + entryLength > maxLength)
+            {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                length = 0;
+            }
+
+            batch.add(entry);
+            length += entryLength;
+        }
+
+        if (!batch.isEmpty())
+        {
+            batches.add(batch);
+        }
+
+        return batches;
+    }
+
+    /**
+     * Translate a batch of entries.
+     * @param batch Batch of entries.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @return Future completed once all the entries of the batch are translated.
+     */
+    private CompletableFuture<Void> translate(final List<ITranslationRequestEntry> batch, final Locale source, final Locale target)
+    {
+        if (batch.size() == 1)
+        {
+            return translateEach(batch, source, target);
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < batch.size(); i++)
+        {
+            text.append(String.format(SENTINEL_FORMAT, i)).append(batch.get(i).getSource()).append(' ');
+        }
+
+        return translator.translateAsync(new Translation(text.toString(), source, target), source, target)
+                .handle((translated, exception) -> {
+                    List<String> segments = exception == null ? split(translated, batch.size()) : null;
+
+                    if (segments == null)
+                    {
+                        LOGGER.warn(String.format("Cannot translate a batch of: %d entries, translating them individually, cause: %s", batch.size(), exception != null ? exception.getMessage() : "sentinels not preserved"));
+                        return translateEach(batch, source, target);
+                    }
+
+                    for (int i = 0; i < batch.size(); i++)
+                    {
+                        batch.get(i).setTranslated(segments.get(i));
+                    }
+
+                    return CompletableFuture.<Void>completedFuture(null);
+                })
+                .thenCompose(translation -> translation);
+    }
+
+    /**
+     * Translate each entry individually.
+     * @param entries Entries.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @return Future completed once all the entries are translated.
+     */
+    private CompletableFuture<Void> translateEach(final List<ITranslationRequestEntry> entries, final Locale source, final Locale target)
+    {
+        List<CompletableFuture<Void>> translations = new ArrayList<>(entries.size());
+
+        for (ITranslationRequestEntry entry : entries)
+        {
+            translations.add(translator.translateAsync(new Translation(entry.getSource(), source, target), source, target)
+                    .thenAccept(entry::setTranslated));
+        }
+
+        return CompletableFuture.allOf(translations.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Split a translated batch into the translated text of each of its entries.
+     * @param translated Translated batch.
+     * @param count Number of entries of the batch.
+     * @return Translated texts or <b>null</b> if the sentinels have not been preserved by the translation.
+     */
+    private static List<String> split(final String translated, final int count)
+    {
+        if (translated == null)
+        {
+            return null;
+        }
+
+        Matcher matcher = SENTINEL.matcher(translated);
+        List<String> segments = new ArrayList<>(count);
+        int start = -1;
+
+        while (matcher.find())
+        {
+            if (start < 0 && !translated.substring(0, matcher.start()).isBlank())
+            {
+                return null; // Text before the first sentinel
+            }
+
+            if (Integer.parseInt(matcher.group(1)) != segments.size() + (start < 0 ? 0 : 1) || segments.size() >= count)
+            {
+                return null; // Sentinel lost, duplicated or moved
+            }
+
+            if (start >= 0)
+            {
+                segments.add(translated.substring(start, matcher.start()).trim());
+            }
+
+            start = matcher.end();
+        }
+
+        if (start < 0)
+        {
+            return null;
+        }
+
+        segments.add(translated.substring(start).trim());
+
+        return segments.size() == count && segments.stream().noneMatch(String::isEmpty) ? segments : null;
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.engine;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A pipeline translating a resource bundle <b>properties</b> file into several target languages.
+ * <br>
+ * For each target language, the base file (ex.: <b>i18n/time/month.properties</b>) is compared to the existing language
+ * file (ex.: <b>i18n/time/month_fr.properties</b>), only the missing keys are translated (using a {@link BatchTranslator})
+ * and the language file is then (atomically) re-written. Target languages are processed in parallel.
+ * <br>
+ * The content of an existing language file (its entries, comments, blank lines and key order) is kept as is, the newly
+ * translated keys are appended to it (sorted by key). A key present in the language file with a blank value is
+ * translated as well, the appended entry then overrides the blank one.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Log4j2
+public final class BundleTranslationPipeline
+{
+    /**
+     * Default maximum number of target languages processed in parallel.
+     */
+    public static final int DEFAULT_PARALLELISM = 8;
+
+    /**
+     * Resource bundle file extension.
+     */
+    private static final String PROPERTIES_EXTENSION = ".properties";
+
+    /**
+     * Batch translator.
+     */
+    @Getter
+    private final BatchTranslator translator;
+
+    /**
+     * Maximum number of target languages processed in parallel.
+     */
+    @Getter
+    private final int parallelism;
+
+    /**
+     * Create a bundle translation pipeline.
+     * @param translator Batch translator.
+     */
+    public BundleTranslationPipeline(final @NonNull BatchTranslator translator)
+    {
+        this(translator, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Create a bundle translation pipeline.
+     * @param translator Batch translator.
+     * @param parallelism Maximum number of target languages processed in parallel.
+     */
+    public BundleTranslationPipeline(final @NonNull BatchTranslator translator, final int parallelism)
+    {
+        if (parallelism < 1)
+        {
+            throw new IllegalArgumentException("Parallelism must be strictly positive!");
+        }
+
+        this.translator = translator;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Translate a resource bundle into several target languages.
+     * @param directory Directory containing the resource bundle files.
+     * @param bundle Path (and name) of the resource bundle relative to the directory (ex.: <b>i18n/time/month</b>).
+     * @param source Locale of the base file.
+     * @param targets Target locales.
+     * @return Number of translated keys per target locale.
+     * @throws TranslationException Thrown to indicate an error occurred while translating the resource bundle into a target language.
+     */
+    public Map<Locale, Integer> translate(final @NonNull Path directory, final @NonNull String bundle, final @NonNull Locale source, final @NonNull Collection<Locale> targets) throws TranslationException
+    {
+        Path base = directory.resolve(bundle + PROPERTIES_EXTENSION);
+        if (!Files.isRegularFile(base))
+        {
+            throw new TranslationException(String.format("Cannot find resource bundle file: '%s'", base));
+        }
+
+        Map<Locale, Integer> translated = new LinkedHashMap<>();
+        if (targets.isEmpty())
+        {
+            return translated;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, targets.size()));
+        try
+        {
+            Map<Locale, Future<Integer>> languages = new LinkedHashMap<>();
+            for (Locale target : targets)
+            {
+                Path file = directory.resolve(bundle + "_" + target + PROPERTIES_EXTENSION);
+                languages.put(target, executor.submit(() -> translate(base, file, source, target)));
+            }
+
+            for (Map.Entry<Locale, Future<Integer>> language : languages.entrySet())
+            {
+                translated.put(language.getKey(), TranslationException.await(language.getValue()));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        return translated;
+    }
+
+    /**
+     * Translate a resource bundle into a target language.
+     * @param base Base file.
+     * @param file Target language file.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @return Number of translated keys.
+     * @throws TranslationException Thrown to indicate an error occurred while translating the resource bundle.
+     */
+    private int translate(final Path base, final Path file, final Locale source, final Locale target) throws TranslationException
+    {
+        TranslationRequest request = new TranslationRequest();
+        request.setSourceLocale(source);
+        request.setTargetLocale(target);
+        try (Reader reader = Files.newBufferedReader(base, StandardCharsets.ISO_8859_1))
+        {
+            request.setSourceProperties(reader);
+        }
+        catch (IOException e)
+        {
+            throw new TranslationException(String.format("Cannot read resource bundle file: '%s'", base), e);
+        }
+
+        if (Files.isRegularFile(file))
+        {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1))
+            {
+                request.setTargetProperties(reader);
+            }
+            catch (IOException e)
+            {
+                throw new TranslationException(String.format("Cannot read resource bundle file: '%s'", file), e);
+            }
+        }
+
+        // Entries are translated in batches, not individually by the process translation processor
+        TranslationProcess process = new TranslationProcess((p, entry) -> {
+            throw new TranslationException("Entries must be translated in batches!");
+        });
+        process.setRequest(request);
+
+        if (!process.requireProcessing())
+        {
+            return 0;
+        }
+
+        int count = request.getCount();
+        Set<String> missing = new HashSet<>();
+        for (ITranslationRequestEntry entry : request.getEntries())
+        {
+            if (entry.requireTranslation())
+            {
+                missing.add(entry.getKey());
+            }
+        }
+
+        process.translate(translator);
+        write(process, file, missing);
+
+        LOGGER.debug(String.format("Translated: %d key(s) of resource bundle file: '%s'", count, file));
+
+        return count;
+    }
+
+    /**
+     * Write the document of a translation process to a file, replacing it atomically.
+     * <br>
+     * If the file exists, its content is kept and only the newly translated entries are appended to it.
+     * @param process Translation process.
+     * @param file File.
+     * @param translated Keys of the newly translated entries.
+     * @throws TranslationException Thrown to indicate the file cannot be written.
+     */
+    private static void write(final TranslationProcess process, final Path file, final Set<String> translated) throws TranslationException
+    {
+        try
+        {
+            String existing = Files.isRegularFile(file) ? Files.readString(file, StandardCharsets.ISO_8859_1) : null;
+            Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+
+            try
+            {
+                try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.ISO_8859_1))
+                {
+                    if (existing == null)
+                    {
+                        process.writeDocument(writer);
+                    }
+                    else
+                    {
+                        writer.write(existing);
+                        if (!existing.isEmpty() && !existing.endsWith("\n") && !existing.endsWith("\r"))
+                        {
+                            writer.write('\n');
+                        }
+
+                        process.writeDocument(writer, entry -> translated.contains(entry.getKey()));
+                    }
+                }
+
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally
+            {
+                Files.deleteIfExists(temporary);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new TranslationException(String.format("Cannot write resource bundle file: '%s'", file), e);
+        }
+    }
+}
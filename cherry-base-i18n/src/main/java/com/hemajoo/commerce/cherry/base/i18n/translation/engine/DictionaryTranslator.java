@@ -0,0 +1,181 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.engine;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.Translation;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationNotFoundException;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An offline translator answering from dictionaries, without any network access.
+ * <br>
+ * A dictionary holds the translations of texts from a source language to a target language. Dictionaries are loaded from
+ * the <b>UTF-8</b> properties files of a directory named <b>&lt;source&gt;_&lt;target&gt;.properties</b> (for example:
+ * <b>en_fr.properties</b>), the keys being the texts to translate and the values their translations. When a text is not
+ * in the dictionary of a language pair, a {@link TranslationNotFoundException} is raised so another translator can be
+ * tried (see {@link TranslatorRegistry}).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Log4j2
+public final class DictionaryTranslator implements ITranslator
+{
+    /**
+     * Dictionary file extension.
+     */
+    private static final String EXTENSION = ".properties";
+
+    /**
+     * Dictionaries (k = language pair, v = dictionary (k = text, v = translated text)).
+     */
+    private final Map<String, Map<String, String>> dictionaries = new ConcurrentHashMap<>();
+
+    /**
+     * Create an empty dictionary translator.
+     */
+    public DictionaryTranslator()
+    {
+        // Empty
+    }
+
+    /**
+     * Create a dictionary translator loading the dictionaries of a directory.
+     * @param directory Dictionaries directory.
+     * @throws TranslationException Thrown to indicate an error occurred while loading the dictionaries.
+     */
+    public DictionaryTranslator(final @NonNull Path directory) throws TranslationException
+    {
+        load(directory);
+    }
+
+    /**
+     * Load the dictionaries of a directory (translations already loaded for the same texts are replaced).
+     * @param directory Dictionaries directory.
+     * @throws TranslationException Thrown to indicate an error occurred while loading the dictionaries.
+     */
+    public void load(final @NonNull Path directory) throws TranslationException
+    {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*_*" + EXTENSION))
+        {
+            for (Path file : files)
+            {
+                String name = file.getFileName().toString();
+                String[] languages = name.substring(0, name.length() - EXTENSION.length()).split("_");
+                if (languages.length != 2)
+                {
+                    continue;
+                }
+
+                Map<String, String> dictionary = getDictionary(languages[0], languages[1]);
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+                {
+                    PropertiesParser.parse(reader, dictionary::put);
+                }
+
+                LOGGER.debug(String.format("Loaded dictionary: '%s' (%d translation(s))", file, dictionary.size()));
+            }
+        }
+        catch (IOException e)
+        {
+            throw new TranslationException(String.format("Cannot load dictionaries of directory: '%s'", directory), e);
+        }
+    }
+
+    /**
+     * Add a translation.
+     * @param text Text to translate.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @param translated Translated text.
+     */
+    public void put(final @NonNull String text, final @NonNull Locale source, final @NonNull Locale target, final @NonNull String translated)
+    {
+        getDictionary(source.getLanguage(), target.getLanguage()).put(text, translated);
+    }
+
+    /**
+     * Return if a dictionary exists for a language pair.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @return <b>True</b> if a dictionary exists, <b>false</b> otherwise.
+     */
+    public boolean hasDictionary(final @NonNull Locale source, final @NonNull Locale target)
+    {
+        return dictionaries.containsKey(getLanguagePair(source.getLanguage(), target.getLanguage()));
+    }
+
+    @Override
+    public String translate(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target) throws TranslationException
+    {
+        Map<String, String> dictionary = dictionaries.get(getLanguagePair(source.getLanguage(), target.getLanguage()));
+        String translated = dictionary != null && text.getText() != null ? dictionary.get(text.getText()) : null;
+
+        if (translated == null)
+        {
+            throw new TranslationNotFoundException(String.format("No translation found from: '%s' to: '%s' for text: '%s'", source.getLanguage(), target.getLanguage(), text.getText()));
+        }
+
+        return translated;
+    }
+
+    @Override
+    public CompletableFuture<String> translateAsync(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+    {
+        // Lookups are answered immediately, without hopping to another thread
+        try
+        {
+            return CompletableFuture.completedFuture(translate(text, source, target));
+        }
+        catch (TranslationException e)
+        {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Return the dictionary of a language pair, creating it if needed.
+     * @param source Source language.
+     * @param target Target language.
+     * @return Dictionary.
+     */
+    private Map<String, String> getDictionary(final String source, final String target)
+    {
+        return dictionaries.computeIfAbsent(getLanguagePair(source, target), k -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Return the key of a language pair.
+     * @param source Source language.
+     * @param target Target language.
+     * @return Language pair key.
+     */
+    private static String getLanguagePair(final String source, final String target)
+    {
+        return source + '_' + target;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.engine;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import lombok.extern.log4j.Log4j2;
+
+import java.nio.file.Path;
+
+/**
+ * A provider of the offline {@link DictionaryTranslator} translator engine.
+ * <br>
+ * The engine is only available when the <b>cherry.i18n.dictionary</b> system property references the directory of the
+ * dictionaries to load.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Log4j2
+public final class DictionaryTranslatorProvider implements ITranslatorProvider
+{
+    /**
+     * Translator engine name.
+     */
+    public static final String NAME = "dictionary";
+
+    /**
+     * System property referencing the directory of the dictionaries.
+     */
+    public static final String DIRECTORY_PROPERTY = "cherry.i18n.dictionary";
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public int getPriority()
+    {
+        return 0;
+    }
+
+    @Override
+    public boolean isAvailable()
+    {
+        return System.getProperty(DIRECTORY_PROPERTY) != null;
+    }
+
+    @Override
+    public ITranslator create()
+    {
+        Path directory = Path.of(System.getProperty(DIRECTORY_PROPERTY));
+
+        try
+        {
+            return new DictionaryTranslator(directory);
+        }
+        catch (TranslationException e)
+        {
+            LOGGER.error(String.format("Cannot load dictionaries, cause: %s", e.getMessage()));
+            return new DictionaryTranslator();
+        }
+    }
+}
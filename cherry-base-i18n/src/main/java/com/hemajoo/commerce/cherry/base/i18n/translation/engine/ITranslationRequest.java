@@ -17,6 +17,7 @@ package com.hemajoo.commerce.cherry.base.i18n.translation.engine;
 import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
 import lombok.NonNull;
 
+import java.io.Reader;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -46,10 +47,17 @@ public interface ITranslationRequest
 
     /**
      * Return the translation request entries.
-     * @return Translation request entries.
+     * @return Translation request entries (unmodifiable, see {@link #addEntry(TranslationRequestEntry)}).
      */
     List<TranslationRequestEntry> getEntries();
 
+    /**
+     * Add a translation request entry.
+     * @param entry Translation request entry.
+     * @throws IllegalArgumentException Thrown to indicate the request already contains an entry with the same key.
+     */
+    void addEntry(final @NonNull TranslationRequestEntry entry);
+
     /**
      * Retrieve a target property entry given its key.
      * @param key Target property key.
@@ -74,8 +82,16 @@ public interface ITranslationRequest
     /**
      * Set the source properties.
      * @param content Source property content.
+     * @throws TranslationException Thrown in case the content is malformed.
      */
-    void setSourceProperties(final @NonNull String content);
+    void setSourceProperties(final @NonNull String content) throws TranslationException;
+
+    /**
+     * Set the source properties, streaming them from a reader.
+     * @param reader Reader providing the source property content (not closed).
+     * @throws TranslationException Thrown in case the content cannot be read or is malformed.
+     */
+    void setSourceProperties(final @NonNull Reader reader) throws TranslationException;
 
     /**
      * Set the locale for the source.
@@ -86,8 +102,16 @@ public interface ITranslationRequest
     /**
      * Set the target properties.
      * @param content Target property content.
+     * @throws TranslationException Thrown in case the content is malformed.
+     */
+    void setTargetProperties(final @NonNull String content) throws TranslationException;
+
+    /**
+     * Set the target properties, streaming them from a reader.
+     * @param reader Reader providing the target property content (not closed).
+     * @throws TranslationException Thrown in case the content cannot be read or is malformed.
      */
-    void setTargetProperties(final @NonNull String content);
+    void setTargetProperties(final @NonNull Reader reader) throws TranslationException;
 
     /**
      * Set the locale for the target.
@@ -50,6 +50,12 @@ public interface ITranslationRequestEntry
      */
     void setTranslation(final @NonNull String translation);
 
+    /**
+     * Set the translated text for this translation request entry, marking it as not requiring a translation anymore.
+     * @param translation Translated text.
+     */
+    void setTranslated(final @NonNull String translation);
+
     /**
      * Set the translation result for this translation request entry.
      * @param result Translation result to set.
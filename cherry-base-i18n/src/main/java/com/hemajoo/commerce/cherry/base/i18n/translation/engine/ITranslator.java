@@ -18,14 +18,20 @@ import com.hemajoo.commerce.cherry.base.i18n.translation.Translation;
 import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
 import lombok.NonNull;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Interface defining the behavior of a translator.
+ * <br>
+ * A translator delegating to other translators (a translation chain) owns them: closing it closes its delegates.
  * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
  * @version 1.0.0
  */
-public interface ITranslator
+public interface ITranslator extends Closeable
 {
     /**
      * Translate some text.
@@ -36,4 +42,44 @@ public interface ITranslator
      * @throws TranslationException Thrown to indicate an error occurred while trying to translate some text.
      */
     String translate(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target) throws TranslationException;
+
+    /**
+     * Translate some text asynchronously.
+     * <br>
+     * The returned future is completed with the translated text or, exceptionally, with a {@link TranslationException}.
+     * Cancelling the future (or completing it exceptionally, for example using {@link CompletableFuture#orTimeout}) aborts
+     * the translation if the translator supports it.
+     * <hr>
+     * By default, the blocking {@link #translate(Translation, Locale, Locale)} method is invoked on the common pool,
+     * translators invoking a remote service should override this method with a non-blocking implementation.
+     * @param text Text to translate.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @return Future translated text.
+     */
+    default CompletableFuture<String> translateAsync(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+    {
+        return CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                return translate(text, source, target);
+            }
+            catch (TranslationException e)
+            {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Release the resources (threads, connections, files) held by the translator and by the translators it delegates to.
+     * <br>
+     * By default, a translator does not hold any resource.
+     * @throws IOException Thrown to indicate an error occurred while trying to release the resources.
+     */
+    @Override
+    default void close() throws IOException
+    {
+        // Nothing to release by default
+    }
 }
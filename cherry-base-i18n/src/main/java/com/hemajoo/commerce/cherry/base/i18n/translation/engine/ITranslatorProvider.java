@@ -0,0 +1,54 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.engine;
+
+/**
+ * Interface defining the behavior of a translator provider discovered by the {@link TranslatorRegistry} using the
+ * {@link java.util.ServiceLoader} mechanism.
+ * <br>
+ * Providers are declared in a <b>META-INF/services/com.hemajoo.commerce.cherry.base.i18n.translation.engine.ITranslatorProvider</b>
+ * file and must have a public no-argument constructor.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public interface ITranslatorProvider
+{
+    /**
+     * Return the name of the translator engine (used to route the language pairs).
+     * @return Translator engine name.
+     */
+    String getName();
+
+    /**
+     * Return the priority of the translator engine in the default route (lowest first).
+     * @return Priority.
+     */
+    int getPriority();
+
+    /**
+     * Return if the translator engine can be created (for example, if its configuration is available).
+     * @return <b>True</b> if the translator engine is available, <b>false</b> otherwise.
+     */
+    default boolean isAvailable()
+    {
+        return true;
+    }
+
+    /**
+     * Create the translator engine.
+     * @return Translator.
+     */
+    ITranslator create();
+}
@@ -0,0 +1,388 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.engine;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.BiConsumer;
+
+/**
+ * A streaming parser of <b>properties</b> content.
+ * <br>
+ * The content is read in a single pass through a fixed size buffer and each entry is handed over as soon as it is parsed,
+ * so the memory used by the parsing itself only depends on the size of the longest entry, not on the size of the content
+ * (the memory used to keep the entries is up to the consumer). The syntax is the one of {@link java.util.Properties#load(Reader)}:
+ * comments, <b>=</b>, <b>:</b> or white space separators, continuation lines and escape sequences (including unicode escapes).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class PropertiesParser
+{
+    /**
+     * Size of the read buffer.
+     */
+    private static final int BUFFER_SIZE = 8_192;
+
+    /**
+     * Reader.
+     */
+    private final Reader reader;
+
+    /**
+     * Read buffer.
+     */
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    /**
+     * Position of the next character in the read buffer.
+     */
+    private int position;
+
+    /**
+     * Number of characters in the read buffer.
+     */
+    private int limit;
+
+    /**
+     * Current logical line (reused from line to line).
+     */
+    private final StringBuilder line = new StringBuilder(128);
+
+    /**
+     * Decoded key or value (reused from entry to entry).
+     */
+    private final StringBuilder text = new StringBuilder(128);
+
+    /**
+     * Create a properties parser.
+     * @param reader Reader.
+     */
+    private PropertiesParser(final Reader reader)
+    {
+        this.reader = reader;
+    }
+
+    /**
+     * Parse <b>properties</b> content.
+     * @param reader Reader providing the content (not closed by the parser).
+     * @param consumer Consumer of the entries (key, value), invoked in the content order.
+     * @throws TranslationException Thrown to indicate the content cannot be read or is malformed.
+     */
+    public static void parse(final @NonNull Reader reader, final @NonNull BiConsumer<String, String> consumer) throws TranslationException
+    {
+        try
+        {
+            new PropertiesParser(reader).parse(consumer);
+        }
+        catch (IOException e)
+        {
+            throw new TranslationException("Cannot read properties content", e);
+        }
+    }
+
+    /**
+     * Parse the content.
+     * @param consumer Consumer of the entries.
+     * @throws IOException Thrown to indicate the content cannot be read.
+     * @throws TranslationException Thrown to indicate the content is malformed.
+     */
+    private void parse(final BiConsumer<String, String> consumer) throws IOException, TranslationException
+    {
+        while (readLine())
+        {
+            int length = line.length();
+            int keyLength = 0;
+            int valueStart = length;
+            boolean hasSeparator = false;
+            boolean precedingBackslash = false;
+
+            while (keyLength < length)
+            {
+                char c = line.charAt(keyLength);
+
+                if ((c == '=' || c == ':') && !precedingBackslash)
+                {
+                    valueStart = keyLength + 1;
+                    hasSeparator = true;
+                    break;
+                }
+                else if (isWhitespace(c) && !precedingBackslash)
+                {
+                    valueStart = keyLength + 1;
+                    break;
+                }
+
+                precedingBackslash = c == '\\' && !precedingBackslash;
+                keyLength++;
+            }
+
+            while (valueStart < length)
+            {
+                char c = line.charAt(valueStart);
+
+                if (!isWhitespace(c))
+                {
+                    if (!hasSeparator && (c == '=' || c == ':'))
+                    {
+                        hasSeparator = true;
+                    }
+                    else
+                    {
+                        break;
+                    }
+                }
+
+                valueStart++;
+            }
+
+            String key = decode(0, keyLength);
+            consumer.accept(key, decode(valueStart, length));
+        }
+    }
+
+    /**
+     * Read the next logical line (joining the continuation lines and skipping comments and blank lines).
+     * @return <b>True</b> if a line has been read, <b>false</b> at the end of the content.
+     * @throws IOException Thrown to indicate the content cannot be read.
+     */
+    private boolean readLine() throws IOException
+    {
+        line.setLength(0);
+
+        boolean skipWhitespace = true;
+        boolean isNewLine = true;
+        boolean isComment = false;
+        boolean appendedLineBegin = false;
+        boolean precedingBackslash = false;
+        boolean skipLineFeed = false;
+
+        while (true)
+        {
+            int read = next();
+            if (read < 0)
+            {
+                if (isComment || line.length() == 0)
+                {
+                    return line.length() > 0 && !isComment;
+                }
+
+                if (precedingBackslash)
+                {
+                    line.setLength(line.length() - 1);
+                }
+
+                return true;
+            }
+
+            char c = (char) read;
+
+            if (skipLineFeed)
+            {
+                skipLineFeed = false;
+                if (c == '\n')
+                {
+                    continue;
+                }
+            }
+
+            if (skipWhitespace)
+            {
+                if (isWhitespace(c) || (!appendedLineBegin && (c == '\r' || c == '\n')))
+                {
+                    continue;
+                }
+
+                skipWhitespace = false;
+                appendedLineBegin = false;
+            }
+
+            if (isNewLine)
+            {
+                isNewLine = false;
+                if (c == '#' || c == '!')
+                {
+                    isComment = true;
+                    continue;
+                }
+            }
+
+            if (c != '\n' && c != '\r')
+            {
+                if (!isComment)
+                {
+                    line.append(c);
+                    precedingBackslash = c == '\\' && !precedingBackslash;
+                }
+
+                continue;
+            }
+
+            // End of a natural line
+            if (isComment || line.length() == 0)
+            {
+                isComment = false;
+                isNewLine = true;
+                skipWhitespace = true;
+                skipLineFeed = c == '\r';
+                line.setLength(0);
+                continue;
+            }
+
+            if (precedingBackslash)
+            {
+                // Continuation line
+                line.setLength(line.length() - 1);
+                precedingBackslash = false;
+                skipWhitespace = true;
+                appendedLineBegin = true;
+                skipLineFeed = c == '\r';
+                continue;
+            }
+
+            if (c == '\r' && peek() == '\n')
+            {
+                position++; // Line feed of a CRLF line terminator
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Decode the escape sequences of a part of the current line.
+     * @param start Start index (inclusive).
+     * @param end End index (exclusive).
+     * @return Decoded text.
+     * @throws TranslationException Thrown to indicate a malformed unicode escape sequence.
+     */
+    private String decode(final int start, final int end) throws TranslationException
+    {
+        text.setLength(0);
+
+        int index = start;
+        while (index < end)
+        {
+            char c = line.charAt(index++);
+
+            if (c != '\\')
+            {
+                text.append(c);
+                continue;
+            }
+
+            if (index == end)
+            {
+                break;
+            }
+
+            c = line.charAt(index++);
+            switch (c)
+            {
+                case 'u':
+                    if (index + 4 > end)
+                    {
+                        throw new TranslationException("Malformed \\uxxxx encoding in properties content");
+                    }
+
+                    int value = 0;
+                    for (int i = 0; i < 4; i++)
+                    {
+                        int digit = Character.digit(line.charAt(index++), 16);
+                        if (digit < 0)
+                        {
+                            throw new TranslationException("Malformed \\uxxxx encoding in properties content");
+                        }
+
+                        value = (value << 4) + digit;
+                    }
+
+                    text.append((char) value);
+                    break;
+
+                case 't':
+                    text.append('\t');
+                    break;
+
+                case 'r':
+                    text.append('\r');
+                    break;
+
+                case 'n':
+                    text.append('\n');
+                    break;
+
+                case 'f':
+                    text.append('\f');
+                    break;
+
+                default:
+                    text.append(c);
+            }
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * Return the next character.
+     * @return Character or <b>-1</b> at the end of the content.
+     * @throws IOException Thrown to indicate the content cannot be read.
+     */
+    private int next() throws IOException
+    {
+        int c = peek();
+        if (c >= 0)
+        {
+            position++;
+        }
+
+        return c;
+    }
+
+    /**
+     * Return the next character without consuming it.
+     * @return Character or <b>-1</b> at the end of the content.
+     * @throws IOException Thrown to indicate the content cannot be read.
+     */
+    private int peek() throws IOException
+    {
+        if (position == limit)
+        {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+
+            if (limit <= 0)
+            {
+                limit = 0;
+                return -1;
+            }
+        }
+
+        return buffer[position];
+    }
+
+    /**
+     * Return if a character is a white space separator.
+     * @param c Character.
+     * @return <b>True</b> if the character is a white space, <b>false</b> otherwise.
+     */
+    private static boolean isWhitespace(final char c)
+    {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+}
@@ -0,0 +1,630 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.engine;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hemajoo.commerce.cherry.base.i18n.translation.Translation;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * A translation memory remembering the translations realized by a translator.
+ * <br>
+ * Translations are keyed by their normalized source text (Unicode normalized, trimmed and with collapsed white spaces),
+ * source language and target language, so a text is translated by the underlying translator only once. The most recently
+ * used translations are kept in memory. When a file is given, all the translations are also appended to it (an
+ * append-only log replayed when the memory is created) so they survive restarts; translations evicted from memory are then
+ * read back from the file. The file is indexed by a 64-bit hash of the keys (the keys themselves stay on disk and are
+ * only read to tell colliding keys apart), so the memory used does not grow with the length of the translated texts. Concurrent asynchronous translations of the same text are coalesced into a single request.
+ * <br>
+ * Each caller of a coalesced request gets its own future: cancelling it (or letting it time out) only detaches this
+ * caller, and the shared request is cancelled once its last caller has been detached.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Log4j2
+public final class TranslationMemory implements ITranslator
+{
+    /**
+     * Default maximum number of translations kept in memory.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    /**
+     * White spaces pattern.
+     */
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+    /**
+     * Key parts separator.
+     */
+    private static final char SEPARATOR = '\u0000';
+
+    /**
+     * Translator.
+     */
+    @Getter
+    private final ITranslator translator;
+
+    /**
+     * Translations kept in memory (k = key, v = translated text).
+     */
+    private final Cache<String, String> memory;
+
+    /**
+     * Translations being realized (k = key, v = future translated text).
+     */
+    private final Map<String, PendingTranslation> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Positions of the translation records in the file (k = hash of the key, v = positions of the records whose key has
+     * this hash).
+     */
+    private final Map<Long, long[]> positions = new ConcurrentHashMap<>();
+
+    /**
+     * File containing the translations or <b>null</b> if the translations are only kept in memory.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Number of translations realized by the translator.
+     */
+    private final LongAdder translations = new LongAdder();
+
+    /**
+     * Create a translation memory keeping its translations in memory only.
+     * @param translator Translator.
+     */
+    public TranslationMemory(final @NonNull ITranslator translator)
+    {
+        this.translator = translator;
+        this.memory = createMemory(DEFAULT_MAX_ENTRIES);
+        this.channel = null;
+    }
+
+    /**
+     * Create a translation memory keeping its translations in memory and in a file.
+     * @param translator Translator.
+     * @param maxEntries Maximum number of translations kept in memory.
+     * @param file File containing the translations (created if it does not exist).
+     * @throws TranslationException Thrown to indicate the file cannot be opened.
+     */
+    public TranslationMemory(final @NonNull ITranslator translator, final int maxEntries, final @NonNull Path file) throws TranslationException
+    {
+        this.translator = translator;
+        this.memory = createMemory(maxEntries);
+
+        try
+        {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            replay();
+        }
+        catch (IOException e)
+        {
+            throw new TranslationException(String.format("Cannot open translation memory file: '%s'", file), e);
+        }
+
+        LOGGER.debug(String.format("Loaded: %d translation(s) from translation memory file: '%s'", positions.size(), file));
+    }
+
+    @Override
+    public String translate(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target) throws TranslationException
+    {
+        String key = keyOf(text.getText(), source, target);
+
+        String translated = lookup(key);
+        if (translated == null)
+        {
+            translated = translator.translate(text, source, target);
+            store(key, translated);
+        }
+
+        return translated;
+    }
+
+    @Override
+    public CompletableFuture<String> translateAsync(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+    {
+        String key = keyOf(text.getText(), source, target);
+
+        try
+        {
+            String translated = lookup(key);
+            if (translated != null)
+            {
+                return CompletableFuture.completedFuture(translated);
+            }
+        }
+        catch (TranslationException e)
+        {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        PendingTranslation created = new PendingTranslation();
+        PendingTranslation translation = pending.compute(key, (k, existing) -> existing != null && existing.join() ? existing : created.joined());
+
+        if (translation == created)
+        {
+            CompletableFuture<String> request = translator.translateAsync(text, source, target);
+            created.start(request);
+            request.whenComplete((translated, exception) -> {
+                try
+                {
+                    if (exception == null)
+                    {
+                        store(key, translated);
+                    }
+                }
+                catch (TranslationException e)
+                {
+                    LOGGER.error(String.format("Cannot store translation, cause: %s", e.getMessage()));
+                }
+                finally
+                {
+                    pending.remove(key, created);
+                }
+
+                if (exception != null)
+                {
+                    created.result.completeExceptionally(exception);
+                }
+                else
+                {
+                    created.result.complete(translated);
+                }
+            });
+        }
+
+        // Each caller gets its own future so cancelling it only detaches this caller
+        CompletableFuture<String> caller = new CompletableFuture<>();
+        translation.result.whenComplete((translated, exception) -> {
+            if (exception != null)
+            {
+                caller.completeExceptionally(exception);
+            }
+            else
+            {
+                caller.complete(translated);
+            }
+        });
+        caller.whenComplete((translated, exception) -> {
+            if (exception != null && !translation.result.isDone() && translation.leave())
+            {
+                pending.remove(key, translation);
+            }
+        });
+
+        return caller;
+    }
+
+    /**
+     * Return the number of translations realized by the underlying translator (i.e. not found in the translation memory).
+     * @return Number of translations.
+     */
+    public long getTranslationCount()
+    {
+        return translations.sum();
+    }
+
+    /**
+     * Close the file containing the translations (if any) and the underlying translator.
+     * @throws IOException Thrown to indicate an error occurred while closing the file or the underlying translator.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            if (channel != null)
+            {
+                synchronized (channel)
+                {
+                    channel.force(false);
+                    channel.close();
+                }
+            }
+        }
+        finally
+        {
+            translator.close();
+        }
+    }
+
+    /**
+     * Return the key of a translation.
+     * @param text Source text.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @return Key.
+     */
+    private static String keyOf(final String text, final Locale source, final Locale target)
+    {
+        String normalized = text == null ? "" : WHITESPACES.matcher(Normalizer.normalize(text, Normalizer.Form.NFC)).replaceAll(" ").trim();
+
+        return source.getLanguage() + SEPARATOR + target.getLanguage() + SEPARATOR + normalized;
+    }
+
+    /**
+     * Lookup a translation in memory, then in the file.
+     * @param key Key.
+     * @return Translated text or <b>null</b> if not found.
+     * @throws TranslationException Thrown to indicate an error occurred while reading the file.
+     */
+    private String lookup(final String key) throws TranslationException
+    {
+        String translated = memory.getIfPresent(key);
+        if (translated != null || channel == null)
+        {
+            return translated;
+        }
+
+        long[] records = positions.get(hashOf(key));
+        if (records == null)
+        {
+            return null;
+        }
+
+        for (long position : records)
+        {
+            try
+            {
+                long valuePosition = find(position, key);
+                if (valuePosition >= 0)
+                {
+                    translated = readString(valuePosition);
+                    memory.put(key, translated);
+
+                    return translated;
+                }
+            }
+            catch (IOException e)
+            {
+                throw new TranslationException(String.format("Cannot read translation memory at position: %d", position), e);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Store a translation in memory and append it to the file.
+     * @param key Key.
+     * @param translated Translated text.
+     * @throws TranslationException Thrown to indicate an error occurred while writing the file.
+     */
+    private void store(final String key, final String translated) throws TranslationException
+    {
+        translations.increment();
+        memory.put(key, translated);
+
+        if (channel == null)
+        {
+            return;
+        }
+
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = translated.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES * 2 + keyBytes.length + valueBytes.length)
+                .putInt(keyBytes.length)
+                .put(keyBytes)
+                .putInt(valueBytes.length)
+                .put(valueBytes)
+                .flip();
+
+        try
+        {
+            synchronized (channel)
+            {
+                long position = channel.size();
+                while (record.hasRemaining())
+                {
+                    channel.write(record, position + record.position());
+                }
+
+                index(key, position);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new TranslationException("Cannot append translation to translation memory", e);
+        }
+    }
+
+    /**
+     * Replay the file to index the positions of its translations.
+     * @throws IOException Thrown to indicate an error occurred while reading the file.
+     */
+    private void replay() throws IOException
+    {
+        long size = channel.size();
+        long position = 0;
+
+        while (position + Integer.BYTES <= size)
+        {
+            int keyLength = readInt(position);
+            long valuePosition = position + Integer.BYTES + keyLength;
+
+            if (keyLength < 0 || valuePosition + Integer.BYTES > size)
+            {
+                break;
+            }
+
+            int valueLength = readInt(valuePosition);
+            if (valueLength < 0 || valuePosition + Integer.BYTES + valueLength > size)
+            {
+                break;
+            }
+
+            index(readString(position), position);
+            position = valuePosition + Integer.BYTES + valueLength;
+        }
+
+        if (position < size)
+        {
+            // Drop the last record, partially written (the process has been stopped while appending it)
+            LOGGER.warn(String.format("Truncating incomplete translation memory record at position: %d", position));
+            channel.truncate(position);
+        }
+    }
+
+    /**
+     * Index the position of a translation record, replacing the record of the same key (if any).
+     * <br>
+     * Must be called by a single thread at a time (the file is replayed before the memory is used, then the records are
+     * appended while holding the file lock).
+     * @param key Key.
+     * @param position Position of the record.
+     * @throws IOException Thrown to indicate an error occurred while reading the file.
+     */
+    private void index(final String key, final long position) throws IOException
+    {
+        long hash = hashOf(key);
+        long[] records = positions.get(hash);
+
+        if (records == null)
+        {
+            positions.put(hash, new long[] { position });
+            return;
+        }
+
+        // Hash collision or translation stored again: the keys of the indexed records are read back from the file
+        for (int i = 0; i < records.length; i++)
+        {
+            if (find(records[i], key) >= 0)
+            {
+                long[] replaced = records.clone();
+                replaced[i] = position;
+                positions.put(hash, replaced);
+                return;
+            }
+        }
+
+        long[] appended = Arrays.copyOf(records, records.length + 1);
+        appended[records.length] = position;
+        positions.put(hash, appended);
+    }
+
+    /**
+     * Return the position of the translated text of a record if the record has the given key.
+     * @param position Position of the record.
+     * @param key Key.
+     * @return Position of the translated text or <b>-1</b> if the record has another key.
+     * @throws IOException Thrown to indicate an error occurred while reading the file.
+     */
+    private long find(final long position, final String key) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(readInt(position));
+        read(buffer, position + Integer.BYTES);
+
+        return new String(buffer.array(), StandardCharsets.UTF_8).equals(key) ? position + Integer.BYTES + buffer.capacity() : -1;
+    }
+
+    /**
+     * Return the 64-bit hash (<b>FNV-1a</b>) of a key.
+     * @param key Key.
+     * @return Hash.
+     */
+    private static long hashOf(final String key)
+    {
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < key.length(); i++)
+        {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Read a length prefixed string.
+     * @param position Position of the length.
+     * @return String.
+     * @throws IOException Thrown to indicate an error occurred while reading the file.
+     */
+    private String readString(final long position) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(readInt(position));
+        read(buffer, position + Integer.BYTES);
+
+        return new String(buffer.array(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read an integer.
+     * @param position Position.
+     * @return Integer.
+     * @throws IOException Thrown to indicate an error occurred while reading the file.
+     */
+    private int readInt(final long position) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+        read(buffer, position);
+
+        return buffer.getInt(0);
+    }
+
+    /**
+     * Fill a buffer from the file.
+     * @param buffer Buffer.
+     * @param position Position.
+     * @throws IOException Thrown to indicate an error occurred while reading the file.
+     */
+    private void read(final ByteBuffer buffer, final long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+            {
+                throw new IOException("Unexpected end of translation memory file");
+            }
+        }
+    }
+
+    /**
+     * Create the memory tier.
+     * @param maxEntries Maximum number of translations kept in memory.
+     * @return Memory tier.
+     */
+    private static Cache<String, String> createMemory(final int maxEntries)
+    {
+        if (maxEntries < 1)
+        {
+            throw new IllegalArgumentException("Maximum number of entries must be strictly positive!");
+        }
+
+        return CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * A translation being realized, shared by the callers asking for the same text.
+     */
+    private static final class PendingTranslation
+    {
+        /**
+         * Future translated text.
+         */
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        /**
+         * Request of the translator or <b>null</b> if not yet started.
+         */
+        private CompletableFuture<String> request;
+
+        /**
+         * Number of callers waiting for the translation.
+         */
+        private int callers;
+
+        /**
+         * Has the translation been cancelled (all its callers have been detached)?
+         */
+        private boolean cancelled;
+
+        /**
+         * Attach a caller to the translation.
+         * @return <b>True</b> if the caller has been attached, <b>false</b> if the translation has been cancelled.
+         */
+        private synchronized boolean join()
+        {
+            if (cancelled)
+            {
+                return false;
+            }
+
+            callers++;
+
+            return true;
+        }
+
+        /**
+         * Attach the first caller to a new translation.
+         * @return Translation.
+         */
+        private synchronized PendingTranslation joined()
+        {
+            callers++;
+
+            return this;
+        }
+
+        /**
+         * Detach a caller from the translation, cancelling the translation when it was the last caller.
+         * @return <b>True</b> if the translation has been cancelled, <b>false</b> otherwise.
+         */
+        private boolean leave()
+        {
+            CompletableFuture<String> cancelling;
+
+            synchronized (this)
+            {
+                if (--callers > 0 || cancelled)
+                {
+                    return false;
+                }
+
+                cancelled = true;
+                cancelling = request;
+            }
+
+            if (cancelling != null)
+            {
+                cancelling.cancel(true);
+            }
+
+            return true;
+        }
+
+        /**
+         * Set the request of the translator (cancelled at once if all the callers have already been detached).
+         * @param started Request of the translator.
+         */
+        private void start(final CompletableFuture<String> started)
+        {
+            synchronized (this)
+            {
+                request = started;
+                if (!cancelled)
+                {
+                    return;
+                }
+            }
+
+            started.cancel(true);
+        }
+    }
+}
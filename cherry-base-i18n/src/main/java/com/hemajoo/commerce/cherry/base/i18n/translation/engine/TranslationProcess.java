@@ -14,11 +14,15 @@
  */
 package com.hemajoo.commerce.cherry.base.i18n.translation.engine;
 
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
 import lombok.Getter;
 import lombok.NonNull;
 
-import java.util.Map;
-import java.util.Optional;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * A translation process.
@@ -56,11 +60,6 @@ public class TranslationProcess implements ITranslationProcess
      */
     private boolean requireProcessing = false;
 
-    /**
-     * Document content.
-     */
-    private final StringBuilder document = new StringBuilder();
-
     /**
      * Create a translation process.
      * @param processor Translation processor.
@@ -99,13 +98,72 @@ public class TranslationProcess implements ITranslationProcess
     }
 
     @Override
-    public final String getDocument()
+    public final String getDocument() throws TranslationException
     {
-        generateDocument();
+        StringWriter document = new StringWriter();
+        writeDocument(document);
 
         return document.toString();
     }
 
+    /**
+     * Write the document of the underlying property file.
+     * <br>
+     * Entries are written sorted by key, escaped the same way as {@link java.util.Properties#store(Writer, String)} does
+     * for an <b>ISO-8859-1</b> file (non <b>ASCII</b> characters are written as unicode escapes).
+     * @param writer Writer.
+     * @throws TranslationException Thrown in case an error occurred while writing the document.
+     */
+    public final void writeDocument(final @NonNull Writer writer) throws TranslationException
+    {
+        writeDocument(writer, entry -> true);
+    }
+
+    /**
+     * Write some entries of the underlying property file.
+     * <br>
+     * Entries are written sorted by key and escaped the same way as {@link #writeDocument(Writer)} does.
+     * @param writer Writer.
+     * @param filter Filter of the entries to write.
+     * @throws TranslationException Thrown in case an error occurred while writing the document.
+     */
+    public final void writeDocument(final @NonNull Writer writer, final @NonNull Predicate<ITranslationRequestEntry> filter) throws TranslationException
+    {
+        List<ITranslationRequestEntry> entries = new ArrayList<>(request.getEntries());
+        entries.removeIf(filter.negate());
+        entries.sort(Comparator.comparing(ITranslationRequestEntry::getKey));
+
+        try
+        {
+            for (ITranslationRequestEntry entry : entries)
+            {
+                writer.write(escape(entry.getKey(), true));
+                writer.write('=');
+                writer.write(escape(entry.getTranslation() != null ? entry.getTranslation() : "", false));
+                writer.write('\n');
+            }
+
+            writer.flush();
+        }
+        catch (IOException e)
+        {
+            throw new TranslationException("Cannot write translation document", e);
+        }
+    }
+
+    /**
+     * Translate the entries of the translation request requiring a translation, packing them into batches.
+     * @param translator Batch translator.
+     * @throws TranslationException Thrown to indicate an error occurred while trying to translate an entry.
+     */
+    public final void translate(final @NonNull BatchTranslator translator) throws TranslationException
+    {
+        translator.translate(request);
+
+        translated = true;
+        computeRequireProcessing();
+    }
+
     /**
      * Generates the translation request entries based on the source and target properties.
      */
@@ -120,13 +178,13 @@ public class TranslationProcess implements ITranslationProcess
             if (targetValue == null || targetValue.isBlank())
             {
                 requestEntry = new TranslationRequestEntry(entry.getKey(), entry.getValue(), true);
-                request.getEntries().add(requestEntry);
+                request.addEntry(requestEntry);
             }
             else
             {
                 requestEntry = new TranslationRequestEntry(entry.getKey(), entry.getValue(), false);
                 requestEntry.setTranslation(targetValue);
-                request.getEntries().add(requestEntry);
+                request.addEntry(requestEntry);
             }
         }
     }
@@ -137,49 +195,68 @@ public class TranslationProcess implements ITranslationProcess
     private void computeRequireProcessing()
     {
         // Do we have at least one entry that require translation?
-        Optional<TranslationRequestEntry> element = getRequest().getEntries().stream()
-                .filter(TranslationRequestEntry::requireTranslation)
-                .findAny();
-
-        requireProcessing = element.isPresent();
+        requireProcessing = getRequest().getCount() > 0;
     }
 
     /**
-     * Generates the document.
+     * Escape a property key or value.
+     * @param text Text to escape.
+     * @param key <b>True</b> if the text is a key, <b>false</b> if it is a value.
+     * @return Escaped text.
      */
-    private void generateDocument()
+    private static String escape(final String text, final boolean key)
     {
-        for (ITranslationRequestEntry entry : request.getEntries())
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+
+        for (int i = 0; i < text.length(); i++)
         {
-            document.append(entry.getKey()).append("=").append(entry.getTranslation()).append("\n");
+            char character = text.charAt(i);
+
+            switch (character)
+            {
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+
+                case '\t':
+                    escaped.append("\\t");
+                    break;
+
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+
+                case '\r':
+                    escaped.append("\\r");
+                    break;
+
+                case '\f':
+                    escaped.append("\\f");
+                    break;
+
+                case '=':
+                case ':':
+                case '#':
+                case '!':
+                    escaped.append('\\').append(character);
+                    break;
+
+                case ' ':
+                    escaped.append(key || i == 0 ? "\\ " : " ");
+                    break;
+
+                default:
+                    if (character < 0x0020 || character > 0x007e)
+                    {
+                        escaped.append(String.format("\\u%04X", (int) character));
+                    }
+                    else
+                    {
+                        escaped.append(character);
+                    }
+            }
         }
-    }
 
-    // Not used for the moment, not accurate enough!
-//    private void prepareDocumentForCompactMode() throws TranslationException
-//    {
-//        ITranslationRequestEntry entry;
-//
-//        for (ITranslationResultSentence sentence : getResult().getSentences())
-//        {
-//            if (sentence.getOriginal() != null)
-//            {
-//                String[] originals = sentence.getOriginal().replace("[", "").replace("]", "").split(",");
-//                String[] translations = sentence.getTranslation().replace("[", "").replace("]", "").split(",");
-//                if (originals.length != translations.length)
-//                {
-//                    // Separator characters translated for other alphabets
-//                    translations = sentence.getTranslation().replace("[", "").replace("]", "").split("、");
-//                }
-//                for (int i = 0; i < originals.length; i++)
-//                {
-//                    // Find the key of the value in the source
-//                    entry = getRequest().findEntryKeyFor(originals[i]);
-//                    entry.setTranslation(translations[i].trim());
-//                }
-//            }
-//        }
-//
-//        generateDocument();
-//    }
+        return escaped.toString();
+    }
 }
@@ -19,18 +19,41 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A translation request.
+ * <br>
+ * The source and target properties are parsed in a streaming way (see {@link PropertiesParser}), but all their entries
+ * are kept in memory by the request, so the memory used by a request is proportional to the size of its properties.
  * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
  * @version 1.0.0
  */
 public class TranslationRequest implements ITranslationRequest
 {
-    @Getter
+    /**
+     * Translation request entries.
+     */
     private final List<TranslationRequestEntry> entries = new ArrayList<>();
 
+    /**
+     * Translation request entries indexed by key (k = key, v = entry).
+     */
+    private final Map<String, TranslationRequestEntry> entriesByKey = new HashMap<>();
+
+    /**
+     * Translation request entries indexed by source (k = source, v = entries).
+     */
+    private final Map<String, List<TranslationRequestEntry>> entriesBySource = new HashMap<>();
+
+    /**
+     * Number of translation request entries requiring a translation.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
     /**
      * Source property file entries.
      */
@@ -63,6 +86,30 @@ public class TranslationRequest implements ITranslationRequest
     @Setter
     private Locale targetLocale;
 
+    @Override
+    public final List<TranslationRequestEntry> getEntries()
+    {
+        return Collections.unmodifiableList(entries);
+    }
+
+    @Override
+    public final void addEntry(final @NonNull TranslationRequestEntry entry)
+    {
+        if (entriesByKey.putIfAbsent(entry.getKey(), entry) != null)
+        {
+            throw new IllegalArgumentException(String.format("Translation request already contains an entry with key: '%s'", entry.getKey()));
+        }
+
+        entries.add(entry);
+        entriesBySource.computeIfAbsent(entry.getSource(), source -> new ArrayList<>(1)).add(entry);
+
+        if (entry.requireTranslation())
+        {
+            pending.incrementAndGet();
+            entry.setOnTranslated(pending::decrementAndGet);
+        }
+    }
+
     @Override
     public final String getQuery()
     {
@@ -101,60 +148,42 @@ public class TranslationRequest implements ITranslationRequest
     }
 
     @Override
-    public final void setSourceProperties(final @NonNull String content)
+    public final void setSourceProperties(final @NonNull String content) throws TranslationException
     {
-        String[] entryParts;
+        setSourceProperties(new StringReader(content));
+    }
 
-        String[] parts = content.split("\n");
-        if (parts.length > 1)
-        {
-            for (String s : parts)
-            {
-                entryParts = s.split("=");
-                if (entryParts.length > 1)
-                {
-                    sources.put(entryParts[0], entryParts[1]);
-                }
-            }
-        }
+    @Override
+    public final void setSourceProperties(final @NonNull Reader reader) throws TranslationException
+    {
+        PropertiesParser.parse(reader, sources::put);
     }
 
     @Override
     public final int getCount()
     {
-        return (int) entries.stream()
-                .filter(ITranslationRequestEntry::requireTranslation)
-                .count();
+        return pending.get();
     }
 
     @Override
-    public final void setTargetProperties(final @NonNull String content)
+    public final void setTargetProperties(final @NonNull String content) throws TranslationException
     {
-        String[] entryParts;
+        setTargetProperties(new StringReader(content));
+    }
 
-        String[] parts = content.split("\n");
-        if (parts.length > 1)
-        {
-            for (String s : parts)
-            {
-                entryParts = s.split("=");
-                if (entryParts.length > 1)
-                {
-                    targets.put(entryParts[0], entryParts[1]);
-                }
-            }
-        }
+    @Override
+    public final void setTargetProperties(final @NonNull Reader reader) throws TranslationException
+    {
+        PropertiesParser.parse(reader, targets::put);
     }
 
     @Override
     public final ITranslationRequestEntry findEntryKeyFor(@NonNull String value) throws TranslationException
     {
-        for (ITranslationRequestEntry entry : entries)
+        List<TranslationRequestEntry> matching = entriesBySource.get(value);
+        if (matching != null)
         {
-            if (entry.getSource().equals(value))
-            {
-                return entry;
-            }
+            return matching.get(0);
         }
 
         throw new TranslationException(String.format("No translation request entry found for source value: '%s'", value));
@@ -163,12 +192,10 @@ public class TranslationRequest implements ITranslationRequest
     @Override
     public final ITranslationRequestEntry getEntry(final @NonNull String key) throws TranslationException
     {
-        for (ITranslationRequestEntry entry : entries)
+        ITranslationRequestEntry entry = entriesByKey.get(key);
+        if (entry != null)
         {
-            if (entry.getKey().equals(key))
-            {
-                return entry;
-            }
+            return entry;
         }
 
         throw new TranslationException(String.format("No entry with key: '%s' found in translation request!", key));
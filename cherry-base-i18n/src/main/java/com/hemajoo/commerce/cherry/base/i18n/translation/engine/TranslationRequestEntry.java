@@ -49,7 +49,12 @@ public class TranslationRequestEntry implements ITranslationRequestEntry
     /**
      * Does this request entry requires a translation?
      */
-    private boolean requireTranslation;
+    private volatile boolean requireTranslation;
+
+    /**
+     * Action invoked once this request entry does not require a translation anymore (set by the request owning the entry).
+     */
+    private Runnable onTranslated;
 
     /**
      * Time stamp of the translation.
@@ -88,7 +93,7 @@ public class TranslationRequestEntry implements ITranslationRequestEntry
             if (sentence.getTranslation() != null && !sentence.getTranslation().isEmpty())
             {
                 text.append(sentence.getTranslation());
-                requireTranslation = false;
+                translated();
                 translationTimeStamp = LocalDateTime.now();
             }
         }
@@ -99,9 +104,42 @@ public class TranslationRequestEntry implements ITranslationRequestEntry
         translation = text.toString();
     }
 
+    @Override
+    public void setTranslated(final @NonNull String translation)
+    {
+        this.translation = translation;
+        translated();
+        translationTimeStamp = LocalDateTime.now();
+    }
+
     @Override
     public final boolean requireTranslation()
     {
         return requireTranslation;
     }
+
+    /**
+     * Set the action invoked once this request entry does not require a translation anymore.
+     * @param action Action.
+     */
+    final void setOnTranslated(final Runnable action)
+    {
+        this.onTranslated = action;
+    }
+
+    /**
+     * Mark this request entry as not requiring a translation anymore.
+     */
+    private synchronized void translated()
+    {
+        if (requireTranslation)
+        {
+            requireTranslation = false;
+
+            if (onTranslated != null)
+            {
+                onTranslated.run();
+            }
+        }
+    }
 }
@@ -0,0 +1,666 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.engine;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.Translation;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationServiceException;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A scheduler of the translation requests sent to a translator invoking a remote translation service.
+ * <br>
+ * The scheduler:
+ * <ul>
+ *     <li>throttles the requests using a token bucket (a steady rate of requests per second with some burst capacity),</li>
+ *     <li>retries the requests rejected by a rate limiting or temporarily unavailable service (<b>429</b> and <b>5xx</b>
+ *     status codes) with an exponential backoff and jitter (honoring the <b>Retry-After</b> delay if any),</li>
+ *     <li>fails fast (using a circuit breaker) while the service is degraded, then lets a single trial request through
+ *     once the circuit breaker open duration has elapsed.</li>
+ * </ul>
+ * Requests waiting for a token or for a retry never park a thread, they are scheduled on a timer. Cancelling the future
+ * returned to the caller cancels the request, including the call in flight on the translator.
+ * <br>
+ * The scheduler does not coalesce the concurrent requests for the same text, this is done by the
+ * {@link TranslationMemory} at the head of the translation chain.
+ * <br>
+ * The scheduler owns its translator, closing the scheduler closes the translator.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Log4j2
+public final class TranslationScheduler implements ITranslator
+{
+    /**
+     * Enumeration of the states of the circuit breaker.
+     */
+    public enum CircuitState
+    {
+        /**
+         * Requests are sent.
+         */
+        CLOSED,
+
+        /**
+         * Requests fail fast.
+         */
+        OPEN,
+
+        /**
+         * A single trial request is sent.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Default number of requests per second.
+     */
+    public static final double DEFAULT_RATE = 10;
+
+    /**
+     * Default maximum number of requests sent in a burst.
+     */
+    public static final int DEFAULT_BURST = 20;
+
+    /**
+     * Default maximum number of retries of a request.
+     */
+    public static final int DEFAULT_MAX_RETRIES = 4;
+
+    /**
+     * Default delay before the first retry of a request.
+     */
+    public static final Duration DEFAULT_BASE_DELAY = Duration.ofMillis(200);
+
+    /**
+     * Default maximum delay before a retry of a request.
+     */
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(10);
+
+    /**
+     * Default number of consecutive failures opening the circuit breaker.
+     */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+    /**
+     * Default duration the circuit breaker stays open.
+     */
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    /**
+     * Translator.
+     */
+    @Getter
+    private final ITranslator translator;
+
+    /**
+     * Number of requests per second.
+     */
+    @Getter
+    private final double rate;
+
+    /**
+     * Maximum number of requests sent in a burst.
+     */
+    @Getter
+    private final int burst;
+
+    /**
+     * Maximum number of retries of a request.
+     */
+    @Getter
+    private final int maxRetries;
+
+    /**
+     * Delay before the first retry of a request.
+     */
+    @Getter
+    private final Duration baseDelay;
+
+    /**
+     * Maximum delay before a retry of a request.
+     */
+    @Getter
+    private final Duration maxDelay;
+
+    /**
+     * Number of consecutive failures opening the circuit breaker.
+     */
+    @Getter
+    private final int failureThreshold;
+
+    /**
+     * Duration the circuit breaker stays open.
+     */
+    @Getter
+    private final Duration openDuration;
+
+    /**
+     * Timer of the requests waiting for a token or for a retry.
+     */
+    private final ScheduledExecutorService timer;
+
+    /**
+     * Lock of the token bucket.
+     */
+    private final Object bucket = new Object();
+
+    /**
+     * Tokens available in the bucket (negative when tokens have been reserved in advance).
+     */
+    private double tokens;
+
+    /**
+     * Time (in nanoseconds) the bucket has been refilled.
+     */
+    private long refilledAt = System.nanoTime();
+
+    /**
+     * Lock of the circuit breaker.
+     */
+    private final Object circuit = new Object();
+
+    /**
+     * State of the circuit breaker.
+     */
+    private CircuitState state = CircuitState.CLOSED;
+
+    /**
+     * Number of consecutive failures.
+     */
+    private int failures;
+
+    /**
+     * Time (in nanoseconds) the circuit breaker has been opened.
+     */
+    private long openedAt;
+
+    /**
+     * Request granted the trial of the half open circuit breaker (<b>null</b> if the trial is not in flight).
+     */
+    private ScheduledRequest trial;
+
+    /**
+     * Number of requests waiting for a token or for a retry.
+     */
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    /**
+     * Total time (in nanoseconds) requests waited for a token or for a retry.
+     */
+    private final LongAdder waitTime = new LongAdder();
+
+    /**
+     * Number of requests sent to the translator.
+     */
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * Number of retried requests.
+     */
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * Number of requests rejected by the open circuit breaker.
+     */
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Create a translation scheduler using the default settings.
+     * @param translator Translator.
+     */
+    public TranslationScheduler(final @NonNull ITranslator translator)
+    {
+        this(translator, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Create a translation scheduler.
+     * @param translator Translator.
+     * @param rate Number of requests per second (default: {@value #DEFAULT_RATE}).
+     * @param burst Maximum number of requests sent in a burst (default: {@value #DEFAULT_BURST}).
+     * @param maxRetries Maximum number of retries of a request (default: {@value #DEFAULT_MAX_RETRIES}).
+     * @param baseDelay Delay before the first retry of a request (default: 200 ms).
+     * @param maxDelay Maximum delay before a retry of a request (default: 10 s).
+     * @param failureThreshold Number of consecutive failures opening the circuit breaker (default: {@value #DEFAULT_FAILURE_THRESHOLD}).
+     * @param openDuration Duration the circuit breaker stays open (default: 30 s).
+     */
+    @Builder(setterPrefix = "with")
+    public TranslationScheduler(final @NonNull ITranslator translator, final Double rate, final Integer burst, final Integer maxRetries, final Duration baseDelay, final Duration maxDelay, final Integer failureThreshold, final Duration openDuration)
+    {
+        this.translator = translator;
+        this.rate = rate != null ? rate : DEFAULT_RATE;
+        this.burst = burst != null ? burst : DEFAULT_BURST;
+        this.maxRetries = maxRetries != null ? maxRetries : DEFAULT_MAX_RETRIES;
+        this.baseDelay = baseDelay != null ? baseDelay : DEFAULT_BASE_DELAY;
+        this.maxDelay = maxDelay != null ? maxDelay : DEFAULT_MAX_DELAY;
+        this.failureThreshold = failureThreshold != null ? failureThreshold : DEFAULT_FAILURE_THRESHOLD;
+        this.openDuration = openDuration != null ? openDuration : DEFAULT_OPEN_DURATION;
+
+        if (this.rate <= 0 || this.burst < 1 || this.maxRetries < 0 || this.failureThreshold < 1)
+        {
+            throw new IllegalArgumentException("Rate, burst and failure threshold must be strictly positive, maximum number of retries must be positive!");
+        }
+
+        this.tokens = this.burst;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "translation-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String translate(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target) throws TranslationException
+    {
+        return TranslationException.await(translateAsync(text, source, target));
+    }
+
+    @Override
+    public CompletableFuture<String> translateAsync(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+    {
+        ScheduledRequest request = new ScheduledRequest(text, source, target);
+
+        // Cancelling the request cancels the call in flight (if any)
+        request.result.whenComplete((translated, exception) -> {
+            CompletableFuture<String> call = request.call;
+            if (exception != null && call != null)
+            {
+                call.cancel(true);
+            }
+        });
+
+        attempt(request);
+
+        return request.result;
+    }
+
+    /**
+     * Return the state of the circuit breaker.
+     * @return Circuit breaker state.
+     */
+    public CircuitState getCircuitState()
+    {
+        synchronized (circuit)
+        {
+            return state;
+        }
+    }
+
+    /**
+     * Return the number of requests currently waiting for a token or for a retry.
+     * @return Queue depth.
+     */
+    public int getQueueDepth()
+    {
+        return queueDepth.get();
+    }
+
+    /**
+     * Return the total time requests waited for a token or for a retry.
+     * @return Wait time.
+     */
+    public Duration getWaitTime()
+    {
+        return Duration.ofNanos(waitTime.sum());
+    }
+
+    /**
+     * Return the number of requests sent to the translator (including the retries).
+     * @return Number of requests.
+     */
+    public long getRequestCount()
+    {
+        return requests.sum();
+    }
+
+    /**
+     * Return the number of retried requests.
+     * @return Number of retries.
+     */
+    public long getRetryCount()
+    {
+        return retries.sum();
+    }
+
+    /**
+     * Return the number of requests rejected by the open circuit breaker.
+     * @return Number of rejected requests.
+     */
+    public long getRejectionCount()
+    {
+        return rejections.sum();
+    }
+
+    /**
+     * Stop the scheduler (requests waiting for a token or for a retry are not sent) and close the translator.
+     * @throws IOException Thrown to indicate an error occurred while closing the translator.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        timer.shutdownNow();
+        translator.close();
+    }
+
+    /**
+     * Attempt to send a request once a token is available.
+     * @param request Request.
+     */
+    private void attempt(final ScheduledRequest request)
+    {
+        if (request.result.isDone())
+        {
+            return;
+        }
+
+        if (!allow(request))
+        {
+            rejections.increment();
+            request.result.completeExceptionally(new TranslationException("Translation service is unavailable, circuit breaker is open!"));
+            return;
+        }
+
+        delay(request, reserve(), () -> send(request));
+    }
+
+    /**
+     * Send a request.
+     * @param request Request.
+     */
+    private void send(final ScheduledRequest request)
+    {
+        if (request.result.isDone())
+        {
+            release(request);
+            return;
+        }
+
+        requests.increment();
+        CompletableFuture<String> call;
+
+        try
+        {
+            call = translator.translateAsync(request.text, request.source, request.target);
+        }
+        catch (RuntimeException e)
+        {
+            call = CompletableFuture.failedFuture(e);
+        }
+
+        request.call = call;
+        if (request.result.isDone())
+        {
+            // The request has been cancelled while the call was being sent
+            call.cancel(true);
+        }
+
+        call.whenComplete((translated, exception) -> {
+            Throwable cause = exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception;
+
+            if (cause == null)
+            {
+                succeeded();
+                request.result.complete(translated);
+            }
+            else if (cause instanceof CancellationException)
+            {
+                release(request);
+                request.result.completeExceptionally(cause);
+            }
+            else if (cause instanceof TranslationServiceException && ((TranslationServiceException) cause).isRetryable())
+            {
+                failed();
+
+                if (request.attempt < maxRetries)
+                {
+                    request.attempt++;
+                    retries.increment();
+                    delay(request, backoff(request.attempt, ((TranslationServiceException) cause).getRetryAfter()), () -> attempt(request));
+                }
+                else
+                {
+                    request.result.completeExceptionally(cause);
+                }
+            }
+            else
+            {
+                // The service answered (with an error not related to its availability) or the request could not be sent
+                if (cause instanceof TranslationServiceException)
+                {
+                    succeeded();
+                }
+                else
+                {
+                    failed();
+                }
+
+                request.result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * Run an action after a delay.
+     * @param request Request.
+     * @param delay Delay (in nanoseconds).
+     * @param action Action.
+     */
+    private void delay(final ScheduledRequest request, final long delay, final Runnable action)
+    {
+        if (delay <= 0)
+        {
+            action.run();
+            return;
+        }
+
+        long queuedAt = System.nanoTime();
+        queueDepth.incrementAndGet();
+
+        try
+        {
+            timer.schedule(() -> {
+                queueDepth.decrementAndGet();
+                waitTime.add(System.nanoTime() - queuedAt);
+                action.run();
+            }, delay, TimeUnit.NANOSECONDS);
+        }
+        catch (RejectedExecutionException e)
+        {
+            queueDepth.decrementAndGet();
+            release(request);
+            request.result.completeExceptionally(new TranslationException("Translation scheduler has been closed!"));
+        }
+    }
+
+    /**
+     * Reserve a token.
+     * @return Time (in nanoseconds) to wait before the token is available.
+     */
+    private long reserve()
+    {
+        synchronized (bucket)
+        {
+            long now = System.nanoTime();
+
+            tokens = Math.min(burst, tokens + (now - refilledAt) * rate / TimeUnit.SECONDS.toNanos(1));
+            refilledAt = now;
+            tokens--;
+
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / rate * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * Compute the delay before retrying a request (exponential backoff with equal jitter).
+     * @param attempt Retry attempt (starting at 1).
+     * @param retryAfter Time to wait as requested by the service or <b>null</b> if not specified.
+     * @return Delay (in nanoseconds).
+     */
+    private long backoff(final int attempt, final Duration retryAfter)
+    {
+        long ceiling = Math.min(maxDelay.toNanos(), baseDelay.toNanos() << Math.min(attempt - 1, 30));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+
+        return retryAfter != null ? Math.max(delay, retryAfter.toNanos()) : delay;
+    }
+
+    /**
+     * Return if a request can be sent according to the circuit breaker.
+     * @param request Request (granted the trial if the circuit breaker is half open).
+     * @return <b>True</b> if the request can be sent, <b>false</b> if it must fail fast.
+     */
+    private boolean allow(final ScheduledRequest request)
+    {
+        synchronized (circuit)
+        {
+            if (state == CircuitState.OPEN)
+            {
+                if (System.nanoTime() - openedAt < openDuration.toNanos())
+                {
+                    return false;
+                }
+
+                state = CircuitState.HALF_OPEN;
+                trial = null;
+            }
+
+            if (state == CircuitState.HALF_OPEN)
+            {
+                if (trial != null)
+                {
+                    return false;
+                }
+
+                trial = request;
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Record a successful request (closing the circuit breaker).
+     */
+    private void succeeded()
+    {
+        synchronized (circuit)
+        {
+            if (state != CircuitState.CLOSED)
+            {
+                LOGGER.info("Translation service is available again, closing circuit breaker");
+            }
+
+            state = CircuitState.CLOSED;
+            failures = 0;
+            trial = null;
+        }
+    }
+
+    /**
+     * Record a failed request (opening the circuit breaker when too many requests failed).
+     */
+    private void failed()
+    {
+        synchronized (circuit)
+        {
+            failures++;
+
+            if (state == CircuitState.HALF_OPEN || (state == CircuitState.CLOSED && failures >= failureThreshold))
+            {
+                LOGGER.warn(String.format("Translation service is degraded (%d consecutive failures), opening circuit breaker", failures));
+
+                state = CircuitState.OPEN;
+                openedAt = System.nanoTime();
+                trial = null;
+            }
+        }
+    }
+
+    /**
+     * Release the trial of the half open circuit breaker if it has been granted to a request (the request has been
+     * cancelled before the service answered it).
+     * @param request Request.
+     */
+    private void release(final ScheduledRequest request)
+    {
+        synchronized (circuit)
+        {
+            if (trial == request)
+            {
+                trial = null;
+            }
+        }
+    }
+
+    /**
+     * A request being scheduled.
+     */
+    private static final class ScheduledRequest
+    {
+        /**
+         * Text to translate.
+         */
+        private final Translation text;
+
+        /**
+         * Source locale.
+         */
+        private final Locale source;
+
+        /**
+         * Target locale.
+         */
+        private final Locale target;
+
+        /**
+         * Future translated text.
+         */
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        /**
+         * Call in flight on the translator.
+         */
+        private volatile CompletableFuture<String> call;
+
+        /**
+         * Retry attempt.
+         */
+        private int attempt;
+
+        /**
+         * Create a scheduled request.
+         * @param text Text to translate.
+         * @param source Source locale.
+         * @param target Target locale.
+         */
+        private ScheduledRequest(final Translation text, final Locale source, final Locale target)
+        {
+            this.text = text;
+            this.source = source;
+            this.target = target;
+        }
+    }
+}
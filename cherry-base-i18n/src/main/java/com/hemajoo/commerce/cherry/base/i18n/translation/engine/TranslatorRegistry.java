@@ -0,0 +1,333 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.engine;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.Translation;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationNotFoundException;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * A registry of translator engines routing the translations according to their language pair.
+ * <br>
+ * A route is an ordered list of translator engines: the first engine is asked for the translation and, while an engine
+ * does not hold any translation for the text (it raises a {@link TranslationNotFoundException}), the next one is asked.
+ * A typical route starts with an offline engine (see {@link DictionaryTranslator}) answering the most frequent texts
+ * locally and ends with a remote engine translating the misses. Language pairs without a specific route use the default
+ * route.
+ * <hr>
+ * Engines can be discovered using the {@link java.util.ServiceLoader} mechanism (see {@link ITranslatorProvider}), the
+ * default route then contains the available engines ordered by priority.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Log4j2
+public final class TranslatorRegistry implements ITranslator
+{
+    /**
+     * Translator engines (k = engine name, v = translator).
+     */
+    private final Map<String, ITranslator> translators = new ConcurrentHashMap<>();
+
+    /**
+     * Routes (k = language pair, v = translator engines).
+     */
+    private final Map<String, List<ITranslator>> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Route of the language pairs without a specific route.
+     */
+    private volatile List<ITranslator> defaultRoute = List.of();
+
+    /**
+     * Create a translator registry with the translator engines discovered using the {@link java.util.ServiceLoader}
+     * mechanism.
+     * @return Translator registry.
+     */
+    public static TranslatorRegistry load()
+    {
+        return load(Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Create a translator registry with the translator engines discovered using the {@link java.util.ServiceLoader}
+     * mechanism.
+     * @param loader Class loader used to discover the translator providers.
+     * @return Translator registry.
+     */
+    public static TranslatorRegistry load(final ClassLoader loader)
+    {
+        TranslatorRegistry registry = new TranslatorRegistry();
+
+        List<ITranslatorProvider> providers = ServiceLoader.load(ITranslatorProvider.class, loader).stream()
+                .map(ServiceLoader.Provider::get)
+                .filter(ITranslatorProvider::isAvailable)
+                .sorted(Comparator.comparingInt(ITranslatorProvider::getPriority))
+                .collect(Collectors.toList());
+
+        List<ITranslator> route = new ArrayList<>(providers.size());
+        for (ITranslatorProvider provider : providers)
+        {
+            ITranslator translator = provider.create();
+            registry.register(provider.getName(), translator);
+            route.add(translator);
+
+            LOGGER.debug(String.format("Registered translator engine: '%s' (priority: %d)", provider.getName(), provider.getPriority()));
+        }
+
+        registry.defaultRoute = List.copyOf(route);
+
+        return registry;
+    }
+
+    /**
+     * Register a translator engine (routes already referencing an engine with the same name are not updated).
+     * @param name Translator engine name.
+     * @param translator Translator.
+     */
+    public void register(final @NonNull String name, final @NonNull ITranslator translator)
+    {
+        translators.put(name, translator);
+    }
+
+    /**
+     * Close the translator engines (registered or referenced by a route).
+     * @throws IOException Thrown to indicate an error occurred while closing a translator engine (the other engines are
+     * closed anyway).
+     */
+    @Override
+    public void close() throws IOException
+    {
+        Set<ITranslator> engines = Collections.newSetFromMap(new IdentityHashMap<>());
+        engines.addAll(translators.values());
+        engines.addAll(defaultRoute);
+        routes.values().forEach(engines::addAll);
+
+        IOException exception = null;
+        for (ITranslator engine : engines)
+        {
+            try
+            {
+                engine.close();
+            }
+            catch (IOException e)
+            {
+                if (exception == null)
+                {
+                    exception = e;
+                }
+                else
+                {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+
+        if (exception != null)
+        {
+            throw exception;
+        }
+    }
+
+    /**
+     * Return a translator engine.
+     * @param name Translator engine name.
+     * @return Translator.
+     * @throws TranslationException Thrown to indicate no translator engine is registered with the given name.
+     */
+    public ITranslator getTranslator(final @NonNull String name) throws TranslationException
+    {
+        ITranslator translator = translators.get(name);
+        if (translator == null)
+        {
+            throw new TranslationException(String.format("No translator engine registered with name: '%s'", name));
+        }
+
+        return translator;
+    }
+
+    /**
+     * Return the names of the registered translator engines.
+     * @return Translator engine names.
+     */
+    public Set<String> getNames()
+    {
+        return Collections.unmodifiableSet(translators.keySet());
+    }
+
+    /**
+     * Set the route of the language pairs without a specific route.
+     * @param names Names of the translator engines (in the order they are asked for a translation).
+     * @throws TranslationException Thrown to indicate a translator engine is not registered.
+     */
+    public void setDefaultRoute(final @NonNull String... names) throws TranslationException
+    {
+        defaultRoute = resolve(names);
+    }
+
+    /**
+     * Set the route of a language pair.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @param names Names of the translator engines (in the order they are asked for a translation).
+     * @throws TranslationException Thrown to indicate a translator engine is not registered.
+     */
+    public void route(final @NonNull Locale source, final @NonNull Locale target, final @NonNull String... names) throws TranslationException
+    {
+        routes.put(getLanguagePair(source, target), resolve(names));
+    }
+
+    /**
+     * Return the route of a language pair.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @return Translator engines (in the order they are asked for a translation).
+     */
+    public List<ITranslator> getRoute(final @NonNull Locale source, final @NonNull Locale target)
+    {
+        return routes.getOrDefault(getLanguagePair(source, target), defaultRoute);
+    }
+
+    @Override
+    public String translate(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target) throws TranslationException
+    {
+        List<ITranslator> route = getRoute(source, target);
+
+        for (int i = 0; i < route.size(); i++)
+        {
+            try
+            {
+                return route.get(i).translate(text, source, target);
+            }
+            catch (TranslationNotFoundException e)
+            {
+                if (i == route.size() - 1)
+                {
+                    throw e;
+                }
+            }
+        }
+
+        throw new TranslationException(String.format("No translator engine to translate from: '%s' to: '%s'", source.getLanguage(), target.getLanguage()));
+    }
+
+    @Override
+    public CompletableFuture<String> translateAsync(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+    {
+        List<ITranslator> route = getRoute(source, target);
+        if (route.isEmpty())
+        {
+            return CompletableFuture.failedFuture(new TranslationException(String.format("No translator engine to translate from: '%s' to: '%s'", source.getLanguage(), target.getLanguage())));
+        }
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<String>> current = new AtomicReference<>();
+
+        // Cancelling the translation cancels the translation of the engine being asked
+        result.whenComplete((translated, exception) -> {
+            CompletableFuture<String> translation = current.get();
+            if (exception != null && translation != null)
+            {
+                translation.cancel(true);
+            }
+        });
+
+        translateAsync(route, 0, text, source, target, result, current);
+
+        return result;
+    }
+
+    /**
+     * Translate some text asynchronously using the translator engines of a route, starting at a given engine.
+     * @param route Translator engines.
+     * @param index Index of the translator engine to ask.
+     * @param text Text to translate.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @param result Future translated text.
+     * @param current Future translated text of the translator engine being asked.
+     */
+    private void translateAsync(final List<ITranslator> route, final int index, final Translation text, final Locale source, final Locale target, final CompletableFuture<String> result, final AtomicReference<CompletableFuture<String>> current)
+    {
+        if (result.isDone())
+        {
+            return;
+        }
+
+        CompletableFuture<String> translation = route.get(index).translateAsync(text, source, target);
+        current.set(translation);
+        if (result.isDone())
+        {
+            // The translation has been cancelled while the translator engine was being asked
+            translation.cancel(true);
+            return;
+        }
+
+        translation.whenComplete((translated, exception) -> {
+            if (exception == null)
+            {
+                result.complete(translated);
+                return;
+            }
+
+            Throwable cause = exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception;
+            if (cause instanceof TranslationNotFoundException && index < route.size() - 1)
+            {
+                translateAsync(route, index + 1, text, source, target, result, current);
+            }
+            else
+            {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * Resolve the translator engines of a route.
+     * @param names Translator engine names.
+     * @return Translator engines.
+     * @throws TranslationException Thrown to indicate a translator engine is not registered.
+     */
+    private List<ITranslator> resolve(final String... names) throws TranslationException
+    {
+        List<ITranslator> route = new ArrayList<>(names.length);
+        for (String name : names)
+        {
+            route.add(getTranslator(name));
+        }
+
+        return List.copyOf(route);
+    }
+
+    /**
+     * Return the key of a language pair.
+     * @param source Source locale.
+     * @param target Target locale.
+     * @return Language pair key.
+     */
+    private static String getLanguagePair(final Locale source, final Locale target)
+    {
+        return source.getLanguage() + '_' + target.getLanguage();
+    }
+}
@@ -17,88 +17,229 @@ package com.hemajoo.commerce.cherry.base.i18n.translation.engine.google;
 import com.hemajoo.commerce.cherry.base.i18n.translation.Translation;
 import com.hemajoo.commerce.cherry.base.i18n.translation.engine.ITranslator;
 import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationServiceException;
+import lombok.Getter;
 import lombok.NonNull;
-import org.apache.http.HttpResponse;
-import org.apache.http.HttpStatus;
-import org.apache.http.StatusLine;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-
-import java.io.ByteArrayOutputStream;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
 
 /**
  * A <b>Google</b> free translator.
+ * <br>
+ * The translator can be used concurrently. Its requests share a pool of HTTP connections and the number of requests in
+ * flight is bounded, both globally and per target language, so a burst of translations toward a language cannot starve
+ * the other languages nor overload the remote service.
+ * <br>
+ * Requests are sent using a non-blocking HTTP client, so asynchronous translations (see {@link #translateAsync(Translation, Locale, Locale)})
+ * never park a thread while waiting for a permit or for the response.
  * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
  * @version 1.0.0
  */
 public final class GoogleFreeTranslator implements ITranslator
 {
-    private static final String GOOGLE_TRANSLATE_API = "https://translate.googleapis.com/translate_a/t?client=dict-chrome-ex&sl=";
+    /**
+     * Default <b>Google</b> translation service end point.
+     */
+    public static final String GOOGLE_TRANSLATE_API = "https://translate.googleapis.com/translate_a/t";
+
+    /**
+     * Default maximum number of requests in flight.
+     */
+    public static final int DEFAULT_MAX_REQUESTS = 16;
 
-//    private ITranslationResult translationResult;
-//
-//    private List<ITranslationResultSentence> sentences = new ArrayList<>();
+    /**
+     * Default maximum number of requests in flight per target language.
+     */
+    public static final int DEFAULT_MAX_REQUESTS_PER_LANGUAGE = 4;
 
     /**
-     * Http client.
+     * Default connect and response timeout.
      */
-    private CloseableHttpClient httpClient = null;
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
 
     /**
-     * Gson builder.
+     * Translation service end point.
      */
-//    private final Gson gsonBuilder;
+    @Getter
+    private final String endpoint;
+
+    /**
+     * Connect and response timeout.
+     */
+    @Getter
+    private final Duration timeout;
+
+    /**
+     * Maximum number of requests in flight per target language.
+     */
+    private final int maxRequestsPerLanguage;
+
+    /**
+     * Limiter of the requests in flight.
+     */
+    private final RequestLimiter requests;
+
+    /**
+     * Limiters of the requests in flight per target language (k = language, v = limiter).
+     */
+    private final Map<String, RequestLimiter> languages = new ConcurrentHashMap<>();
+
+    /**
+     * Executor of the http client.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Http client (pooling its connections).
+     */
+    private final HttpClient httpClient;
 
     /**
      * Creates a new Google translation processor.
      */
     public GoogleFreeTranslator()
     {
-//        gsonBuilder = new GsonFireBuilder()
-//                .createGsonBuilder()
-//                .setDateFormat("yyyy-MM-dd")
-//                .setPrettyPrinting()
-//                .registerTypeAdapter(ITranslationResult.class, new GoogleTranslationResultDeserializer())
-//                .registerTypeAdapter(ITranslationResultSentence.class, new GoogleTranslationResultSentenceDeserializer())
-//                .enableComplexMapKeySerialization()
-//                .create();
-
-        httpClient = HttpClientBuilder.create().build();
+        this(GOOGLE_TRANSLATE_API, DEFAULT_MAX_REQUESTS, DEFAULT_MAX_REQUESTS_PER_LANGUAGE);
+    }
+
+    /**
+     * Creates a new Google translation processor.
+     * @param endpoint Translation service end point (ex.: {@value #GOOGLE_TRANSLATE_API}).
+     * @param maxRequests Maximum number of requests in flight.
+     * @param maxRequestsPerLanguage Maximum number of requests in flight per target language.
+     */
+    public GoogleFreeTranslator(final @NonNull String endpoint, final int maxRequests, final int maxRequestsPerLanguage)
+    {
+        this(endpoint, maxRequests, maxRequestsPerLanguage, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates a new Google translation processor.
+     * @param endpoint Translation service end point (ex.: {@value #GOOGLE_TRANSLATE_API}).
+     * @param maxRequests Maximum number of requests in flight.
+     * @param maxRequestsPerLanguage Maximum number of requests in flight per target language.
+     * @param timeout Connect and response timeout.
+     */
+    public GoogleFreeTranslator(final @NonNull String endpoint, final int maxRequests, final int maxRequestsPerLanguage, final @NonNull Duration timeout)
+    {
+        if (maxRequests < 1 || maxRequestsPerLanguage < 1)
+        {
+            throw new IllegalArgumentException("Maximum number of requests must be strictly positive!");
+        }
+
+        this.endpoint = endpoint;
+        this.timeout = timeout;
+        this.maxRequestsPerLanguage = maxRequestsPerLanguage;
+        this.requests = new RequestLimiter(maxRequests);
+
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "google-translator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(timeout)
+                .build();
     }
 
     @Override
     public String translate(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target) throws TranslationException
     {
-        String url;
+        return TranslationException.await(translateAsync(text, source, target));
+    }
+
+    @Override
+    public CompletableFuture<String> translateAsync(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+    {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(buildUrl(text.getText(), source.getLanguage(), target.getLanguage())))
+                .header("Accept", "application/json")
+                .timeout(timeout)
+                .GET()
+                .build();
 
+        // The language permit is always obtained first so the global permits are only held by requests ready to be sent
+        return languages.computeIfAbsent(target.getLanguage(), k -> new RequestLimiter(maxRequestsPerLanguage))
+                .submit(() -> requests.submit(() -> execute(request)));
+    }
+
+    /**
+     * Execute a translation request.
+     * <br>
+     * The body of an error response is read and discarded (so its connection goes back to the pool) before the response
+     * is handled. The body of a successful response is decoded while it is received, blocking a thread of the (unbounded)
+     * executor of the http client until it has been fully read: at most one thread per request in flight, rather than
+     * buffering the whole body before decoding it.
+     * @param request Translation request.
+     * @return Future translated text.
+     */
+    private CompletableFuture<String> execute(final HttpRequest request)
+    {
+        HttpResponse.BodyHandler<InputStream> handler = info -> info.statusCode() == 200
+                ? HttpResponse.BodySubscribers.ofInputStream()
+                : HttpResponse.BodySubscribers.replacing(InputStream.nullInputStream());
+
+        return httpClient.sendAsync(request, handler)
+                .handle((response, exception) -> {
+                    if (exception != null)
+                    {
+                        Throwable cause = exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception;
+                        throw new CompletionException(new TranslationException(cause instanceof Exception ? (Exception) cause : new IOException(cause)));
+                    }
+
+                    // The body is decoded while it is received, closing it releases the connection
+                    try (InputStream body = response.body())
+                    {
+                        if (response.statusCode() != 200)
+                        {
+                            throw new CompletionException(new TranslationServiceException(String.format("Translation service answered with HTTP status: %d", response.statusCode()), response.statusCode(), getRetryAfter(response)));
+                        }
+
+                        return getTranslation(body);
+                    }
+                    catch (IOException e)
+                    {
+                        throw new CompletionException(new TranslationException(e));
+                    }
+                    catch (TranslationException e)
+                    {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    /**
+     * Return the time to wait before retrying a request as requested by the service (only the delay in seconds form of
+     * the <b>Retry-After</b> header is supported).
+     * @param response HTTP response.
+     * @return Time to wait or <b>null</b> if not specified.
+     */
+    private static Duration getRetryAfter(final HttpResponse<?> response)
+    {
         try
         {
-            url = buildUrl(text.getText(),source.getLanguage(), target.getLanguage());
-            HttpGet http = new HttpGet(url);
-            http.setHeader( "Accept", "application/json" );
-            HttpResponse response = httpClient.execute(new HttpGet(url));
-            StatusLine statusLine = response.getStatusLine();
-
-            if (statusLine.getStatusCode() == HttpStatus.SC_OK)
-            {
-//                return deserializeResponse(getResponseString(response));
-                return getResponseString(response);
-            }
-            else
-            {
-                throw new TranslationException(response.getStatusLine().getReasonPhrase());
-            }
+            return response.headers().firstValue("Retry-After")
+                    .map(value -> Duration.ofSeconds(Long.parseLong(value.trim())))
+                    .orElse(null);
         }
-        catch (Exception e)
+        catch (NumberFormatException e)
         {
-            throw new TranslationException(e);
+            return null;
         }
-   }
+    }
 
     /**
      * Builds the URL to be used for the translation.
@@ -110,44 +251,44 @@ public final class GoogleFreeTranslator implements ITranslator
     private String buildUrl(String text, String sourceLanguage, String targetLanguage)
     {
         String textEncoded = URLEncoder.encode(text, StandardCharsets.UTF_8);
-        return GOOGLE_TRANSLATE_API + sourceLanguage + "&tl=" + targetLanguage + "&dt=t&q=" + textEncoded;
+        return endpoint + "?client=dict-chrome-ex&sl=" + sourceLanguage + "&tl=" + targetLanguage + "&dt=t&q=" + textEncoded;
     }
 
     /**
-     * Extracts the response string from the received HTTP response.
-     * @param response HTTP response.
-     * @return Response string.
-     * @throws IOException Thrown to indicate an error occurred while trying to extracts the response string.
+     * Extracts the translated text from the received HTTP response body.
+     * @param body HTTP response body.
+     * @return Translated text.
+     * @throws TranslationException Thrown to indicate an error occurred while reading the response body.
      */
-    private String getResponseString(HttpResponse response) throws IOException
+    private static String getTranslation(final InputStream body) throws TranslationException
     {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        response.getEntity().writeTo(out);
-        String responseString = out.toString();
-        out.close();
+        List<GoogleTranslationResult> results = GoogleTranslationResultReader.read(body);
+        if (results.isEmpty())
+        {
+            throw new TranslationException("Translation service answered without any translation!");
+        }
 
-        return responseString.replace("[\"", "").replace("\"]", "");
+        return results.get(0).getTranslation();
     }
 
-//    /**
-//     * Deserializes the response.
-//     * @param response Response.
-//     * @return De-serialized {@link ITranslationResult} representing the translation result.
-//     */
-//    private ITranslationResult deserializeResponse(String response)
-//    {
-//        return GsonHelper.deserialize(gsonBuilder, response, new TypeToken<ITranslationResult>(){}.getType());
-//    }
-
     /**
-     * Close the http connection.
-     * @throws IOException Thrown to indicate an error occurred when trying to close the http connection.
+     * Close the http connections.
+     * @throws IOException Thrown to indicate an error occurred when trying to close the http connections.
      */
     public void destroy() throws IOException
     {
-        if (httpClient != null)
-        {
-            httpClient.close();
-        }
+        // The http client releases its connections once its executor is terminated
+        executor.shutdownNow();
+    }
+
+    /**
+     * Close the http connections.
+     * @throws IOException Thrown to indicate an error occurred when trying to close the http connections.
+     * @see #destroy()
+     */
+    @Override
+    public void close() throws IOException
+    {
+        destroy();
     }
 }
@@ -0,0 +1,53 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.engine.google;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.ITranslator;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.ITranslatorProvider;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslationScheduler;
+
+/**
+ * A provider of the remote {@link GoogleFreeTranslator} translator engine.
+ * <br>
+ * The engine is wrapped into a {@link TranslationScheduler} throttling and retrying its requests and failing fast while
+ * the service is degraded.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class GoogleFreeTranslatorProvider implements ITranslatorProvider
+{
+    /**
+     * Translator engine name.
+     */
+    public static final String NAME = "google";
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public int getPriority()
+    {
+        return 100;
+    }
+
+    @Override
+    public ITranslator create()
+    {
+        return new TranslationScheduler(new GoogleFreeTranslator());
+    }
+}
@@ -21,6 +21,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -68,11 +69,10 @@ public final class GoogleTranslationResult implements ITranslationResult
      */
     public final String getTranslation()
     {
-        String result = sentences.stream()
+        return sentences.stream()
                 .map(ITranslationResultSentence::getTranslation)
-                .collect( Collectors.joining(""));
-
-        return result.replace("null", "");
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(""));
     }
 
     @Override
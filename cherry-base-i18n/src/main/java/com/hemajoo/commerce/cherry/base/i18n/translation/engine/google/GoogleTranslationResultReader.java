@@ -0,0 +1,344 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.engine.google;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.ITranslationResultSentence;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import lombok.NonNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A streaming reader of the responses of the <b>Google</b> translation services.
+ * <br>
+ * The response is decoded (as <b>UTF-8</b>) and parsed while it is read, the body is never buffered as a whole. The
+ * following response formats are supported:
+ * <ul>
+ *     <li><b>["t1", "t2"]</b>: one translation per text to translate,</li>
+ *     <li><b>[["t1", "en"], ["t2", "en"]]</b>: one translation and detected source language per text to translate,</li>
+ *     <li><b>[[["s1", "o1", ...], ["s2", "o2", ...]], null, "en", ...]</b>: the sentences of a single translation,</li>
+ *     <li><b>{"sentences": [{"trans": "s1", "orig": "o1"}], "src": "en", "confidence": 1.0}</b>: the sentences of a
+ *     single translation.</li>
+ * </ul>
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class GoogleTranslationResultReader
+{
+    /**
+     * Utility class.
+     */
+    private GoogleTranslationResultReader()
+    {
+        // Empty
+    }
+
+    /**
+     * Read a response.
+     * @param input Response body.
+     * @return Translation results (one per text to translate).
+     * @throws TranslationException Thrown to indicate an error occurred while reading the response.
+     */
+    public static List<GoogleTranslationResult> read(final @NonNull InputStream input) throws TranslationException
+    {
+        return read(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read a response.
+     * @param input Response body.
+     * @return Translation results (one per text to translate).
+     * @throws TranslationException Thrown to indicate an error occurred while reading the response.
+     */
+    public static List<GoogleTranslationResult> read(final @NonNull Reader input) throws TranslationException
+    {
+        try (JsonReader reader = new JsonReader(input))
+        {
+            List<GoogleTranslationResult> results = new ArrayList<>();
+
+            switch (reader.peek())
+            {
+                case BEGIN_OBJECT:
+                    results.add(readResult(reader));
+                    break;
+
+                case BEGIN_ARRAY:
+                    readResults(reader, results);
+                    break;
+
+                default:
+                    throw new TranslationException(String.format("Unexpected translation response token: %s", reader.peek()));
+            }
+
+            return results;
+        }
+        catch (IOException | IllegalStateException e)
+        {
+            throw new TranslationException(String.format("Cannot read translation response, cause: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * Read a response being an array.
+     * @param reader JSON reader.
+     * @param results Translation results.
+     * @throws IOException Thrown to indicate an error occurred while reading the response.
+     */
+    private static void readResults(final JsonReader reader, final List<GoogleTranslationResult> results) throws IOException
+    {
+        reader.beginArray();
+
+        if (reader.peek() == JsonToken.BEGIN_ARRAY)
+        {
+            reader.beginArray();
+
+            if (reader.peek() == JsonToken.BEGIN_ARRAY)
+            {
+                // Sentences of a single translation followed by some metadata
+                GoogleTranslationResult result = createResult();
+                while (reader.hasNext())
+                {
+                    result.getSentences().add(readSentence(reader));
+                }
+                reader.endArray();
+
+                readMetadata(reader, result);
+                results.add(result);
+
+                return;
+            }
+
+            // Translations with their detected source language
+            results.add(readTranslation(reader));
+            while (reader.hasNext())
+            {
+                reader.beginArray();
+                results.add(readTranslation(reader));
+            }
+        }
+        else
+        {
+            // Translations only
+            while (reader.hasNext())
+            {
+                GoogleTranslationResult result = createResult();
+                result.getSentences().add(createSentence(readString(reader), null));
+                results.add(result);
+            }
+        }
+
+        reader.endArray();
+    }
+
+    /**
+     * Read the remaining elements of a translation array (the array has already been opened).
+     * @param reader JSON reader.
+     * @return Translation result.
+     * @throws IOException Thrown to indicate an error occurred while reading the response.
+     */
+    private static GoogleTranslationResult readTranslation(final JsonReader reader) throws IOException
+    {
+        GoogleTranslationResult result = createResult();
+        result.getSentences().add(createSentence(readString(reader), null));
+
+        if (reader.hasNext())
+        {
+            result.setSource(readString(reader));
+        }
+
+        while (reader.hasNext())
+        {
+            reader.skipValue();
+        }
+        reader.endArray();
+
+        return result;
+    }
+
+    /**
+     * Read the metadata following the sentences of a translation (the detected source language is the third element).
+     * @param reader JSON reader.
+     * @param result Translation result.
+     * @throws IOException Thrown to indicate an error occurred while reading the response.
+     */
+    private static void readMetadata(final JsonReader reader, final GoogleTranslationResult result) throws IOException
+    {
+        int index = 1;
+        while (reader.hasNext())
+        {
+            if (index == 2 && reader.peek() == JsonToken.STRING)
+            {
+                result.setSource(reader.nextString());
+            }
+            else
+            {
+                reader.skipValue();
+            }
+
+            index++;
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Read a sentence array (<b>[translation, original, ...]</b>).
+     * @param reader JSON reader.
+     * @return Translation result sentence.
+     * @throws IOException Thrown to indicate an error occurred while reading the response.
+     */
+    private static ITranslationResultSentence readSentence(final JsonReader reader) throws IOException
+    {
+        reader.beginArray();
+
+        String translation = reader.hasNext() ? readString(reader) : null;
+        String original = reader.hasNext() ? readString(reader) : null;
+
+        while (reader.hasNext())
+        {
+            reader.skipValue();
+        }
+        reader.endArray();
+
+        return createSentence(translation, original);
+    }
+
+    /**
+     * Read a translation result object.
+     * @param reader JSON reader.
+     * @return Translation result.
+     * @throws IOException Thrown to indicate an error occurred while reading the response.
+     */
+    private static GoogleTranslationResult readResult(final JsonReader reader) throws IOException
+    {
+        GoogleTranslationResult result = createResult();
+
+        reader.beginObject();
+        while (reader.hasNext())
+        {
+            switch (reader.nextName())
+            {
+                case "sentences":
+                    reader.beginArray();
+                    while (reader.hasNext())
+                    {
+                        result.getSentences().add(readSentenceObject(reader));
+                    }
+                    reader.endArray();
+                    break;
+
+                case "src":
+                    result.setSource(readString(reader));
+                    break;
+
+                case "confidence":
+                    result.setConfidence(reader.nextDouble());
+                    break;
+
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        return result;
+    }
+
+    /**
+     * Read a sentence object.
+     * @param reader JSON reader.
+     * @return Translation result sentence.
+     * @throws IOException Thrown to indicate an error occurred while reading the response.
+     */
+    private static ITranslationResultSentence readSentenceObject(final JsonReader reader) throws IOException
+    {
+        GoogleTranslationResultSentence sentence = new GoogleTranslationResultSentence();
+
+        reader.beginObject();
+        while (reader.hasNext())
+        {
+            switch (reader.nextName())
+            {
+                case "trans":
+                    sentence.setTranslation(readString(reader));
+                    break;
+
+                case "orig":
+                    sentence.setOriginal(readString(reader));
+                    break;
+
+                case "backend":
+                    sentence.setBackend(reader.nextInt());
+                    break;
+
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        return sentence;
+    }
+
+    /**
+     * Read a string value that may be <b>null</b>.
+     * @param reader JSON reader.
+     * @return String value or <b>null</b>.
+     * @throws IOException Thrown to indicate an error occurred while reading the response.
+     */
+    private static String readString(final JsonReader reader) throws IOException
+    {
+        if (reader.peek() == JsonToken.NULL)
+        {
+            reader.nextNull();
+            return null;
+        }
+
+        return reader.nextString();
+    }
+
+    /**
+     * Create an empty translation result.
+     * @return Translation result.
+     */
+    private static GoogleTranslationResult createResult()
+    {
+        GoogleTranslationResult result = new GoogleTranslationResult();
+        result.setSentences(new ArrayList<>(1));
+
+        return result;
+    }
+
+    /**
+     * Create a translation result sentence.
+     * @param translation Translated text.
+     * @param original Original text.
+     * @return Translation result sentence.
+     */
+    private static ITranslationResultSentence createSentence(final String translation, final String original)
+    {
+        GoogleTranslationResultSentence sentence = new GoogleTranslationResultSentence();
+        sentence.setTranslation(translation);
+        sentence.setOriginal(original);
+
+        return sentence;
+    }
+}
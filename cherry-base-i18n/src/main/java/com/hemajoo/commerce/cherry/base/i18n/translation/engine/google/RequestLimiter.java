@@ -0,0 +1,177 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.engine.google;
+
+import lombok.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * A non-blocking limiter of the number of asynchronous requests in flight.
+ * <br>
+ * Requests submitted while all the permits are in use are queued (no thread is parked) and started, in submission order,
+ * as soon as a permit is released. A request whose future has been completed (cancelled or timed out) while queued is
+ * never started, and completing the future of a started request cancels it.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class RequestLimiter
+{
+    /**
+     * Number of available permits.
+     */
+    private int available;
+
+    /**
+     * Requests waiting for a permit.
+     */
+    private final Queue<PendingRequest> waiting = new ArrayDeque<>();
+
+    /**
+     * Create a request limiter.
+     * @param permits Maximum number of requests in flight.
+     */
+    RequestLimiter(final int permits)
+    {
+        this.available = permits;
+    }
+
+    /**
+     * Submit a request.
+     * @param <T> Result type.
+     * @param request Request to start when a permit is available.
+     * @return Future result of the request.
+     */
+    <T> CompletableFuture<T> submit(final @NonNull Supplier<CompletableFuture<T>> request)
+    {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        PendingRequest pending = new PendingRequest(result, () -> start(request, result));
+
+        synchronized (this)
+        {
+            if (available == 0)
+            {
+                waiting.add(pending);
+                return result;
+            }
+
+            available--;
+        }
+
+        pending.start.run();
+
+        return result;
+    }
+
+    /**
+     * Start a request.
+     * @param <T> Result type.
+     * @param request Request.
+     * @param result Future result of the request.
+     */
+    private <T> void start(final Supplier<CompletableFuture<T>> request, final CompletableFuture<T> result)
+    {
+        CompletableFuture<T> running;
+
+        try
+        {
+            running = request.get();
+        }
+        catch (RuntimeException e)
+        {
+            running = CompletableFuture.failedFuture(e);
+        }
+
+        running.whenComplete((value, exception) -> {
+            release();
+
+            if (exception != null)
+            {
+                result.completeExceptionally(exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception);
+            }
+            else
+            {
+                result.complete(value);
+            }
+        });
+
+        // Cancel the request when the result is cancelled or timed out (no effect once the request is completed)
+        CompletableFuture<T> started = running;
+        result.whenComplete((value, exception) -> {
+            if (exception != null)
+            {
+                started.cancel(true);
+            }
+        });
+    }
+
+    /**
+     * Release a permit, starting the next waiting request if any.
+     */
+    private void release()
+    {
+        while (true)
+        {
+            PendingRequest next;
+
+            synchronized (this)
+            {
+                next = waiting.poll();
+                if (next == null)
+                {
+                    available++;
+                    return;
+                }
+            }
+
+            if (!next.result.isDone())
+            {
+                next.start.run();
+                return;
+            }
+        }
+    }
+
+    /**
+     * A request waiting for a permit.
+     */
+    private static final class PendingRequest
+    {
+        /**
+         * Future result of the request.
+         */
+        private final CompletableFuture<?> result;
+
+        /**
+         * Action starting the request.
+         */
+        private final Runnable start;
+
+        /**
+         * Create a pending request.
+         * @param result Future result of the request.
+         * @param start Action starting the request.
+         */
+        private PendingRequest(final CompletableFuture<?> result, final Runnable start)
+        {
+            this.result = result;
+            this.start = start;
+        }
+    }
+}
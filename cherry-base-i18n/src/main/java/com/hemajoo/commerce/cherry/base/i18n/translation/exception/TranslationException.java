@@ -15,6 +15,10 @@
 package com.hemajoo.commerce.cherry.base.i18n.translation.exception;
 
 import com.hemajoo.commerce.cherry.base.commons.exception.CherryException;
+import lombok.NonNull;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Exception thrown to indicate an error occurred when trying to translate a text.
@@ -53,5 +57,37 @@ public class TranslationException extends CherryException
     {
         super(message, exception);
     }
-}
 
+    /**
+     * Wait for the result of an asynchronous translation.
+     * <br>
+     * The future is cancelled if the waiting thread is interrupted. A failure of the future is rethrown as is if it is a
+     * {@link TranslationException}, wrapped into a {@link TranslationException} otherwise.
+     * @param <T> Result type.
+     * @param future Future result.
+     * @return Result.
+     * @throws TranslationException Thrown to indicate the translation failed or the waiting thread has been interrupted.
+     */
+    public static <T> T await(final @NonNull Future<T> future) throws TranslationException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException e)
+        {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TranslationException(e);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof TranslationException)
+            {
+                throw (TranslationException) e.getCause();
+            }
+
+            throw new TranslationException(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        }
+    }
+}
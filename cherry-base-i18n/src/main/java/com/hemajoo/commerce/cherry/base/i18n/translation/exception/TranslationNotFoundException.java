@@ -0,0 +1,34 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.exception;
+
+/**
+ * Exception thrown to indicate a translator does not hold any translation for a text (for example, an offline translator
+ * answering from a dictionary), another translator may still be able to translate it.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TranslationNotFoundException extends TranslationException
+{
+    /**
+     * Thrown to indicate that no translation has been found for a text.
+     *
+     * @param message Message describing the error being the cause of the raised exception.
+     */
+    public TranslationNotFoundException(final String message)
+    {
+        super(message);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.translation.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown to indicate a remote translation service answered a translation request with an error status.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TranslationServiceException extends TranslationException
+{
+    /**
+     * Status code (ex.: <b>429</b> when the service rate limits its clients).
+     */
+    @Getter
+    private final int statusCode;
+
+    /**
+     * Time to wait before retrying as requested by the service or <b>null</b> if not specified.
+     */
+    @Getter
+    private final Duration retryAfter;
+
+    /**
+     * Thrown to indicate that a translation service answered with an error status.
+     *
+     * @param message Message describing the error being the cause of the raised exception.
+     * @param statusCode Status code.
+     * @param retryAfter Time to wait before retrying or <b>null</b> if not specified.
+     */
+    public TranslationServiceException(final String message, final int statusCode, final Duration retryAfter)
+    {
+        super(message);
+
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Return if the request may succeed if retried later (the service is rate limiting or temporarily unavailable).
+     * @return <b>True</b> if the request can be retried, <b>false</b> otherwise.
+     */
+    public final boolean isRetryable()
+    {
+        return statusCode == 429 || statusCode >= 500;
+    }
+}
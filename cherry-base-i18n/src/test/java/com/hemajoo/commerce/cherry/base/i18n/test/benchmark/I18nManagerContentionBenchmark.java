@@ -0,0 +1,94 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.benchmark;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.I18nManager;
+import com.hemajoo.commerce.cherry.base.i18n.localization.exception.LocalizationException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A <b>JMH</b> benchmark measuring the contention of the {@link I18nManager#get(String, Locale)} service when invoked by 64 threads.
+ * <br>
+ * Run it using the {@link #main(String[])} method (benchmarks are not executed as part of the unit tests).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+public class I18nManagerContentionBenchmark
+{
+    /**
+     * Resource bundle key for name of entry: 'highway'.
+     */
+    private static final String KEY_HIGHWAY_NAME = "com.hemajoo.commerce.cherry.base.i18n.test.highway.name";
+
+    /**
+     * Load the resource bundles used by the benchmark.
+     * @throws LocalizationException Thrown to indicate an error occurred while loading a resource bundle.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws LocalizationException
+    {
+        I18nManager.getInstance().load("i18n/test");
+    }
+
+    /**
+     * Localize a key in english.
+     * @return Localized value.
+     * @throws LocalizationException Thrown to indicate an error occurred while trying to localize a resource.
+     */
+    @Benchmark
+    public String getEnglish() throws LocalizationException
+    {
+        return I18nManager.getInstance().get(KEY_HIGHWAY_NAME, Locale.ENGLISH);
+    }
+
+    /**
+     * Localize a key in french.
+     * @return Localized value.
+     * @throws LocalizationException Thrown to indicate an error occurred while trying to localize a resource.
+     */
+    @Benchmark
+    public String getFrench() throws LocalizationException
+    {
+        return I18nManager.getInstance().get(KEY_HIGHWAY_NAME, Locale.FRENCH);
+    }
+
+    /**
+     * Run the benchmark.
+     * @param args Arguments.
+     * @throws RunnerException Thrown to indicate an error occurred while running the benchmark.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .include(I18nManagerContentionBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.benchmark;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.I18nManager;
+import com.hemajoo.commerce.cherry.base.i18n.localization.exception.LocalizationException;
+import com.hemajoo.commerce.cherry.base.i18n.localization.type.LanguageType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A <b>JMH</b> benchmark comparing the localization of all the {@link LanguageType} values (ex.: rendering a drop-down list)
+ * through the <b>I18n</b> annotated methods (call stack inspection) and through the explicit resource bundle and key service.
+ * <br>
+ * Run it using the {@link #main(String[])} method (benchmarks are not executed as part of the unit tests).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalizationInvocationBenchmark
+{
+    /**
+     * Language resource bundle.
+     */
+    private static final String LANGUAGE_BUNDLE = "i18n/iso/639/language";
+
+    /**
+     * Language description resource bundle key.
+     */
+    private static final String LANGUAGE_DESCRIPTION_KEY = "language.${this}.definition";
+
+    /**
+     * Locale used for the localization.
+     */
+    private final Locale locale = Locale.FRENCH;
+
+    /**
+     * Warm up the resource bundles.
+     * @throws LocalizationException Thrown to indicate an error occurred while loading a resource bundle.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws LocalizationException
+    {
+        I18nManager.getInstance().load(LANGUAGE_BUNDLE);
+    }
+
+    /**
+     * Localize the description of all the languages through the annotated methods.
+     * @param blackhole Blackhole.
+     * @throws LocalizationException Thrown to indicate an error occurred while trying to localize a resource.
+     */
+    @Benchmark
+    public void localizeAnnotated(final Blackhole blackhole) throws LocalizationException
+    {
+        for (LanguageType language : LanguageType.values())
+        {
+            blackhole.consume(language.getDescription(locale));
+        }
+    }
+
+    /**
+     * Localize the description of all the languages through the explicit resource bundle and key service.
+     * @param blackhole Blackhole.
+     * @throws LocalizationException Thrown to indicate an error occurred while trying to localize a resource.
+     */
+    @Benchmark
+    public void localizeExplicit(final Blackhole blackhole) throws LocalizationException
+    {
+        for (LanguageType language : LanguageType.values())
+        {
+            blackhole.consume(I18nManager.getInstance().localize(language, LANGUAGE_BUNDLE, LANGUAGE_DESCRIPTION_KEY, locale));
+        }
+    }
+
+    /**
+     * Run the benchmark.
+     * @param args Arguments.
+     * @throws RunnerException Thrown to indicate an error occurred while running the benchmark.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .include(LocalizationInvocationBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
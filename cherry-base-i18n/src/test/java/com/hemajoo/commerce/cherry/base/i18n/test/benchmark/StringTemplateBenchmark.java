@@ -0,0 +1,247 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.benchmark;
+
+import com.hemajoo.commerce.cherry.base.utilities.helper.ReflectionHelper;
+import com.hemajoo.commerce.cherry.base.utilities.helper.StringExpander;
+import com.hemajoo.commerce.cherry.base.utilities.helper.StringExpanderException;
+import com.hemajoo.commerce.cherry.base.utilities.helper.StringTemplate;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A <b>JMH</b> benchmark comparing the expansion of a template by the former reflective algorithm of the
+ * {@link StringExpander} (variables extracted, getters looked up and the text scanned once per variable on every call)
+ * with the compiled {@link StringTemplate}.
+ * <br>
+ * Run it using the {@link #main(String[])} method (benchmarks are not executed as part of the unit tests).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringTemplateBenchmark
+{
+    /**
+     * Template referencing string properties.
+     */
+    private static final String TEMPLATE = "Dear ${firstName} ${lastName}, your order ${order} has been ${status} and will be delivered to ${city}.";
+
+    /**
+     * Template referencing nested and non string properties.
+     */
+    private static final String NESTED_TEMPLATE = "Dear ${customer.firstName} ${customer.lastName}, your order ${order} of ${quantity} item(s) has been ${status}.";
+
+    /**
+     * Order.
+     */
+    private final Order order = new Order();
+
+    /**
+     * Compiled template.
+     */
+    private StringTemplate template;
+
+    /**
+     * Compiled nested template.
+     */
+    private StringTemplate nestedTemplate;
+
+    /**
+     * Reusable builder.
+     */
+    private final StringBuilder builder = new StringBuilder(256);
+
+    /**
+     * Compile the templates.
+     * @throws StringExpanderException Thrown to indicate a template cannot be compiled.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws StringExpanderException
+    {
+        template = StringTemplate.compile(Order.class, TEMPLATE);
+        nestedTemplate = StringTemplate.compile(Order.class, NESTED_TEMPLATE);
+    }
+
+    /**
+     * Expand the template using the former reflective algorithm.
+     * @param blackhole Blackhole.
+     * @throws Exception Thrown to indicate an error occurred while expanding the template.
+     */
+    @Benchmark
+    public void expandReflective(final Blackhole blackhole) throws Exception
+    {
+        blackhole.consume(expandReflective(order, TEMPLATE));
+    }
+
+    /**
+     * Expand the template using the string expander (compiled template cache lookup).
+     * @param blackhole Blackhole.
+     * @throws StringExpanderException Thrown to indicate an error occurred while expanding the template.
+     */
+    @Benchmark
+    public void expandVariables(final Blackhole blackhole) throws StringExpanderException
+    {
+        blackhole.consume(StringExpander.expandVariables(order, TEMPLATE));
+    }
+
+    /**
+     * Render the compiled template.
+     * @param blackhole Blackhole.
+     * @throws StringExpanderException Thrown to indicate an error occurred while rendering the template.
+     */
+    @Benchmark
+    public void renderCompiled(final Blackhole blackhole) throws StringExpanderException
+    {
+        blackhole.consume(template.render(order));
+    }
+
+    /**
+     * Render the compiled template into a reusable builder.
+     * @param blackhole Blackhole.
+     * @throws StringExpanderException Thrown to indicate an error occurred while rendering the template.
+     */
+    @Benchmark
+    public void renderCompiledReusingBuilder(final Blackhole blackhole) throws StringExpanderException
+    {
+        builder.setLength(0);
+        blackhole.consume(template.render(order, builder));
+    }
+
+    /**
+     * Render the compiled nested template.
+     * @param blackhole Blackhole.
+     * @throws StringExpanderException Thrown to indicate an error occurred while rendering the template.
+     */
+    @Benchmark
+    public void renderCompiledNested(final Blackhole blackhole) throws StringExpanderException
+    {
+        blackhole.consume(nestedTemplate.render(order));
+    }
+
+    /**
+     * Expand a template the way the string expander formerly did.
+     * @param instance Instance.
+     * @param text Template text.
+     * @return Expanded text.
+     * @throws Exception Thrown to indicate an error occurred while expanding the template.
+     */
+    private static String expandReflective(final Object instance, final String text) throws Exception
+    {
+        String result = text;
+
+        for (String name : StringExpander.extractVariables(text))
+        {
+            Field field = ReflectionHelper.findFieldInObjectInstance(instance, name);
+            Object value = instance.getClass().getMethod("get" + StringUtils.capitalize(field.getName())).invoke(instance);
+            result = result.replace("${" + name + "}", (String) value);
+        }
+
+        return result;
+    }
+
+    /**
+     * Run the benchmark.
+     * @param args Arguments.
+     * @throws RunnerException Thrown to indicate an error occurred while running the benchmark.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .include(StringTemplateBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+
+    /**
+     * A customer.
+     */
+    public static final class Customer
+    {
+        /**
+         * First name.
+         */
+        @Getter
+        private final String firstName = "Jane";
+
+        /**
+         * Last name.
+         */
+        @Getter
+        private final String lastName = "Doe";
+    }
+
+    /**
+     * An order.
+     */
+    public static final class Order
+    {
+        /**
+         * Customer.
+         */
+        @Getter
+        private final Customer customer = new Customer();
+
+        /**
+         * First name of the customer.
+         */
+        @Getter
+        private final String firstName = "Jane";
+
+        /**
+         * Last name of the customer.
+         */
+        @Getter
+        private final String lastName = "Doe";
+
+        /**
+         * Order reference.
+         */
+        @Getter
+        private final String order = "ORD-2022-000042";
+
+        /**
+         * Order status.
+         */
+        @Getter
+        private final String status = "shipped";
+
+        /**
+         * Delivery city.
+         */
+        @Getter
+        private final String city = "Montréal";
+
+        /**
+         * Number of ordered items.
+         */
+        @Getter
+        private final int quantity = 3;
+    }
+}
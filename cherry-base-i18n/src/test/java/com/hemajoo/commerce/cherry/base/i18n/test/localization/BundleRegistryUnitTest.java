@@ -0,0 +1,99 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.localization;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.internal.BundleRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ListResourceBundle;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A unit test class for testing the registry of resource bundles.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class BundleRegistryUnitTest
+{
+    /**
+     * Resource bundle name.
+     */
+    private static final String BUNDLE = "i18n/registry";
+
+    @Test
+    @DisplayName("Remember the keys missing from a resource bundle")
+    void testMissingKeys()
+    {
+        BundleRegistry registry = new BundleRegistry();
+
+        // Misses of a resource bundle not registered yet are not remembered
+        assertThat(registry.lookupOrMarkMissing(BUNDLE, "hello", Locale.FRENCH)).isNull();
+        assertThat(registry.isMissing(BUNDLE, "hello", Locale.FRENCH)).isFalse();
+
+        registry.register(BUNDLE, Locale.FRENCH, bundle("hello", "Bonjour"));
+        assertThat(registry.lookupOrMarkMissing(BUNDLE, "hello", Locale.FRENCH)).isEqualTo("Bonjour");
+        assertThat(registry.isMissing(BUNDLE, "hello", Locale.FRENCH)).isFalse();
+
+        assertThat(registry.lookupOrMarkMissing(BUNDLE, "goodbye", Locale.FRENCH)).isNull();
+        assertThat(registry.isMissing(BUNDLE, "goodbye", Locale.FRENCH)).isTrue();
+        assertThat(registry.isMissing(BUNDLE, "goodbye", Locale.GERMAN)).isFalse();
+
+        // Replacing the resource bundle discards the missing keys and bumps the version
+        long version = registry.getVersion();
+        registry.replace(BUNDLE, Locale.FRENCH, bundle("goodbye", "Au revoir"));
+        assertThat(registry.getVersion()).isGreaterThan(version);
+        assertThat(registry.isMissing(BUNDLE, "goodbye", Locale.FRENCH)).isFalse();
+        assertThat(registry.lookupOrMarkMissing(BUNDLE, "goodbye", Locale.FRENCH)).isEqualTo("Au revoir");
+    }
+
+    @Test
+    @DisplayName("Bound the number of remembered missing keys")
+    void testMissingKeysBound()
+    {
+        BundleRegistry registry = new BundleRegistry();
+        registry.register(BUNDLE, Locale.FRENCH, bundle("hello", "Bonjour"));
+
+        for (int i = 0; i < 20_000; i++)
+        {
+            registry.lookupOrMarkMissing(BUNDLE, "missing." + i, Locale.FRENCH);
+        }
+
+        assertThat(registry.isMissing(BUNDLE, "missing.0", Locale.FRENCH)).isTrue();
+        assertThat(registry.isMissing(BUNDLE, "missing.19999", Locale.FRENCH)).isFalse();
+        assertThat(registry.lookupOrMarkMissing(BUNDLE, "hello", Locale.FRENCH)).isEqualTo("Bonjour");
+    }
+
+    /**
+     * Create a resource bundle containing a single entry.
+     * @param key Key.
+     * @param value Value.
+     * @return Resource bundle.
+     */
+    private static ResourceBundle bundle(final String key, final String value)
+    {
+        return new ListResourceBundle()
+        {
+            @Override
+            protected Object[][] getContents()
+            {
+                return new Object[][] { { key, value } };
+            }
+        };
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.localization;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.I18nManager;
+import com.hemajoo.commerce.cherry.base.i18n.localization.LocalizationWatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A unit test class for testing the hot reload of resource bundles.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class BundleWatcherUnitTest
+{
+    /**
+     * Watched resource bundle.
+     */
+    private static final String WATCHED_BUNDLE = "i18n/watched";
+
+    /**
+     * Watched resource bundle key.
+     */
+    private static final String WATCHED_KEY = "com.hemajoo.commerce.cherry.base.i18n.test.watched.greeting";
+
+    /**
+     * Watched resource bundle key only defined in the base file.
+     */
+    private static final String BASE_KEY = "com.hemajoo.commerce.cherry.base.i18n.test.watched.base";
+
+    /**
+     * Maximum time (in milliseconds) to wait for a reload.
+     */
+    private static final long TIMEOUT = 20_000;
+
+    /**
+     * Watched directory.
+     */
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        Files.createDirectories(directory.resolve("i18n"));
+        I18nManager.getInstance().setLocale(Locale.ENGLISH);
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        // Do not leak the watched resource bundles to the other tests
+        I18nManager.getInstance().clearAll();
+    }
+
+    @Test
+    @DisplayName("Hot reload a resource bundle when its file changes")
+    void testHotReload() throws Exception
+    {
+        write("watched.properties", WATCHED_KEY + "=Hello\n" + BASE_KEY + "=Base\n");
+        write("watched_fr.properties", WATCHED_KEY + "=Bonjour\n");
+
+        try (LocalizationWatcher watcher = I18nManager.getInstance().watch(directory))
+        {
+            assertThat(I18nManager.getInstance().get(WATCHED_BUNDLE, WATCHED_KEY, Locale.FRENCH)).isEqualTo("Bonjour");
+            assertThat(I18nManager.getInstance().get(WATCHED_BUNDLE, BASE_KEY, Locale.FRENCH)).isEqualTo("Base");
+
+            long reloads = watcher.getReloadCount();
+            write("watched_fr.properties", WATCHED_KEY + "=Salut\n");
+            await(watcher, reloads);
+            assertThat(I18nManager.getInstance().get(WATCHED_BUNDLE, WATCHED_KEY, Locale.FRENCH)).isEqualTo("Salut");
+
+            // Deleting the language file falls back on the base file
+            reloads = watcher.getReloadCount();
+            Files.delete(directory.resolve("i18n/watched_fr.properties"));
+            await(watcher, reloads);
+            assertThat(I18nManager.getInstance().get(WATCHED_BUNDLE, WATCHED_KEY, Locale.FRENCH)).isEqualTo("Hello");
+        }
+    }
+
+    @Test
+    @DisplayName("Register a resource bundle only having a base file for the default language")
+    void testBaseOnlyBundle() throws Exception
+    {
+        write("watched.properties", WATCHED_KEY + "=Hello\n");
+
+        try (LocalizationWatcher watcher = I18nManager.getInstance().watch(directory))
+        {
+            assertThat(I18nManager.getInstance().get(WATCHED_BUNDLE, WATCHED_KEY, Locale.ENGLISH)).isEqualTo("Hello");
+
+            long reloads = watcher.getReloadCount();
+            write("watched.properties", WATCHED_KEY + "=Hi\n");
+            await(watcher, reloads);
+            assertThat(I18nManager.getInstance().get(WATCHED_BUNDLE, WATCHED_KEY, Locale.ENGLISH)).isEqualTo("Hi");
+        }
+    }
+
+    @Test
+    @DisplayName("Read a resource bundle from the chain of files of its locale")
+    void testLocaleChain() throws Exception
+    {
+        write("watched.properties", WATCHED_KEY + "=Hello\n" + BASE_KEY + "=Base\n");
+        write("watched_fr.properties", WATCHED_KEY + "=Bonjour\n");
+        write("watched_fr_CA.properties", WATCHED_KEY + "=Allo\n");
+        write("watched_de_CH.properties", WATCHED_KEY + "=Grüezi\n");
+
+        try (LocalizationWatcher watcher = I18nManager.getInstance().watch(directory))
+        {
+            // The language file wins over the country file whatever the listing order
+            assertThat(I18nManager.getInstance().get(WATCHED_BUNDLE, WATCHED_KEY, Locale.FRENCH)).isEqualTo("Bonjour");
+            assertThat(I18nManager.getInstance().get(WATCHED_BUNDLE, WATCHED_KEY, Locale.GERMAN)).isEqualTo("Grüezi");
+
+            // Changing a country file not in the chain of the registered language does not affect it
+            long reloads = watcher.getReloadCount();
+            write("watched_fr_CA.properties", WATCHED_KEY + "=Bonjour-Hi\n");
+            write("watched_de.properties", WATCHED_KEY + "=Hallo\n" + BASE_KEY + "=Basis\n");
+            await(watcher, reloads);
+
+            // The language file created in between the base and the country files is part of the chain
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while (!"Basis".equals(I18nManager.getInstance().get(WATCHED_BUNDLE, BASE_KEY, Locale.GERMAN)) && System.currentTimeMillis() < deadline)
+            {
+                Thread.sleep(50);
+            }
+            assertThat(I18nManager.getInstance().get(WATCHED_BUNDLE, BASE_KEY, Locale.GERMAN)).isEqualTo("Basis");
+            assertThat(I18nManager.getInstance().get(WATCHED_BUNDLE, WATCHED_KEY, Locale.GERMAN)).isEqualTo("Grüezi");
+            assertThat(I18nManager.getInstance().get(WATCHED_BUNDLE, WATCHED_KEY, Locale.FRENCH)).isEqualTo("Bonjour");
+        }
+    }
+
+    /**
+     * Write a file of the watched directory.
+     * @param name File name (in the <b>i18n</b> directory).
+     * @param content Content.
+     * @throws IOException Thrown to indicate the file cannot be written.
+     */
+    private void write(final String name, final String content) throws IOException
+    {
+        Files.writeString(directory.resolve("i18n").resolve(name), content);
+    }
+
+    /**
+     * Wait until resource bundles have been reloaded.
+     * @param watcher Watcher.
+     * @param reloads Number of resource bundles reloaded before the change.
+     * @throws InterruptedException Thrown to indicate the waiting thread has been interrupted.
+     */
+    private static void await(final LocalizationWatcher watcher, final long reloads) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (watcher.getReloadCount() == reloads && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(50);
+        }
+    }
+}
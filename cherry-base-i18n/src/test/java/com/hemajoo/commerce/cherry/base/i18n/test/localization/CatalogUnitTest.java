@@ -0,0 +1,149 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.localization;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.I18nManager;
+import com.hemajoo.commerce.cherry.base.i18n.localization.catalog.Catalog;
+import com.hemajoo.commerce.cherry.base.i18n.localization.catalog.CatalogCompiler;
+import com.hemajoo.commerce.cherry.base.i18n.localization.exception.LocalizationException;
+import com.hemajoo.commerce.cherry.base.i18n.localization.internal.BundleRegistry;
+import com.hemajoo.commerce.cherry.base.i18n.localization.type.time.MonthType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.ListResourceBundle;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.ResourceBundle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A unit test class for testing the binary message catalog.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class CatalogUnitTest
+{
+    /**
+     * Month resource bundle.
+     */
+    private static final String MONTH_BUNDLE = "i18n/time/month";
+
+    /**
+     * Language resource bundle.
+     */
+    private static final String LANGUAGE_BUNDLE = "i18n/iso/639/language";
+
+    @Test
+    @DisplayName("Compile resource bundles into a message catalog")
+    void testCompileCatalog(final @TempDir Path directory) throws LocalizationException, URISyntaxException
+    {
+        Path file = directory.resolve("catalog.bin");
+        CatalogCompiler.compile(getResourceDirectory(), List.of(MONTH_BUNDLE, LANGUAGE_BUNDLE), file);
+
+        Catalog catalog = Catalog.open(file);
+        assertThat(catalog.getBundles()).containsExactly(MONTH_BUNDLE, LANGUAGE_BUNDLE);
+        assertThat(catalog.getLocales(MONTH_BUNDLE)).contains(Locale.FRENCH, Locale.GERMAN, Locale.ROOT);
+
+        // Each value of the catalog must match the one of the properties resource bundle
+        for (String bundle : catalog.getBundles())
+        {
+            for (Locale locale : catalog.getLocales(bundle))
+            {
+                ResourceBundle expected = ResourceBundle.getBundle(bundle, locale, ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES));
+                for (String key : expected.keySet())
+                {
+                    assertThat(catalog.get(bundle, key, locale)).isEqualTo(expected.getString(key));
+                }
+                assertThat(catalog.getBundle(bundle, locale).keySet()).isEqualTo(expected.keySet());
+            }
+        }
+
+        assertThat(catalog.get(MONTH_BUNDLE, "month.MARCH.does-not-exist", Locale.FRENCH)).isNull();
+        assertThat(catalog.get("i18n/does-not-exist", "month.MARCH.name", Locale.FRENCH)).isNull();
+    }
+
+    @Test
+    @DisplayName("Localize resources using a memory-mapped message catalog")
+    void testLoadCatalog(final @TempDir Path directory) throws LocalizationException, URISyntaxException
+    {
+        Path file = directory.resolve("catalog.bin");
+        CatalogCompiler.compile(getResourceDirectory(), List.of(MONTH_BUNDLE), file);
+
+        I18nManager.getInstance().clearAll();
+        I18nManager.getInstance().loadCatalog(file);
+
+        assertThat(MonthType.MARCH.getName(Locale.FRENCH)).isEqualToIgnoringCase("Mars");
+        assertThat(MonthType.MARCH.getName(Locale.GERMAN)).isEqualToIgnoringCase("März");
+        assertThat(I18nManager.getInstance().get("month.MARCH.name", Locale.ENGLISH)).isEqualToIgnoringCase("March");
+    }
+
+    @Test
+    @DisplayName("Remember the keys missing from the message catalogs")
+    void testMissingCatalogKeys(final @TempDir Path directory) throws LocalizationException, URISyntaxException
+    {
+        Path file = directory.resolve("catalog.bin");
+        CatalogCompiler.compile(getResourceDirectory(), List.of(MONTH_BUNDLE), file);
+
+        BundleRegistry registry = new BundleRegistry();
+        registry.register(MONTH_BUNDLE, Locale.FRENCH, Catalog.open(file).getBundle(MONTH_BUNDLE, Locale.FRENCH));
+
+        assertThat(registry.lookup("month.MARCH.name", Locale.FRENCH)).isEqualToIgnoringCase("Mars");
+        assertThat(registry.isMissing("month.MARCH.name", Locale.FRENCH)).isFalse();
+
+        assertThat(registry.lookup("month.MARCH.does-not-exist", Locale.FRENCH)).isNull();
+        assertThat(registry.isMissing("month.MARCH.does-not-exist", Locale.FRENCH)).isTrue();
+
+        // Registering a new resource bundle discards the missing keys
+        registry.register("i18n/other", Locale.FRENCH, new ListResourceBundle()
+        {
+            @Override
+            protected Object[][] getContents()
+            {
+                return new Object[][] { { "month.MARCH.does-not-exist", "Existe" } };
+            }
+        });
+        assertThat(registry.isMissing("month.MARCH.does-not-exist", Locale.FRENCH)).isFalse();
+        assertThat(registry.lookup("month.MARCH.does-not-exist", Locale.FRENCH)).isEqualTo("Existe");
+    }
+
+    @Test
+    @DisplayName("Cannot open an invalid message catalog")
+    void testInvalidCatalog(final @TempDir Path directory) throws Exception
+    {
+        Path file = Files.write(directory.resolve("catalog.bin"), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+
+        assertThrows(LocalizationException.class, () -> Catalog.open(file));
+        assertThrows(LocalizationException.class, () -> CatalogCompiler.compile(getResourceDirectory(), List.of("i18n/does-not-exist"), file));
+    }
+
+    /**
+     * Return the directory containing the resource bundles.
+     * @return Directory.
+     * @throws URISyntaxException Thrown to indicate the directory cannot be resolved.
+     */
+    private Path getResourceDirectory() throws URISyntaxException
+    {
+        return Paths.get(Objects.requireNonNull(getClass().getResource("/" + MONTH_BUNDLE + ".properties")).toURI()).getParent().getParent().getParent();
+    }
+}
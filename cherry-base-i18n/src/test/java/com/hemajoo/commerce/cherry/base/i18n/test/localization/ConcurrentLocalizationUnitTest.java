@@ -0,0 +1,154 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.localization;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.I18nManager;
+import com.hemajoo.commerce.cherry.base.i18n.localization.LocaleContext;
+import com.hemajoo.commerce.cherry.base.i18n.localization.type.time.MonthType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A unit test class for testing the localization services when invoked concurrently.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class ConcurrentLocalizationUnitTest
+{
+    /**
+     * Number of concurrent threads.
+     */
+    private static final int THREADS = 64;
+
+    /**
+     * Number of lookups per thread.
+     */
+    private static final int LOOKUPS = 500;
+
+    /**
+     * Resource bundle key for name of entry: 'highway'.
+     */
+    private static final String TEST_RESOURCE_BUNDLE_KEY_HIGHWAY_NAME = "com.hemajoo.commerce.cherry.base.i18n.test.highway.name";
+
+    @Test
+    @DisplayName("Load and localize resources from concurrent threads")
+    void testConcurrentLocalization() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        try
+        {
+            for (int i = 0; i < THREADS; i++)
+            {
+                final boolean french = i % 2 == 0;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    I18nManager.getInstance().load("i18n/test");
+                    for (int j = 0; j < LOOKUPS; j++)
+                    {
+                        String value = I18nManager.getInstance().get(TEST_RESOURCE_BUNDLE_KEY_HIGHWAY_NAME, french ? Locale.FRENCH : Locale.ENGLISH);
+                        String month = MonthType.MARCH.getName(french ? Locale.FRENCH : Locale.ENGLISH);
+                        if (!value.equals(french ? "Autoroute" : "Highway") || !month.equalsIgnoreCase(french ? "Mars" : "March"))
+                        {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<Boolean> result : results)
+            {
+                assertThat(result.get(60, TimeUnit.SECONDS)).isTrue();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Localize resources from concurrent threads using their own scoped locale")
+    void testConcurrentScopedLocale() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        try
+        {
+            for (int i = 0; i < THREADS; i++)
+            {
+                final boolean french = i % 2 == 0;
+                results.add(executor.submit(() -> LocaleContext.call(french ? Locale.FRENCH : Locale.ENGLISH, () -> {
+                    start.await();
+                    for (int j = 0; j < LOOKUPS; j++)
+                    {
+                        if (!MonthType.MARCH.getName().equalsIgnoreCase(french ? "Mars" : "March"))
+                        {
+                            return false;
+                        }
+                    }
+                    return true;
+                })));
+            }
+
+            start.countDown();
+
+            for (Future<Boolean> result : results)
+            {
+                assertThat(result.get(60, TimeUnit.SECONDS)).isTrue();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Nest scoped locales")
+    void testNestedScopedLocale() throws Exception
+    {
+        assertThat(LocaleContext.current()).isNull();
+
+        try (LocaleContext.Scope outer = LocaleContext.open(Locale.FRENCH))
+        {
+            assertThat(I18nManager.getInstance().getLocale()).isEqualTo(Locale.FRENCH);
+
+            try (LocaleContext.Scope inner = LocaleContext.open(Locale.GERMAN))
+            {
+                assertThat(I18nManager.getInstance().getLocale()).isEqualTo(Locale.GERMAN);
+            }
+
+            assertThat(I18nManager.getInstance().getLocale()).isEqualTo(Locale.FRENCH);
+        }
+
+        assertThat(LocaleContext.current()).isNull();
+        assertThat(I18nManager.getInstance().getLocale()).isEqualTo(I18nManager.getInstance().getDefaultLocale());
+    }
+}
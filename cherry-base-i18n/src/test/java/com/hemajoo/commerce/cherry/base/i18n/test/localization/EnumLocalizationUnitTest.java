@@ -68,4 +68,16 @@ class EnumLocalizationUnitTest
         assertThat(MonthType.MARCH.getName(Locale.ITALIAN)).isEqualTo(MONTH_MARCH_ITALIAN);
         assertThat(MonthType.MARCH.getName()).isEqualTo(MONTH_MARCH_GERMAN);
     }
+
+    @Test
+    void testExplicitLocalization() throws LocalizationException
+    {
+        for (LanguageType language : LanguageType.values())
+        {
+            assertThat(I18nManager.getInstance().localize(language, "i18n/iso/639/language", "language.${this}.name", Locale.ITALIAN))
+                    .isEqualTo(language.getName(Locale.ITALIAN));
+        }
+
+        assertThat(I18nManager.getInstance().localize(MonthType.MARCH, "i18n/time/month", "month.${this}.name", Locale.ITALIAN)).isEqualTo(MONTH_MARCH_ITALIAN);
+    }
 }
@@ -14,14 +14,22 @@
  */
 package com.hemajoo.commerce.cherry.base.i18n.test.localization;
 
+import com.google.common.cache.CacheStats;
 import com.hemajoo.commerce.cherry.base.i18n.localization.I18nManager;
 import com.hemajoo.commerce.cherry.base.i18n.localization.InstantLocalization;
+import com.hemajoo.commerce.cherry.base.i18n.localization.Localize;
 import com.hemajoo.commerce.cherry.base.i18n.localization.exception.LocalizationException;
 import com.hemajoo.commerce.cherry.base.i18n.localization.type.LanguageType;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -117,6 +125,61 @@ class LocalizationUnitTest
         assertThat(InstantLocalization.asString(TEST_RESOURCE_BUNDLE_KEY_HIGHWAY_NAME)).isEqualTo("Highway");
     }
 
+    @Test
+    @DisplayName("Preload a set of resource bundles in parallel")
+    void testPreloadBundles() throws LocalizationException
+    {
+        long start = System.nanoTime();
+        Map<String, Duration> report = I18nManager.getInstance().preload(List.of(TEST_RESOURCE_BUNDLE, "i18n/time/month"));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(report).containsOnlyKeys(TEST_RESOURCE_BUNDLE, "i18n/time/month");
+        // The languages are loaded concurrently, the load time of a bundle is not the sum of the load times of its languages
+        assertThat(report.values()).allMatch(time -> time.compareTo(elapsed) <= 0);
+        assertThat(I18nManager.getInstance().get(TEST_RESOURCE_BUNDLE_KEY_HIGHWAY_NAME, Locale.FRENCH)).isEqualTo("Autoroute");
+        assertThat(I18nManager.getInstance().get(TEST_RESOURCE_BUNDLE_KEY_HIGHWAY_NAME, Locale.ENGLISH)).isEqualTo("Highway");
+        assertThrows(LocalizationException.class, () -> I18nManager.getInstance().preload(List.of("i18n/does-not-exist")));
+    }
+
+    @Test
+    @DisplayName("Abort the preloading once a resource bundle cannot be found")
+    void testPreloadFailure() throws InterruptedException
+    {
+        ForkJoinPool pool = new ForkJoinPool(1);
+
+        try
+        {
+            // The tasks queued after the failing one are not run, the missing bundle is reported
+            LocalizationException exception = assertThrows(LocalizationException.class, () -> I18nManager.getInstance().preload(List.of("i18n/time/month", "i18n/does-not-exist", TEST_RESOURCE_BUNDLE), pool));
+            assertThat(exception).hasMessageContaining("i18n/does-not-exist");
+        }
+        finally
+        {
+            pool.shutdown();
+            assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Cache the resolved messages")
+    void testMessageCache() throws LocalizationException
+    {
+        I18nManager.getInstance().clearAll();
+        I18nManager.getInstance().load(TEST_RESOURCE_BUNDLE);
+        CacheStats before = I18nManager.getInstance().getMessageCacheStatistics();
+
+        assertThat(InstantLocalization.asString(TEST_RESOURCE_BUNDLE_KEY_HIGHWAY_NAME, Locale.FRENCH)).isEqualTo("Autoroute"); // Miss
+        assertThat(InstantLocalization.asString(TEST_RESOURCE_BUNDLE_KEY_HIGHWAY_NAME, Locale.FRENCH)).isEqualTo("Autoroute"); // Hit
+        CacheStats after = I18nManager.getInstance().getMessageCacheStatistics();
+
+        assertThat(after.hitCount()).isEqualTo(before.hitCount() + 1);
+        assertThat(after.missCount()).isEqualTo(before.missCount() + 1);
+
+        // Cached messages must be discarded with the resource bundles
+        I18nManager.getInstance().clearAll();
+        assertThrows(LocalizationException.class, () -> InstantLocalization.asString(TEST_RESOURCE_BUNDLE_KEY_HIGHWAY_NAME, Locale.FRENCH));
+    }
+
     @Test
     @DisplayName("clear all registered resource bundles")
     void testClearAllBundle() throws LocalizationException
@@ -221,4 +284,26 @@ class LocalizationUnitTest
         quote.localize(LanguageType.SPANISH);
         assertThat(quote.getQuoteName()).isEqualTo("(ES) Failure");
     }
+
+    @Test
+    @DisplayName("Localize a collection of objects")
+    void testLocalizeAll() throws LocalizationException
+    {
+        List<QuoteOfTheDay> quotes = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++)
+        {
+            quotes.add(QuoteOfTheDay.builder()
+                    .withNumber(2)
+                    .build());
+        }
+
+        I18nManager.getInstance().localizeAll(quotes, Locale.ITALIAN, ForkJoinPool.commonPool());
+        assertThat(quotes).allMatch(quote -> quote.getQuoteName() != null && quote.getQuoteDescription() != null);
+
+        I18nManager.getInstance().localizeAll(quotes.subList(0, 10), LanguageType.SPANISH.getLocale());
+        assertThat(quotes.get(0).getQuoteName()).isEqualTo("(ES) Failure");
+
+        List<Localize> invalid = List.of(new Localize() {}); // No field annotated with I18n
+        assertThrows(LocalizationException.class, () -> I18nManager.getInstance().localizeAll(invalid, Locale.ITALIAN));
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.localization;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.internal.BundleRegistry;
+import com.hemajoo.commerce.cherry.base.i18n.localization.internal.MessageCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ListResourceBundle;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A unit test class for testing the cache of resolved messages.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class MessageCacheUnitTest
+{
+    /**
+     * Resource bundle name.
+     */
+    private static final String BUNDLE = "i18n/messages";
+
+    @Test
+    @DisplayName("Discard the messages resolved against a previous version of the registry")
+    void testStaleMessages()
+    {
+        BundleRegistry registry = new BundleRegistry();
+        registry.register(BUNDLE, Locale.FRENCH, bundle("Bonjour"));
+        MessageCache cache = new MessageCache(registry);
+
+        long version = registry.getVersion();
+        cache.put(BUNDLE, "hello", Locale.FRENCH, "Bonjour", version);
+        assertThat(cache.get(BUNDLE, "hello", Locale.FRENCH)).isEqualTo("Bonjour");
+
+        // A message resolved before the resource bundle has been replaced is never cached
+        registry.replace(BUNDLE, Locale.FRENCH, bundle("Salut"));
+        cache.put(BUNDLE, "hello", Locale.FRENCH, "Bonjour", version);
+        assertThat(cache.get(BUNDLE, "hello", Locale.FRENCH)).isNull();
+        cache.put(BUNDLE, "hello", Locale.FRENCH, "Bonjour", version);
+        assertThat(cache.get(BUNDLE, "hello", Locale.FRENCH)).isNull();
+
+        cache.put(BUNDLE, "hello", Locale.FRENCH, "Salut", registry.getVersion());
+        assertThat(cache.get(BUNDLE, "hello", Locale.FRENCH)).isEqualTo("Salut");
+    }
+
+    /**
+     * Create a resource bundle containing a single <b>hello</b> entry.
+     * @param value Value.
+     * @return Resource bundle.
+     */
+    private static ResourceBundle bundle(final String value)
+    {
+        return new ListResourceBundle()
+        {
+            @Override
+            protected Object[][] getContents()
+            {
+                return new Object[][] { { "hello", value } };
+            }
+        };
+    }
+}
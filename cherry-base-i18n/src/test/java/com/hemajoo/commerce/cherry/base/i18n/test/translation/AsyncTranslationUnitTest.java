@@ -0,0 +1,129 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.translation;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.I18nManager;
+import com.hemajoo.commerce.cherry.base.i18n.translation.Translation;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.ITranslator;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslationMemory;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslatorRegistry;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import lombok.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A unit test class for testing the asynchronous translations of a <b>Translation</b> entity.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class AsyncTranslationUnitTest
+{
+    /**
+     * Translator whose calls are completed by the tests.
+     */
+    private final PendingTranslator translator = new PendingTranslator();
+
+    @BeforeEach
+    void setTranslator()
+    {
+        I18nManager.getInstance().setTranslator(translator);
+    }
+
+    @AfterEach
+    void resetTranslator()
+    {
+        I18nManager.getInstance().setTranslator(new TranslationMemory(TranslatorRegistry.load()));
+    }
+
+    @Test
+    @DisplayName("Publish the translated text completed on a thread of the translator")
+    void testPublishTranslation() throws ExecutionException, InterruptedException
+    {
+        Translation translation = new Translation("Hello", Locale.ENGLISH, Locale.FRENCH);
+        CompletableFuture<String> result = translation.translateAsync();
+        assertThat(translation.getTranslated()).isNull();
+
+        Thread thread = new Thread(() -> translator.calls.get(0).complete("Bonjour"));
+        thread.start();
+
+        assertThat(result.get()).isEqualTo("Bonjour");
+        assertThat(translation.getTranslated()).isEqualTo("Bonjour");
+
+        // The same text and target locale are not translated again
+        assertThat(translation.translateAsync().get()).isEqualTo("Bonjour");
+        assertThat(translator.calls).hasSize(1);
+        thread.join();
+    }
+
+    @Test
+    @DisplayName("Keep the state of the last translation started")
+    void testOutOfOrderTranslations() throws ExecutionException, InterruptedException
+    {
+        Translation translation = new Translation("Hello", Locale.ENGLISH, Locale.FRENCH);
+        CompletableFuture<String> first = translation.translateAsync();
+
+        translation.setText("Goodbye");
+        CompletableFuture<String> second = translation.translateAsync();
+
+        // The earlier translation completes last
+        translator.calls.get(1).complete("Au revoir");
+        translator.calls.get(0).complete("Bonjour");
+
+        assertThat(first.get()).isEqualTo("Bonjour");
+        assertThat(second.get()).isEqualTo("Au revoir");
+        assertThat(translation.getTranslated()).isEqualTo("Au revoir");
+
+        // The state matches the last translation, it is not translated again
+        assertThat(translation.translateAsync().get()).isEqualTo("Au revoir");
+        assertThat(translator.calls).hasSize(2);
+    }
+
+    /**
+     * A translator whose calls are completed by the tests.
+     */
+    private static final class PendingTranslator implements ITranslator
+    {
+        /**
+         * Calls sent to the translator.
+         */
+        private final List<CompletableFuture<String>> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String translate(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target) throws TranslationException
+        {
+            return TranslationException.await(translateAsync(text, source, target));
+        }
+
+        @Override
+        public CompletableFuture<String> translateAsync(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+        {
+            CompletableFuture<String> call = new CompletableFuture<>();
+            calls.add(call);
+
+            return call;
+        }
+    }
+}
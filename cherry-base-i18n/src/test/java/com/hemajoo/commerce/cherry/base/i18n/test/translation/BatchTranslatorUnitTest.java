@@ -0,0 +1,155 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.translation;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.*;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A unit test class for testing the batched translation of translation requests.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class BatchTranslatorUnitTest
+{
+    @Test
+    @DisplayName("Translate request entries using batches")
+    void testBatchTranslation() throws TranslationException
+    {
+        AtomicInteger calls = new AtomicInteger();
+        ITranslator translator = (text, source, target) -> {
+            calls.incrementAndGet();
+            return text.getText().toUpperCase(); // Sentinels are preserved
+        };
+
+        TranslationRequest request = createRequest(100);
+        new BatchTranslator(translator, 10, 10_000).translate(request);
+
+        assertThat(calls.get()).isEqualTo(10);
+        for (TranslationRequestEntry entry : request.getEntries())
+        {
+            assertThat(entry.getTranslation()).isEqualTo(entry.getSource().toUpperCase());
+            assertThat(entry.requireTranslation()).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Limit the payload length of the batches")
+    void testBatchPayloadLimit() throws TranslationException
+    {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger longest = new AtomicInteger();
+        ITranslator translator = (text, source, target) -> {
+            calls.incrementAndGet();
+            longest.accumulateAndGet(text.getText().length(), Math::max);
+            return text.getText().toUpperCase();
+        };
+
+        TranslationRequest request = createRequest(100);
+        new BatchTranslator(translator, 100, 200).translate(request);
+
+        assertThat(longest.get()).isLessThanOrEqualTo(200);
+        assertThat(calls.get()).isGreaterThan(1).isLessThan(100);
+        assertThat(request.getEntries()).allMatch(entry -> entry.getTranslation().equals(entry.getSource().toUpperCase()));
+    }
+
+    @Test
+    @DisplayName("Translate entries individually when sentinels are not preserved")
+    void testBatchFallback() throws TranslationException
+    {
+        AtomicInteger calls = new AtomicInteger();
+        ITranslator translator = (text, source, target) -> {
+            calls.incrementAndGet();
+            return text.getText().replaceAll("\\[\\[\\d+]]", "|").toUpperCase(); // Sentinels are lost
+        };
+
+        TranslationRequest request = createRequest(20);
+        new BatchTranslator(translator, 10, 10_000).translate(request);
+
+        assertThat(calls.get()).isEqualTo(2 + 20);
+        assertThat(request.getEntries()).allMatch(entry -> entry.getTranslation().equals(entry.getSource().toUpperCase()));
+    }
+
+    @Test
+    @DisplayName("Translate a translation process using batches")
+    void testBatchTranslationProcess() throws TranslationException
+    {
+        AtomicInteger calls = new AtomicInteger();
+        ITranslator translator = (text, source, target) -> {
+            calls.incrementAndGet();
+            return text.getText().toUpperCase();
+        };
+
+        TranslationRequest request = new TranslationRequest();
+        request.setSourceLocale(Locale.ENGLISH);
+        request.setTargetLocale(Locale.FRENCH);
+        request.setSourceProperties("key.1=First\nkey.2=Second\nkey.3=Third\n");
+        request.setTargetProperties("key.1=Premier\nkey.0=Zero\n");
+
+        TranslationProcess process = new TranslationProcess((p, entry) -> {});
+        process.setRequest(request);
+        assertThat(process.requireProcessing()).isTrue();
+
+        process.translate(new BatchTranslator(translator));
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(process.isTranslated()).isTrue();
+        assertThat(process.requireProcessing()).isFalse();
+        assertThat(request.getEntry("key.1").getTranslation()).isEqualTo("Premier");
+        assertThat(request.getEntry("key.2").getTranslation()).isEqualTo("SECOND");
+        assertThat(request.getEntry("key.3").getTranslation()).isEqualTo("THIRD");
+    }
+
+    @Test
+    @DisplayName("Cannot translate a batch when an entry cannot be translated")
+    void testBatchError()
+    {
+        ITranslator translator = (text, source, target) -> {
+            throw new TranslationException("Service unavailable");
+        };
+
+        TranslationRequest request = createRequest(5);
+        BatchTranslator batchTranslator = new BatchTranslator(translator);
+
+        assertThrows(TranslationException.class, () -> batchTranslator.translate(request));
+    }
+
+    /**
+     * Create a translation request.
+     * @param count Number of entries requiring a translation.
+     * @return Translation request.
+     */
+    private TranslationRequest createRequest(final int count)
+    {
+        TranslationRequest request = new TranslationRequest();
+        request.setSourceLocale(Locale.ENGLISH);
+        request.setTargetLocale(Locale.FRENCH);
+
+        for (int i = 0; i < count; i++)
+        {
+            request.addEntry(new TranslationRequestEntry("key." + i, "Text number " + i + ", to translate.", true));
+        }
+
+        return request;
+    }
+}
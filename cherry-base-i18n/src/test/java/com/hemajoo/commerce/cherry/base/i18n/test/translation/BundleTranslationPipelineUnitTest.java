@@ -0,0 +1,117 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.translation;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.BatchTranslator;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.BundleTranslationPipeline;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.ITranslator;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A unit test class for testing the translation of resource bundles into several languages.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class BundleTranslationPipelineUnitTest
+{
+    /**
+     * Testing purpose resource bundle.
+     */
+    private static final String BUNDLE = "i18n/time/month";
+
+    /**
+     * Testing purpose target languages.
+     */
+    private static final List<Locale> TARGETS = List.of(Locale.FRENCH, Locale.GERMAN, Locale.ITALIAN, Locale.JAPANESE, Locale.KOREAN, Locale.CHINESE);
+
+    @Test
+    @DisplayName("Translate the missing keys of a resource bundle into several languages")
+    void testTranslateBundle(final @TempDir Path directory) throws Exception
+    {
+        Files.createDirectories(directory.resolve("i18n/time"));
+        Files.writeString(directory.resolve(BUNDLE + ".properties"), "month.JANUARY.name=January\nmonth.FEBRUARY.name=February\nmonth.MARCH.name=March\n", StandardCharsets.ISO_8859_1);
+        String frenchContent = "# French months\nmonth.JANUARY.name=Janvier\n\nmonth.FEBRUARY.name=f\\u00E9vrier";
+        Files.writeString(directory.resolve(BUNDLE + "_fr.properties"), frenchContent, StandardCharsets.ISO_8859_1);
+
+        AtomicInteger calls = new AtomicInteger();
+        ITranslator translator = (text, source, target) -> {
+            calls.incrementAndGet();
+            return text.getText().toUpperCase().replace('A', 'Ä');
+        };
+
+        Map<Locale, Integer> translated = new BundleTranslationPipeline(new BatchTranslator(translator)).translate(directory, BUNDLE, Locale.ENGLISH, TARGETS);
+
+        assertThat(translated).containsEntry(Locale.FRENCH, 1).containsEntry(Locale.GERMAN, 3).containsEntry(Locale.CHINESE, 3);
+        assertThat(calls.get()).isEqualTo(TARGETS.size()); // One batch per language
+
+        Properties french = load(directory.resolve(BUNDLE + "_fr.properties"));
+        assertThat(french).containsEntry("month.JANUARY.name", "Janvier")
+                .containsEntry("month.FEBRUARY.name", "février")
+                .containsEntry("month.MARCH.name", "MÄRCH");
+
+        // The existing content of the language file is kept, the translated keys are appended
+        assertThat(Files.readString(directory.resolve(BUNDLE + "_fr.properties"), StandardCharsets.ISO_8859_1)).isEqualTo(frenchContent + "\nmonth.MARCH.name=M\\u00C4RCH\n");
+
+        Properties german = load(directory.resolve(BUNDLE + "_de.properties"));
+        assertThat(german).hasSize(3).containsEntry("month.JANUARY.name", "JÄNUÄRY");
+        assertThat(Files.readString(directory.resolve(BUNDLE + "_de.properties"), StandardCharsets.ISO_8859_1)).startsWith("month.FEBRUARY.name=FEBRU\\u00C4RY");
+
+        // Nothing left to translate
+        calls.set(0);
+        translated = new BundleTranslationPipeline(new BatchTranslator(translator)).translate(directory, BUNDLE, Locale.ENGLISH, TARGETS);
+        assertThat(translated.values()).containsOnly(0);
+        assertThat(calls.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Cannot translate a missing resource bundle")
+    void testTranslateMissingBundle(final @TempDir Path directory)
+    {
+        BundleTranslationPipeline pipeline = new BundleTranslationPipeline(new BatchTranslator((text, source, target) -> text.getText()));
+
+        assertThrows(TranslationException.class, () -> pipeline.translate(directory, BUNDLE, Locale.ENGLISH, TARGETS));
+    }
+
+    /**
+     * Load a <b>properties</b> file.
+     * @param file File.
+     * @return Properties.
+     * @throws IOException Thrown to indicate the file cannot be read.
+     */
+    private Properties load(final Path file) throws IOException
+    {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1))
+        {
+            Properties properties = new Properties();
+            properties.load(reader);
+
+            return properties;
+        }
+    }
+}
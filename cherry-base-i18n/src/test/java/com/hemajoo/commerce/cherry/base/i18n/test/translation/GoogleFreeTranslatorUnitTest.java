@@ -0,0 +1,404 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.translation;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.I18nManager;
+import com.hemajoo.commerce.cherry.base.i18n.translation.Translation;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslationMemory;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslationScheduler;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslatorRegistry;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.google.GoogleFreeTranslator;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A unit test class for testing the concurrent <b>Google</b> free translator against a local stub server.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class GoogleFreeTranslatorUnitTest
+{
+    /**
+     * Time (in milliseconds) taken by the stub server to answer a request.
+     */
+    private static final long LATENCY = 200;
+
+    /**
+     * Stub translation server.
+     */
+    private HttpServer server;
+
+    /**
+     * Translation service end point of the stub server.
+     */
+    private String endpoint;
+
+    /**
+     * Number of requests received by the stub server.
+     */
+    private final AtomicInteger received = new AtomicInteger();
+
+    /**
+     * Number of requests being processed by the stub server.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Maximum number of requests processed at the same time by the stub server.
+     */
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /**
+     * Maximum number of requests processed at the same time by the stub server per target language.
+     */
+    private final Map<String, AtomicInteger> maxInFlightPerLanguage = new ConcurrentHashMap<>();
+
+    /**
+     * Number of requests being processed by the stub server per target language.
+     */
+    private final Map<String, AtomicInteger> inFlightPerLanguage = new ConcurrentHashMap<>();
+
+    /**
+     * Client ports of the connections the stub server received requests on.
+     */
+    private final Set<Integer> connections = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void startServer() throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/translate", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        endpoint = "http://localhost:" + server.getAddress().getPort() + "/translate";
+    }
+
+    @AfterEach
+    void stopServer()
+    {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Translate texts concurrently")
+    void testConcurrentTranslations() throws Exception
+    {
+        GoogleFreeTranslator translator = new GoogleFreeTranslator(endpoint, 8, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try
+        {
+            long start = System.nanoTime();
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+            {
+                Translation translation = new Translation("Text " + i, Locale.ENGLISH, Locale.FRENCH);
+                results.add(executor.submit(() -> translator.translate(translation, Locale.ENGLISH, Locale.FRENCH)));
+            }
+
+            for (int i = 0; i < 8; i++)
+            {
+                assertThat(results.get(i).get()).isEqualTo("(fr) Text " + i);
+            }
+
+            // Serialized requests would take at least 8 times the latency
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(LATENCY * 4);
+            assertThat(maxInFlight.get()).isGreaterThan(1);
+        }
+        finally
+        {
+            executor.shutdownNow();
+            translator.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Bound the number of concurrent translations")
+    void testBoundedTranslations() throws Exception
+    {
+        GoogleFreeTranslator translator = new GoogleFreeTranslator(endpoint, 4, 2);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        try
+        {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++)
+            {
+                Locale target = i % 2 == 0 ? Locale.FRENCH : Locale.GERMAN;
+                Translation translation = new Translation("Text " + i, Locale.ENGLISH, target);
+                results.add(executor.submit(() -> translator.translate(translation, Locale.ENGLISH, target)));
+            }
+
+            for (Future<String> result : results)
+            {
+                assertThat(result.get()).isNotNull();
+            }
+
+            assertThat(maxInFlight.get()).isLessThanOrEqualTo(4);
+            assertThat(maxInFlightPerLanguage.get("fr").get()).isLessThanOrEqualTo(2);
+            assertThat(maxInFlightPerLanguage.get("de").get()).isLessThanOrEqualTo(2);
+        }
+        finally
+        {
+            executor.shutdownNow();
+            translator.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Translate concurrently through the i18n manager")
+    void testConcurrentManagerTranslations() throws Exception
+    {
+        GoogleFreeTranslator translator = new GoogleFreeTranslator(endpoint, 8, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        I18nManager.getInstance().setTranslator(translator);
+
+        try
+        {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+            {
+                Translation translation = new Translation("Text " + i, Locale.ENGLISH, Locale.ITALIAN);
+                results.add(executor.submit(() -> {
+                    translation.translate();
+                    return translation.getTranslated();
+                }));
+            }
+
+            for (int i = 0; i < 4; i++)
+            {
+                assertThat(results.get(i).get()).isEqualTo("(it) Text " + i);
+            }
+
+            assertThat(maxInFlight.get()).isGreaterThan(1);
+        }
+        finally
+        {
+            I18nManager.getInstance().setTranslator(new TranslationMemory(TranslatorRegistry.load()));
+            executor.shutdownNow();
+            translator.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Cannot translate when the server answers with an error")
+    void testTranslationError() throws IOException, TranslationException
+    {
+        GoogleFreeTranslator translator = new GoogleFreeTranslator(endpoint, 1, 1);
+
+        try
+        {
+            // Connections must be released on error, otherwise the second request would block forever
+            Translation translation = new Translation("error", Locale.ENGLISH, Locale.FRENCH);
+            assertThrows(TranslationException.class, () -> translator.translate(translation, Locale.ENGLISH, Locale.FRENCH));
+            assertThrows(TranslationException.class, () -> translator.translate(translation, Locale.ENGLISH, Locale.FRENCH));
+            assertThat(translator.translate(new Translation("Hello", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH)).isEqualTo("(fr) Hello");
+
+            // The error bodies have been read, so the connection went back to the pool and has been reused
+            assertThat(connections).hasSize(1);
+        }
+        finally
+        {
+            translator.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Translate texts asynchronously")
+    void testAsyncTranslations() throws Exception
+    {
+        GoogleFreeTranslator translator = new GoogleFreeTranslator(endpoint, 8, 8);
+        I18nManager.getInstance().setTranslator(translator);
+
+        try
+        {
+            long start = System.nanoTime();
+            List<Translation> translations = new ArrayList<>();
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+            {
+                // All the translations are started from the same thread, without blocking it
+                Translation translation = new Translation("Text " + i, Locale.ENGLISH, Locale.KOREAN);
+                translations.add(translation);
+                results.add(translation.translateAsync());
+            }
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(LATENCY);
+
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get();
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(LATENCY * 4);
+
+            for (int i = 0; i < 8; i++)
+            {
+                assertThat(results.get(i).get()).isEqualTo("(ko) Text " + i);
+                assertThat(translations.get(i).getTranslated()).isEqualTo("(ko) Text " + i);
+            }
+
+            assertThat(Translation.translateAsync("Hello", Locale.ENGLISH, Locale.KOREAN).get()).isEqualTo("(ko) Hello");
+        }
+        finally
+        {
+            I18nManager.getInstance().setTranslator(new TranslationMemory(TranslatorRegistry.load()));
+            translator.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Time out and cancel asynchronous translations")
+    void testAsyncTimeoutAndCancellation() throws Exception
+    {
+        GoogleFreeTranslator translator = new GoogleFreeTranslator(endpoint, 1, 1);
+        I18nManager.getInstance().setTranslator(translator);
+
+        try
+        {
+            CompletableFuture<String> first = new Translation("First", Locale.ENGLISH, Locale.FRENCH).translateAsync();
+
+            // Both translations are waiting for the only permit, so they never reach the server
+            CompletableFuture<String> timedOut = new Translation("Second", Locale.ENGLISH, Locale.FRENCH).translateAsync(Duration.ofMillis(50));
+            CompletableFuture<String> cancelled = new Translation("Third", Locale.ENGLISH, Locale.FRENCH).translateAsync();
+            assertThat(cancelled.cancel(true)).isTrue();
+
+            ExecutionException exception = assertThrows(ExecutionException.class, timedOut::get);
+            assertThat(exception.getCause()).isInstanceOf(TimeoutException.class);
+            assertThrows(CancellationException.class, cancelled::get);
+
+            assertThat(first.get()).isEqualTo("(fr) First");
+            assertThat(new Translation("Fourth", Locale.ENGLISH, Locale.FRENCH).translateAsync().get()).isEqualTo("(fr) Fourth");
+            assertThat(received.get()).isEqualTo(2);
+
+            // An error of the translation service completes the future exceptionally
+            exception = assertThrows(ExecutionException.class, () -> new Translation("error", Locale.ENGLISH, Locale.FRENCH).translateAsync().get());
+            assertThat(exception.getCause()).isInstanceOf(TranslationException.class);
+        }
+        finally
+        {
+            I18nManager.getInstance().setTranslator(new TranslationMemory(TranslatorRegistry.load()));
+            translator.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Cancel coalesced translations through the translation chain")
+    void testChainCancellation() throws Exception
+    {
+        GoogleFreeTranslator translator = new GoogleFreeTranslator(endpoint, 1, 1);
+        TranslationScheduler scheduler = new TranslationScheduler(translator);
+        TranslatorRegistry registry = new TranslatorRegistry();
+        registry.register("google", scheduler);
+        registry.setDefaultRoute("google");
+        I18nManager.getInstance().setTranslator(new TranslationMemory(registry));
+
+        try
+        {
+            CompletableFuture<String> first = new Translation("First", Locale.ENGLISH, Locale.FRENCH).translateAsync();
+
+            // Both callers share a single request waiting for the only permit
+            CompletableFuture<String> cancelled = new Translation("Second", Locale.ENGLISH, Locale.FRENCH).translateAsync();
+            CompletableFuture<String> timedOut = new Translation("Second", Locale.ENGLISH, Locale.FRENCH).translateAsync(Duration.ofMillis(20));
+
+            // A request keeps running while it has callers
+            CompletableFuture<String> kept = new Translation("Third", Locale.ENGLISH, Locale.FRENCH).translateAsync();
+            assertThat(new Translation("Third", Locale.ENGLISH, Locale.FRENCH).translateAsync().cancel(true)).isTrue();
+
+            assertThat(cancelled.cancel(true)).isTrue();
+            ExecutionException exception = assertThrows(ExecutionException.class, timedOut::get);
+            assertThat(exception.getCause()).isInstanceOf(TimeoutException.class);
+
+            assertThat(first.get()).isEqualTo("(fr) First");
+            assertThat(kept.get()).isEqualTo("(fr) Third");
+
+            // Once its last caller has been detached, the request is dropped before reaching the server
+            assertThat(received.get()).isEqualTo(2);
+            assertThat(new Translation("Second", Locale.ENGLISH, Locale.FRENCH).translateAsync().get()).isEqualTo("(fr) Second");
+            assertThat(received.get()).isEqualTo(3);
+        }
+        finally
+        {
+            I18nManager.getInstance().setTranslator(new TranslationMemory(TranslatorRegistry.load()));
+            scheduler.close();
+            translator.destroy();
+        }
+    }
+
+    /**
+     * Handle a translation request of the stub server.
+     * @param exchange Http exchange.
+     * @throws IOException Thrown to indicate an error occurred while answering the request.
+     */
+    private void handle(final HttpExchange exchange) throws IOException
+    {
+        Map<String, String> parameters = new ConcurrentHashMap<>();
+        for (String parameter : exchange.getRequestURI().getRawQuery().split("&"))
+        {
+            String[] pair = parameter.split("=", 2);
+            parameters.put(pair[0], URLDecoder.decode(pair[1], StandardCharsets.UTF_8));
+        }
+
+        received.incrementAndGet();
+        connections.add(exchange.getRemoteAddress().getPort());
+        String language = parameters.get("tl");
+        AtomicInteger languageInFlight = inFlightPerLanguage.computeIfAbsent(language, k -> new AtomicInteger());
+        AtomicInteger languageMaxInFlight = maxInFlightPerLanguage.computeIfAbsent(language, k -> new AtomicInteger());
+
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        languageMaxInFlight.accumulateAndGet(languageInFlight.incrementAndGet(), Math::max);
+
+        try
+        {
+            Thread.sleep(LATENCY);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            languageInFlight.decrementAndGet();
+            inFlight.decrementAndGet();
+        }
+
+        boolean error = "error".equals(parameters.get("q"));
+        byte[] body = error ? "Error".getBytes(StandardCharsets.UTF_8) : ("[\"(" + language + ") " + parameters.get("q") + "\"]").getBytes(StandardCharsets.UTF_8);
+
+        exchange.sendResponseHeaders(error ? 500 : 200, body.length);
+        try (OutputStream output = exchange.getResponseBody())
+        {
+            output.write(body);
+        }
+    }
+}
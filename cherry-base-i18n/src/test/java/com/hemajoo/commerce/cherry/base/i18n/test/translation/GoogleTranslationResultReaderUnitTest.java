@@ -0,0 +1,99 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.translation;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.ITranslationResultSentence;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.google.GoogleTranslationResult;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.google.GoogleTranslationResultReader;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A unit test class for testing the streaming reader of the <b>Google</b> translation responses.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class GoogleTranslationResultReaderUnitTest
+{
+    @Test
+    @DisplayName("Read a translation response as UTF-8")
+    void testReadTranslation() throws TranslationException
+    {
+        byte[] body = "[\"Il a dit \\\"ça\\\" \\u00e0 l'été [\\\"null\\\"]\"]".getBytes(StandardCharsets.UTF_8);
+        List<GoogleTranslationResult> results = GoogleTranslationResultReader.read(new ByteArrayInputStream(body));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getTranslation()).isEqualTo("Il a dit \"ça\" à l'été [\"null\"]");
+    }
+
+    @Test
+    @DisplayName("Read a batched translation response")
+    void testReadBatchedTranslations() throws TranslationException
+    {
+        List<GoogleTranslationResult> results = GoogleTranslationResultReader.read(new StringReader("[\"Bonjour\",\"Au revoir\"]"));
+        assertThat(results).extracting(GoogleTranslationResult::getTranslation).containsExactly("Bonjour", "Au revoir");
+
+        results = GoogleTranslationResultReader.read(new StringReader("[[\"Bonjour\",\"en\"],[\"Au revoir\",\"en\",\"extra\"]]"));
+        assertThat(results).extracting(GoogleTranslationResult::getTranslation).containsExactly("Bonjour", "Au revoir");
+        assertThat(results).extracting(GoogleTranslationResult::getSource).containsExactly("en", "en");
+
+        assertThat(GoogleTranslationResultReader.read(new StringReader("[]"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Read a multi-sentence translation response")
+    void testReadSentences() throws TranslationException
+    {
+        String body = "[[[\"Bonjour. \",\"Hello. \",null,null,10],[\"Comment allez-vous ?\",\"How are you?\",null,null,10],[null,null,\"Bonjour\"]],null,\"en\",null,null,null,1.0,[]]";
+        List<GoogleTranslationResult> results = GoogleTranslationResultReader.read(new StringReader(body));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getSentences()).hasSize(3);
+        assertThat(results.get(0).getSentences()).extracting(ITranslationResultSentence::getOriginal).containsExactly("Hello. ", "How are you?", null);
+        assertThat(results.get(0).getTranslation()).isEqualTo("Bonjour. Comment allez-vous ?");
+        assertThat(results.get(0).getSource()).isEqualTo("en");
+    }
+
+    @Test
+    @DisplayName("Read a translation response object")
+    void testReadResultObject() throws TranslationException
+    {
+        String body = "{\"sentences\":[{\"trans\":\"Bonjour. \",\"orig\":\"Hello. \",\"backend\":1},{\"trans\":\"Merci\",\"orig\":\"Thanks\",\"backend\":1}],\"dict\":[{\"pos\":\"noun\"}],\"src\":\"en\",\"confidence\":0.75}";
+        List<GoogleTranslationResult> results = GoogleTranslationResultReader.read(new StringReader(body));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getTranslation()).isEqualTo("Bonjour. Merci");
+        assertThat(results.get(0).getSource()).isEqualTo("en");
+        assertThat(results.get(0).getConfidence()).isEqualTo(0.75);
+    }
+
+    @Test
+    @DisplayName("Cannot read a malformed translation response")
+    void testReadMalformedResponse()
+    {
+        assertThrows(TranslationException.class, () -> GoogleTranslationResultReader.read(new StringReader("[\"Bonjour\"")));
+        assertThrows(TranslationException.class, () -> GoogleTranslationResultReader.read(new StringReader("\"Bonjour\"")));
+        assertThrows(TranslationException.class, () -> GoogleTranslationResultReader.read(new StringReader("[\"Bonjour\",[\"Au revoir\"]]")));
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.translation;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.PropertiesParser;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslationRequest;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A unit test class for testing the streaming <b>properties</b> parser.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class PropertiesParserUnitTest
+{
+    /**
+     * Testing purpose properties content.
+     */
+    private static final String CONTENT = "# A comment\n"
+            + "   ! Another comment\n"
+            + "\n"
+            + "month.AUGUST.name=ao\\u00FBt\n"
+            + "  url = https://www.hemajoo.com/?a=b&c=d\n"
+            + "colon:value\r\n"
+            + "space value with spaces  \r\n"
+            + "key\\ with\\ spaces\\=and\\:separators = value\n"
+            + "multi.line = first, \\\n"
+            + "             second, \\\r\n"
+            + "             third\n"
+            + "escapes=tab\\tnew line\\nbackslash\\\\ end\n"
+            + "even.backslashes=value\\\\\n"
+            + "next=not a continuation\n"
+            + "empty=\n"
+            + "key.only\n"
+            + "last=no line terminator\\";
+
+    @Test
+    @DisplayName("Parse properties content the same way as java.util.Properties")
+    void testParseProperties() throws TranslationException, IOException
+    {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        PropertiesParser.parse(new StringReader(CONTENT), parsed::put);
+
+        Properties expected = new Properties();
+        expected.load(new StringReader(CONTENT));
+
+        assertThat(parsed).hasSize(expected.size());
+        for (String key : expected.stringPropertyNames())
+        {
+            assertThat(parsed).containsEntry(key, expected.getProperty(key));
+        }
+
+        assertThat(parsed).containsEntry("url", "https://www.hemajoo.com/?a=b&c=d")
+                .containsEntry("multi.line", "first, second, third")
+                .containsEntry("month.AUGUST.name", "août");
+    }
+
+    @Test
+    @DisplayName("Parse large properties content in a single pass")
+    void testParseLargeProperties() throws TranslationException
+    {
+        int count = 100_000;
+        AtomicInteger parsed = new AtomicInteger();
+
+        // Content is generated on the fly, it is never held in memory as a whole
+        PropertiesParser.parse(new GeneratedReader(count), (key, value) -> {
+            assertThat(value).isEqualTo("Value number " + key.substring(4) + " = ok");
+            parsed.incrementAndGet();
+        });
+
+        assertThat(parsed.get()).isEqualTo(count);
+    }
+
+    @Test
+    @DisplayName("Set the properties of a translation request")
+    void testTranslationRequestProperties() throws TranslationException
+    {
+        TranslationRequest request = new TranslationRequest();
+        request.setSourceProperties("single=Value with = sign");
+        request.setTargetProperties(new StringReader(CONTENT));
+
+        assertThat(request.getSources()).containsExactly(Map.entry("single", "Value with = sign"));
+        assertThat(request.getTarget("multi.line")).isEqualTo("first, second, third");
+    }
+
+    @Test
+    @DisplayName("Cannot parse malformed unicode escapes")
+    void testParseMalformedProperties()
+    {
+        assertThrows(TranslationException.class, () -> PropertiesParser.parse(new StringReader("key=\\u00G1"), (key, value) -> {}));
+        assertThrows(TranslationException.class, () -> PropertiesParser.parse(new StringReader("key=\\u00"), (key, value) -> {}));
+    }
+
+    /**
+     * A reader generating properties content.
+     */
+    private static final class GeneratedReader extends Reader
+    {
+        /**
+         * Number of entries to generate.
+         */
+        private final int count;
+
+        /**
+         * Index of the current entry.
+         */
+        private int index;
+
+        /**
+         * Current entry.
+         */
+        private String entry = "";
+
+        /**
+         * Position in the current entry.
+         */
+        private int position;
+
+        /**
+         * Create a generated reader.
+         * @param count Number of entries to generate.
+         */
+        private GeneratedReader(final int count)
+        {
+            this.count = count;
+        }
+
+        @Override
+        public int read(final char[] buffer, final int offset, final int length)
+        {
+            if (position == entry.length())
+            {
+                if (index == count)
+                {
+                    return -1;
+                }
+
+                entry = "key." + index + " = Value number " + index + " \\\n    = ok\n";
+                index++;
+                position = 0;
+            }
+
+            int read = Math.min(length, entry.length() - position);
+            entry.getChars(position, position + read, buffer, offset);
+            position += read;
+
+            return read;
+        }
+
+        @Override
+        public void close()
+        {
+            // Nothing to close.
+        }
+    }
+}
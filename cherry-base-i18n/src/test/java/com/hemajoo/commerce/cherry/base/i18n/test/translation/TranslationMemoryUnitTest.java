@@ -0,0 +1,175 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.translation;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.Translation;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.ITranslator;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslationMemory;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import lombok.NonNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A unit test class for testing the translation memory.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class TranslationMemoryUnitTest
+{
+    /**
+     * Testing purpose product description.
+     */
+    private static final String DESCRIPTION = "A lightweight jacket, perfect for spring evenings.";
+
+    @Test
+    @DisplayName("Translate a text only once")
+    void testTranslateOnce() throws TranslationException
+    {
+        CountingTranslator translator = new CountingTranslator();
+        TranslationMemory memory = new TranslationMemory(translator);
+
+        assertThat(translate(memory, DESCRIPTION, Locale.FRENCH)).isEqualTo("fr:" + DESCRIPTION);
+        assertThat(translate(memory, "  A lightweight   jacket, perfect for spring evenings. ", Locale.FRENCH)).isEqualTo("fr:" + DESCRIPTION);
+        assertThat(translator.calls.get()).isEqualTo(1);
+
+        assertThat(translate(memory, DESCRIPTION, Locale.GERMAN)).isEqualTo("de:" + DESCRIPTION);
+        assertThat(translator.calls.get()).isEqualTo(2);
+        assertThat(memory.getTranslationCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Keep translations across restarts")
+    void testPersistentMemory(final @TempDir Path directory) throws Exception
+    {
+        Path file = directory.resolve("translations.tm");
+
+        CountingTranslator translator = new CountingTranslator();
+        try (TranslationMemory memory = new TranslationMemory(translator, 1, file))
+        {
+            for (int i = 0; i < 10; i++)
+            {
+                translate(memory, DESCRIPTION + " " + i, Locale.FRENCH);
+            }
+
+            // Evicted from memory but still in the file
+            assertThat(translate(memory, DESCRIPTION + " 0", Locale.FRENCH)).isEqualTo("fr:" + DESCRIPTION + " 0");
+            assertThat(translator.calls.get()).isEqualTo(10);
+        }
+
+        // Simulate a record partially written when the process has been stopped
+        Files.write(file, new byte[] { 0, 0, 0, 42, 1, 2 }, StandardOpenOption.APPEND);
+
+        translator = new CountingTranslator();
+        try (TranslationMemory memory = new TranslationMemory(translator, 100, file))
+        {
+            for (int i = 0; i < 10; i++)
+            {
+                assertThat(translate(memory, DESCRIPTION + " " + i, Locale.FRENCH)).isEqualTo("fr:" + DESCRIPTION + " " + i);
+            }
+            assertThat(translator.calls.get()).isZero();
+
+            translate(memory, "Another description.", Locale.FRENCH);
+            assertThat(translator.calls.get()).isEqualTo(1);
+        }
+
+        try (TranslationMemory memory = new TranslationMemory(new CountingTranslator(), 100, file))
+        {
+            assertThat(translate(memory, "Another description.", Locale.FRENCH)).isEqualTo("fr:Another description.");
+        }
+    }
+
+    @Test
+    @DisplayName("Coalesce concurrent translations of the same text")
+    void testCoalesceTranslations() throws Exception
+    {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+        ITranslator translator = new ITranslator()
+        {
+            @Override
+            public String translate(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+            {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<String> translateAsync(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+            {
+                calls.incrementAndGet();
+                return response;
+            }
+        };
+
+        TranslationMemory memory = new TranslationMemory(translator);
+        List<CompletableFuture<String>> translations = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+        {
+            translations.add(memory.translateAsync(new Translation(DESCRIPTION, Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH));
+        }
+
+        response.complete("Une veste légère");
+        for (CompletableFuture<String> translation : translations)
+        {
+            assertThat(translation.get()).isEqualTo("Une veste légère");
+        }
+
+        assertThat(memory.translateAsync(new Translation(DESCRIPTION, Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH).get()).isEqualTo("Une veste légère");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    /**
+     * Translate a text from english.
+     * @param memory Translation memory.
+     * @param text Text.
+     * @param target Target locale.
+     * @return Translated text.
+     * @throws TranslationException Thrown to indicate an error occurred while translating the text.
+     */
+    private String translate(final TranslationMemory memory, final String text, final Locale target) throws TranslationException
+    {
+        return memory.translate(new Translation(text, Locale.ENGLISH, target), Locale.ENGLISH, target);
+    }
+
+    /**
+     * A translator counting its translations.
+     */
+    private static final class CountingTranslator implements ITranslator
+    {
+        /**
+         * Number of translations.
+         */
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String translate(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+        {
+            calls.incrementAndGet();
+            return target.getLanguage() + ":" + text.getText().trim().replaceAll("\\s+", " ");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.translation;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslationRequest;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslationRequestEntry;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A unit test class for testing the <b>TranslationRequest</b> entity.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class TranslationRequestUnitTest
+{
+    @Test
+    @DisplayName("Lookup the entries of a translation request")
+    void testLookupEntries() throws TranslationException
+    {
+        int count = 100_000;
+        TranslationRequest request = new TranslationRequest();
+        for (int i = 0; i < count; i++)
+        {
+            request.addEntry(new TranslationRequestEntry("key." + i, "Source " + (i % 1_000), i % 2 == 0));
+        }
+
+        assertThat(request.getEntries()).hasSize(count);
+        assertThat(request.getCount()).isEqualTo(count / 2);
+
+        // Merge the translations of all the entries requiring a translation
+        for (int i = 0; i < count; i += 2)
+        {
+            request.getEntry("key." + i).setTranslated("Translation " + i);
+        }
+
+        assertThat(request.getCount()).isZero();
+        assertThat(request.getEntry("key.42").getTranslation()).isEqualTo("Translation 42");
+        assertThat(request.findEntryKeyFor("Source 7").getKey()).isEqualTo("key.7");
+
+        assertThrows(TranslationException.class, () -> request.getEntry("key.does-not-exist"));
+        assertThrows(TranslationException.class, () -> request.findEntryKeyFor("Source does-not-exist"));
+    }
+
+    @Test
+    @DisplayName("Count the entries requiring a translation")
+    void testPendingEntries() throws TranslationException
+    {
+        TranslationRequest request = new TranslationRequest();
+        request.setSourceProperties("key.1=First\nkey.2=Second\n");
+
+        TranslationRequestEntry first = new TranslationRequestEntry("key.1", "First", true);
+        request.addEntry(first);
+        request.addEntry(new TranslationRequestEntry("key.2", "Second", false));
+        assertThat(request.getCount()).isEqualTo(1);
+
+        // Translating an entry twice only counts once
+        first.setTranslated("Premier");
+        first.setTranslated("Premier");
+        assertThat(request.getCount()).isZero();
+
+        TranslationRequestEntry duplicate = new TranslationRequestEntry("key.1", "First", true);
+        assertThrows(IllegalArgumentException.class, () -> request.addEntry(duplicate));
+        assertThrows(UnsupportedOperationException.class, () -> request.getEntries().add(duplicate));
+    }
+}
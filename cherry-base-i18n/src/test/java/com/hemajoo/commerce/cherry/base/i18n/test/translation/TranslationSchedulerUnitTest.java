@@ -0,0 +1,375 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.translation;
+
+import com.hemajoo.commerce.cherry.base.i18n.localization.I18nManager;
+import com.hemajoo.commerce.cherry.base.i18n.translation.Translation;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.ITranslator;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslationMemory;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslationScheduler;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.TranslatorRegistry;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.google.GoogleFreeTranslator;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationServiceException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A unit test class for testing the translation scheduler against a local fake translation server.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class TranslationSchedulerUnitTest
+{
+    /**
+     * Time (in milliseconds) taken by the fake server to answer a request.
+     */
+    private static final long LATENCY = 50;
+
+    /**
+     * Fake translation server.
+     */
+    private HttpServer server;
+
+    /**
+     * Translation service end point of the fake server.
+     */
+    private String endpoint;
+
+    /**
+     * Number of requests received by the fake server.
+     */
+    private final AtomicInteger received = new AtomicInteger();
+
+    /**
+     * Status codes of the next answers of the fake server (<b>200</b> once empty).
+     */
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Status code of the answers of the fake server once the status codes queue is empty.
+     */
+    private volatile int status = 200;
+
+    @BeforeEach
+    void startServer() throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/translate", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        endpoint = "http://localhost:" + server.getAddress().getPort() + "/translate";
+    }
+
+    @AfterEach
+    void stopServer()
+    {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Retry translations rejected by a rate limiting service")
+    void testRetryTranslations() throws Exception
+    {
+        GoogleFreeTranslator translator = new GoogleFreeTranslator(endpoint, 8, 8);
+        statuses.add(429);
+        statuses.add(503);
+
+        try (TranslationScheduler scheduler = TranslationScheduler.builder()
+                .withTranslator(translator)
+                .withBaseDelay(Duration.ofMillis(20))
+                .build())
+        {
+            Translation translation = new Translation("Hello", Locale.ENGLISH, Locale.FRENCH);
+            assertThat(scheduler.translate(translation, Locale.ENGLISH, Locale.FRENCH)).isEqualTo("(fr) Hello");
+
+            assertThat(received.get()).isEqualTo(3);
+            assertThat(scheduler.getRetryCount()).isEqualTo(2);
+            assertThat(scheduler.getCircuitState()).isEqualTo(TranslationScheduler.CircuitState.CLOSED);
+
+            // Client errors are not retried
+            statuses.add(400);
+            assertThrows(TranslationServiceException.class, () -> scheduler.translate(translation, Locale.ENGLISH, Locale.FRENCH));
+            assertThat(received.get()).isEqualTo(4);
+        }
+        finally
+        {
+            translator.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Fail fast while the translation service is degraded")
+    void testCircuitBreaker() throws Exception
+    {
+        GoogleFreeTranslator translator = new GoogleFreeTranslator(endpoint, 8, 8);
+        status = 503;
+
+        try (TranslationScheduler scheduler = TranslationScheduler.builder()
+                .withTranslator(translator)
+                .withMaxRetries(0)
+                .withFailureThreshold(3)
+                .withOpenDuration(Duration.ofSeconds(2))
+                .build())
+        {
+            for (int i = 0; i < 3; i++)
+            {
+                Translation translation = new Translation("Text " + i, Locale.ENGLISH, Locale.FRENCH);
+                assertThrows(TranslationServiceException.class, () -> scheduler.translate(translation, Locale.ENGLISH, Locale.FRENCH));
+            }
+            assertThat(scheduler.getCircuitState()).isEqualTo(TranslationScheduler.CircuitState.OPEN);
+
+            // The request fails without reaching the service
+            Translation translation = new Translation("Hello", Locale.ENGLISH, Locale.FRENCH);
+            TranslationException exception = assertThrows(TranslationException.class, () -> scheduler.translate(translation, Locale.ENGLISH, Locale.FRENCH));
+            assertThat(exception).isNotInstanceOf(TranslationServiceException.class);
+            assertThat(received.get()).isEqualTo(3);
+            assertThat(scheduler.getRejectionCount()).isEqualTo(1);
+
+            // Once the open duration has elapsed, a successful trial request closes the circuit breaker
+            status = 200;
+            Thread.sleep(2100);
+            assertThat(scheduler.translate(translation, Locale.ENGLISH, Locale.FRENCH)).isEqualTo("(fr) Hello");
+            assertThat(scheduler.getCircuitState()).isEqualTo(TranslationScheduler.CircuitState.CLOSED);
+            assertThat(received.get()).isEqualTo(4);
+        }
+        finally
+        {
+            translator.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Throttle the translations sent to the translation service")
+    void testRateLimit() throws Exception
+    {
+        GoogleFreeTranslator translator = new GoogleFreeTranslator(endpoint, 8, 8);
+
+        try (TranslationScheduler scheduler = TranslationScheduler.builder()
+                .withTranslator(translator)
+                .withRate(20D)
+                .withBurst(1)
+                .build())
+        {
+            long start = System.nanoTime();
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++)
+            {
+                results.add(scheduler.translateAsync(new Translation("Text " + i, Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH));
+            }
+            assertThat(scheduler.getQueueDepth()).isEqualTo(5);
+
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get();
+
+            // 5 requests wait for a token generated every 50 ms
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(240);
+            assertThat(scheduler.getQueueDepth()).isZero();
+            assertThat(scheduler.getWaitTime()).isGreaterThan(Duration.ofMillis(500));
+            assertThat(received.get()).isEqualTo(6);
+        }
+        finally
+        {
+            translator.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Cancel the translation call in flight on the translator")
+    void testCancelledTranslation() throws Exception
+    {
+        // A single connection, the second call waits for the first one to complete
+        GoogleFreeTranslator translator = new GoogleFreeTranslator(endpoint, 1, 1);
+
+        try (TranslationScheduler scheduler = new TranslationScheduler(translator))
+        {
+            CompletableFuture<String> first = scheduler.translateAsync(new Translation("First", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH);
+            CompletableFuture<String> second = scheduler.translateAsync(new Translation("Second", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH);
+            assertThat(scheduler.getRequestCount()).isEqualTo(2);
+
+            assertThat(second.cancel(true)).isTrue();
+            assertThat(first.get()).isEqualTo("(fr) First");
+
+            // The cancelled call never reaches the server
+            assertThat(scheduler.translate(new Translation("Third", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH)).isEqualTo("(fr) Third");
+            assertThat(received.get()).isEqualTo(2);
+        }
+        finally
+        {
+            translator.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Release the trial of the half open circuit breaker only for the request it has been granted to")
+    void testCancelledRequestKeepsTrial() throws Exception
+    {
+        PendingTranslator translator = new PendingTranslator();
+
+        try (TranslationScheduler scheduler = TranslationScheduler.builder()
+                .withTranslator(translator)
+                .withMaxRetries(0)
+                .withFailureThreshold(1)
+                .withOpenDuration(Duration.ofMillis(100))
+                .build())
+        {
+            CompletableFuture<String> stale = scheduler.translateAsync(new Translation("Stale", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH);
+            CompletableFuture<String> failing = scheduler.translateAsync(new Translation("Failing", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH);
+            translator.calls.get(1).completeExceptionally(new TranslationServiceException("Unavailable", 503, null));
+            assertThat(failing).isCompletedExceptionally();
+            assertThat(scheduler.getCircuitState()).isEqualTo(TranslationScheduler.CircuitState.OPEN);
+
+            Thread.sleep(150);
+            CompletableFuture<String> trial = scheduler.translateAsync(new Translation("Trial", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH);
+            assertThat(scheduler.getCircuitState()).isEqualTo(TranslationScheduler.CircuitState.HALF_OPEN);
+
+            // Cancelling a request sent before the circuit breaker opened does not release the trial
+            assertThat(stale.cancel(true)).isTrue();
+            Translation translation = new Translation("Hello", Locale.ENGLISH, Locale.FRENCH);
+            assertThrows(TranslationException.class, () -> scheduler.translate(translation, Locale.ENGLISH, Locale.FRENCH));
+            assertThat(translator.calls).hasSize(3);
+            assertThat(scheduler.getRejectionCount()).isEqualTo(1);
+
+            // Cancelling the trial request releases it
+            assertThat(trial.cancel(true)).isTrue();
+            CompletableFuture<String> next = scheduler.translateAsync(translation, Locale.ENGLISH, Locale.FRENCH);
+            assertThat(translator.calls).hasSize(4);
+            translator.calls.get(3).complete("Bonjour");
+            assertThat(next.get()).isEqualTo("Bonjour");
+            assertThat(scheduler.getCircuitState()).isEqualTo(TranslationScheduler.CircuitState.CLOSED);
+        }
+    }
+
+    @Test
+    @DisplayName("Close the translation chain replaced on the manager")
+    void testCloseReplacedTranslator()
+    {
+        PendingTranslator translator = new PendingTranslator();
+        TranslatorRegistry registry = new TranslatorRegistry();
+        registry.register("pending", new TranslationScheduler(translator));
+
+        I18nManager.getInstance().setTranslator(new TranslationMemory(registry));
+        assertThat(translator.closed).isFalse();
+
+        I18nManager.getInstance().setTranslator(new TranslationMemory(TranslatorRegistry.load()));
+        assertThat(translator.closed).isTrue();
+    }
+
+    /**
+     * Handle a translation request of the fake server.
+     * @param exchange Http exchange.
+     * @throws IOException Thrown to indicate an error occurred while answering the request.
+     */
+    private void handle(final HttpExchange exchange) throws IOException
+    {
+        String language = null;
+        String text = null;
+        for (String parameter : exchange.getRequestURI().getRawQuery().split("&"))
+        {
+            String[] pair = parameter.split("=", 2);
+            if ("tl".equals(pair[0]))
+            {
+                language = pair[1];
+            }
+            else if ("q".equals(pair[0]))
+            {
+                text = URLDecoder.decode(pair[1], StandardCharsets.UTF_8);
+            }
+        }
+
+        received.incrementAndGet();
+
+        try
+        {
+            Thread.sleep(LATENCY);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        Integer next = statuses.poll();
+        int code = next != null ? next : status;
+        byte[] body = code == 200 ? ("[\"(" + language + ") " + text + "\"]").getBytes(StandardCharsets.UTF_8) : "Error".getBytes(StandardCharsets.UTF_8);
+
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream output = exchange.getResponseBody())
+        {
+            output.write(body);
+        }
+    }
+
+    /**
+     * A translator whose calls are completed by the test.
+     */
+    private static final class PendingTranslator implements ITranslator
+    {
+        /**
+         * Calls sent to the translator.
+         */
+        private final List<CompletableFuture<String>> calls = new CopyOnWriteArrayList<>();
+
+        /**
+         * Has the translator been closed?
+         */
+        private volatile boolean closed;
+
+        @Override
+        public String translate(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target) throws TranslationException
+        {
+            return TranslationException.await(translateAsync(text, source, target));
+        }
+
+        @Override
+        public CompletableFuture<String> translateAsync(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+        {
+            CompletableFuture<String> call = new CompletableFuture<>();
+            calls.add(call);
+
+            return call;
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+    }
+}
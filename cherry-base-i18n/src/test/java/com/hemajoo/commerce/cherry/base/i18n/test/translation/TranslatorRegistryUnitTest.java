@@ -0,0 +1,173 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.i18n.test.translation;
+
+import com.hemajoo.commerce.cherry.base.i18n.translation.Translation;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.*;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.google.GoogleFreeTranslator;
+import com.hemajoo.commerce.cherry.base.i18n.translation.engine.google.GoogleFreeTranslatorProvider;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationException;
+import com.hemajoo.commerce.cherry.base.i18n.translation.exception.TranslationNotFoundException;
+import lombok.NonNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A unit test class for testing the translator engines registry.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class TranslatorRegistryUnitTest
+{
+    /**
+     * Temporary directory holding the dictionaries.
+     */
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Translate from a dictionary and fall back to a remote translator")
+    void testDictionaryFallback() throws TranslationException, IOException, ExecutionException, InterruptedException
+    {
+        Files.writeString(directory.resolve("en_fr.properties"), "Hello=Bonjour\nGood\\ morning=Bonjour le matin\nSummer=Été\n", StandardCharsets.UTF_8);
+
+        AtomicInteger remoteCalls = new AtomicInteger();
+        TranslatorRegistry registry = new TranslatorRegistry();
+        registry.register("dictionary", new DictionaryTranslator(directory));
+        registry.register("remote", (text, source, target) -> {
+            remoteCalls.incrementAndGet();
+            return "(" + target.getLanguage() + ") " + text.getText();
+        });
+        registry.setDefaultRoute("dictionary", "remote");
+
+        assertThat(registry.translate(new Translation("Hello", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH)).isEqualTo("Bonjour");
+        assertThat(registry.translate(new Translation("Good morning", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH)).isEqualTo("Bonjour le matin");
+        assertThat(registry.translateAsync(new Translation("Summer", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH).get()).isEqualTo("Été");
+        assertThat(remoteCalls.get()).isZero();
+
+        // Misses are translated by the remote translator
+        assertThat(registry.translate(new Translation("Goodbye", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH)).isEqualTo("(fr) Goodbye");
+        assertThat(registry.translateAsync(new Translation("Hello", Locale.ENGLISH, Locale.GERMAN), Locale.ENGLISH, Locale.GERMAN).get()).isEqualTo("(de) Hello");
+        assertThat(remoteCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Route translations according to their language pair")
+    void testLanguagePairRoutes() throws TranslationException
+    {
+        DictionaryTranslator dictionary = new DictionaryTranslator();
+        dictionary.put("Hello", Locale.ENGLISH, Locale.ITALIAN, "Ciao");
+
+        TranslatorRegistry registry = new TranslatorRegistry();
+        registry.register("dictionary", dictionary);
+        registry.register("remote", (text, source, target) -> "(" + target.getLanguage() + ") " + text.getText());
+        registry.setDefaultRoute("remote");
+        registry.route(Locale.ENGLISH, Locale.ITALIAN, "dictionary");
+
+        assertThat(registry.translate(new Translation("Hello", Locale.ENGLISH, Locale.ITALIAN), Locale.ENGLISH, Locale.ITALIAN)).isEqualTo("Ciao");
+        assertThat(registry.translate(new Translation("Hello", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH)).isEqualTo("(fr) Hello");
+
+        // The route of the language pair only contains the dictionary
+        Translation missing = new Translation("Goodbye", Locale.ENGLISH, Locale.ITALIAN);
+        assertThrows(TranslationNotFoundException.class, () -> registry.translate(missing, Locale.ENGLISH, Locale.ITALIAN));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> registry.translateAsync(missing, Locale.ENGLISH, Locale.ITALIAN).get());
+        assertThat(exception.getCause()).isInstanceOf(TranslationNotFoundException.class);
+
+        assertThrows(TranslationException.class, () -> registry.route(Locale.ENGLISH, Locale.GERMAN, "unknown"));
+    }
+
+    @Test
+    @DisplayName("Cancel the translation of the translator engine being asked")
+    void testCancelledTranslation() throws TranslationException
+    {
+        List<CompletableFuture<String>> calls = new CopyOnWriteArrayList<>();
+        ITranslator remote = new ITranslator()
+        {
+            @Override
+            public String translate(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+            {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<String> translateAsync(final @NonNull Translation text, final @NonNull Locale source, final @NonNull Locale target)
+            {
+                CompletableFuture<String> call = new CompletableFuture<>();
+                calls.add(call);
+                return call;
+            }
+        };
+
+        TranslatorRegistry registry = new TranslatorRegistry();
+        registry.register("dictionary", new DictionaryTranslator());
+        registry.register("remote", remote);
+        registry.setDefaultRoute("remote");
+        registry.route(Locale.ENGLISH, Locale.ITALIAN, "dictionary", "remote");
+
+        // Single engine route
+        CompletableFuture<String> translation = registry.translateAsync(new Translation("Hello", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH);
+        assertThat(translation.cancel(true)).isTrue();
+        assertThat(calls).hasSize(1);
+        assertThat(calls.get(0)).isCancelled();
+
+        // The dictionary misses the text, the remote engine asked in fall back is cancelled
+        translation = registry.translateAsync(new Translation("Hello", Locale.ENGLISH, Locale.ITALIAN), Locale.ENGLISH, Locale.ITALIAN);
+        assertThat(calls).hasSize(2);
+        assertThat(translation.cancel(true)).isTrue();
+        assertThat(calls.get(1)).isCancelled();
+    }
+
+    @Test
+    @DisplayName("Discover the translator engines")
+    void testDiscoverEngines() throws TranslationException, IOException
+    {
+        TranslatorRegistry registry = TranslatorRegistry.load();
+        assertThat(registry.getNames()).containsExactly(GoogleFreeTranslatorProvider.NAME);
+        assertThat(registry.getRoute(Locale.ENGLISH, Locale.FRENCH)).hasSize(1);
+        assertThat(registry.getTranslator(GoogleFreeTranslatorProvider.NAME)).isInstanceOf(TranslationScheduler.class);
+        assertThat(((TranslationScheduler) registry.getTranslator(GoogleFreeTranslatorProvider.NAME)).getTranslator()).isInstanceOf(GoogleFreeTranslator.class);
+
+        Files.writeString(directory.resolve("en_fr.properties"), "Hello=Bonjour\n", StandardCharsets.UTF_8);
+        System.setProperty(DictionaryTranslatorProvider.DIRECTORY_PROPERTY, directory.toString());
+
+        try
+        {
+            // The offline engine comes first in the default route
+            registry = TranslatorRegistry.load();
+            assertThat(registry.getNames()).containsExactlyInAnyOrder(DictionaryTranslatorProvider.NAME, GoogleFreeTranslatorProvider.NAME);
+            assertThat(registry.getRoute(Locale.ENGLISH, Locale.FRENCH).get(0)).isInstanceOf(DictionaryTranslator.class);
+            assertThat(registry.translate(new Translation("Hello", Locale.ENGLISH, Locale.FRENCH), Locale.ENGLISH, Locale.FRENCH)).isEqualTo("Bonjour");
+        }
+        finally
+        {
+            System.clearProperty(DictionaryTranslatorProvider.DIRECTORY_PROPERTY);
+        }
+    }
+}
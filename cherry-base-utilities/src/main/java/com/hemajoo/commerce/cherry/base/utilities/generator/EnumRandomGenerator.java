@@ -16,12 +16,19 @@ package com.hemajoo.commerce.cherry.base.utilities.generator;
 
 import lombok.NonNull;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Generator for random enumerated values.
+ * <br>
+ * By default, all the enumerated values have the same probability to be generated. A value can be given a weight
+ * (see {@link #weight(Enum, double)}) to generate realistic distributions, or excluded (see {@link #exclude(Enum)}).
+ * <br>
+ * The values that can be generated and their probabilities are precomputed (using the alias method) the first time a
+ * value is generated after a change, so a value is then generated in constant time without any allocation. A generator
+ * can be shared by several threads once it has been configured.
  * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
  * @version 1.0.0
  */
@@ -33,24 +40,19 @@ public final class EnumRandomGenerator
     private final Class<? extends Enum<?>> enumClass;
 
     /**
-     * Random number generator.
+     * Enumerated values (indexed by ordinal).
      */
-    private final Random generator;
+    private final Enum<?>[] constants;
 
     /**
-     * Minimal value.
+     * Weights of the enumerated values (indexed by ordinal, a weight of <b>0</b> excludes the value).
      */
-    private int min;
+    private final double[] weights;
 
     /**
-     * Maximal value.
+     * Sampling table (<b>null</b> when it has to be rebuilt).
      */
-    private int max;
-
-    /**
-     * List of excluded values.
-     */
-    private List<Enum<?>> excludes;
+    private volatile SamplingTable table;
 
     /**
      * Create a new enumeration generator.
@@ -59,9 +61,10 @@ public final class EnumRandomGenerator
     public EnumRandomGenerator(final @NonNull Class<? extends Enum<?>> enumClass)
     {
         this.enumClass = enumClass;
-        this.min = 0;
-        this.max = enumClass.getEnumConstants().length - 1;
-        this.generator = new Random();
+        this.constants = enumClass.getEnumConstants();
+        this.weights = new double[constants.length];
+
+        Arrays.fill(weights, 1D);
     }
 
     /**
@@ -71,16 +74,34 @@ public final class EnumRandomGenerator
      */
     public EnumRandomGenerator exclude(final @NonNull Enum<?> value)
     {
-        if (excludes == null)
+        return weight(value, 0D);
+    }
+
+    /**
+     * Set the weight of a value (by default, all the values have a weight of <b>1</b>).
+     * <br>
+     * The probability of a value to be generated is its weight divided by the sum of the weights of all the values.
+     * @param value Enumerated value.
+     * @param weight Weight (<b>0</b> to exclude the value).
+     * @return {@link EnumRandomGenerator}.
+     */
+    public synchronized EnumRandomGenerator weight(final @NonNull Enum<?> value, final double weight)
+    {
+        if (value.getDeclaringClass() != enumClass)
         {
-            excludes = new ArrayList<>();
+            throw new IllegalArgumentException(String.format(
+                    "Enumerated value: '%s' does not belong to enumeration: '%s'!", value, enumClass.getSimpleName()));
         }
 
-        if (!excludes.contains(value))
+        if (weight < 0D || !Double.isFinite(weight))
         {
-            excludes.add(value);
+            throw new IllegalArgumentException(String.format(
+                    "Weight: '%s' of enumerated value: '%s' must be positive and finite!", weight, value));
         }
 
+        weights[value.ordinal()] = weight;
+        table = null;
+
         return this;
     }
 
@@ -91,30 +112,184 @@ public final class EnumRandomGenerator
      */
     public Enum<?> generate() throws GeneratorException
     {
-        Enum<?> value = null;
-        boolean isValid = false;
+        return generate(ThreadLocalRandom.current());
+    }
 
-        if (excludes != null && !excludes.isEmpty())
+    /**
+     * Generate a random enumerated value using a given random number generator (for example, a seeded one to get a
+     * reproducible sequence of values).
+     * @param random Random number generator.
+     * @return Random enumerated value.
+     * @throws GeneratorException Thrown to indicate an error occurred trying to generate a random value.
+     */
+    public Enum<?> generate(final @NonNull Random random) throws GeneratorException
+    {
+        SamplingTable current = table;
+        if (current == null)
         {
-            if (enumClass.getEnumConstants().length == excludes.size())
+            current = buildTable();
+        }
+
+        return current.sample(random);
+    }
+
+    /**
+     * Build the sampling table of the enumerated values that can be generated (using the <b>Vose</b> alias method).
+     * @return Sampling table.
+     * @throws GeneratorException Thrown to indicate all the enumerated values have been excluded.
+     */
+    private synchronized SamplingTable buildTable() throws GeneratorException
+    {
+        if (table != null)
+        {
+            return table;
+        }
+
+        int count = 0;
+        double total = 0D;
+        boolean isUniform = true;
+        for (double weight : weights)
+        {
+            if (weight > 0D)
             {
-                throw new GeneratorException(String.format(
-                        "Not able to generate a random enumerated value for enumeration: '%s' as all values have been explicitly excluded!",
-                        enumClass.getSimpleName()));
+                isUniform &= count == 0 || weight == total / count;
+                total += weight;
+                count++;
             }
+        }
 
-            while (!isValid)
+        if (count == 0)
+        {
+            throw new GeneratorException(String.format(
+                    "Not able to generate a random enumerated value for enumeration: '%s' as all values have been explicitly excluded!",
+                    enumClass.getSimpleName()));
+        }
+
+        Enum<?>[] values = new Enum<?>[count];
+        double[] probabilities = new double[count];
+        int index = 0;
+        for (int i = 0; i < constants.length; i++)
+        {
+            if (weights[i] > 0D)
             {
-                value = enumClass.getEnumConstants()[generator.nextInt(min, max)];
-                if (!excludes.contains(value))
-                {
-                    isValid = true;
-                }
+                values[index] = constants[i];
+                probabilities[index++] = weights[i] * count / total;
             }
+        }
 
-            return value;
+        table = isUniform ? new SamplingTable(values, null, null) : createAliasTable(values, probabilities);
+
+        return table;
+    }
+
+    /**
+     * Create an alias table.
+     * @param values Enumerated values.
+     * @param probabilities Scaled probabilities of the values (their mean is <b>1</b>).
+     * @return Sampling table.
+     */
+    private static SamplingTable createAliasTable(final Enum<?>[] values, final double[] probabilities)
+    {
+        int count = values.length;
+        int[] alias = new int[count];
+        double[] thresholds = new double[count];
+
+        // Work lists of the indexes of the values under (small) and above (large) the mean probability
+        int[] small = new int[count];
+        int[] large = new int[count];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < count; i++)
+        {
+            if (probabilities[i] < 1D)
+            {
+                small[smallCount++] = i;
+            }
+            else
+            {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0)
+        {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            thresholds[less] = probabilities[less];
+            alias[less] = more;
+
+            probabilities[more] = (probabilities[more] + probabilities[less]) - 1D;
+            if (probabilities[more] < 1D)
+            {
+                small[smallCount++] = more;
+            }
+            else
+            {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Remaining values (only rounding errors keep a value in the small list) always select themselves
+        while (largeCount > 0)
+        {
+            thresholds[large[--largeCount]] = 1D;
+        }
+        while (smallCount > 0)
+        {
+            thresholds[small[--smallCount]] = 1D;
         }
 
-        return enumClass.getEnumConstants()[generator.nextInt(min, max)];
+        return new SamplingTable(values, thresholds, alias);
+    }
+
+    /**
+     * An immutable sampling table of enumerated values.
+     */
+    private static final class SamplingTable
+    {
+        /**
+         * Enumerated values that can be generated.
+         */
+        private final Enum<?>[] values;
+
+        /**
+         * Probabilities to select a value rather than its alias (<b>null</b> if all the values have the same weight).
+         */
+        private final double[] thresholds;
+
+        /**
+         * Indexes of the aliases of the values (<b>null</b> if all the values have the same weight).
+         */
+        private final int[] alias;
+
+        /**
+         * Create a new sampling table.
+         * @param values Enumerated values.
+         * @param thresholds Probabilities to select a value rather than its alias.
+         * @param alias Indexes of the aliases of the values.
+         */
+        private SamplingTable(final Enum<?>[] values, final double[] thresholds, final int[] alias)
+        {
+            this.values = values;
+            this.thresholds = thresholds;
+            this.alias = alias;
+        }
+
+        /**
+         * Sample an enumerated value.
+         * @param random Random number generator.
+         * @return Enumerated value.
+         */
+        private Enum<?> sample(final Random random)
+        {
+            int index = random.nextInt(values.length);
+            if (thresholds == null || random.nextDouble() < thresholds[index])
+            {
+                return values[index];
+            }
+
+            return values[alias[index]];
+        }
     }
 }
@@ -0,0 +1,213 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.utilities.helper;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reflection metadata of a class, resolved once and cached for the lifetime of the class.
+ * <br>
+ * Holds the fields of the class hierarchy (the array of declared fields is copied once per class instead of once per
+ * lookup), the lists of fields annotated with a given annotation and the {@link PropertyAccessor} of the properties
+ * (bound getters and setters invoked without reflection).
+ * <br>
+ * The {@link Field} objects are shared by all the callers: they must not be made accessible (see
+ * {@link ReflectionHelper#findFieldInClassHierarchy(Class, String)} to get a copy of a field).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class ClassMetadata
+{
+    /**
+     * Cache of the metadata per class.
+     */
+    private static final ClassValue<ClassMetadata> METADATA = new ClassValue<>()
+    {
+        @Override
+        protected ClassMetadata computeValue(final Class<?> type)
+        {
+            return new ClassMetadata(type);
+        }
+    };
+
+    /**
+     * Class.
+     */
+    @Getter
+    private final Class<?> type;
+
+    /**
+     * Fields of the class hierarchy (fields of the class first, then the ones of its super classes).
+     */
+    @Getter
+    private final List<Field> fields;
+
+    /**
+     * Fields per name (a field of a class hides the field with the same name of its super classes).
+     */
+    private final Map<String, Field> fieldsByName;
+
+    /**
+     * Annotated fields (k = annotation type, v = annotated fields).
+     */
+    private final Map<Class<? extends Annotation>, List<Field>> annotatedFields = new ConcurrentHashMap<>();
+
+    /**
+     * Property accessors (k = property name, v = property accessor or empty if the class has no such property).
+     */
+    private final Map<String, Optional<PropertyAccessor>> properties = new ConcurrentHashMap<>();
+
+    /**
+     * Create the metadata of a class.
+     * @param type Class.
+     */
+    private ClassMetadata(final Class<?> type)
+    {
+        List<Field> all = new ArrayList<>();
+        Map<String, Field> byName = new HashMap<>();
+
+        for (Class<?> current = type; current != null; current = current.getSuperclass())
+        {
+            for (Field field : current.getDeclaredFields())
+            {
+                all.add(field);
+                byName.putIfAbsent(field.getName(), field);
+            }
+        }
+
+        this.type = type;
+        this.fields = Collections.unmodifiableList(all);
+        this.fieldsByName = byName;
+    }
+
+    /**
+     * Return the metadata of a class.
+     * @param type Class.
+     * @return Class metadata.
+     */
+    public static ClassMetadata of(final @NonNull Class<?> type)
+    {
+        return METADATA.get(type);
+    }
+
+    /**
+     * Return a field of the class hierarchy given its name.
+     * @param name Field name.
+     * @return Field (shared, it must not be made accessible) or <b>null</b> if not found.
+     */
+    public Field getField(final @NonNull String name)
+    {
+        return fieldsByName.get(name);
+    }
+
+    /**
+     * Return the fields of the class hierarchy annotated with a given annotation.
+     * @param annotationType Annotation type.
+     * @return Annotated fields (unmodifiable).
+     */
+    public List<Field> getAnnotatedFields(final @NonNull Class<? extends Annotation> annotationType)
+    {
+        return annotatedFields.computeIfAbsent(annotationType, k -> {
+            List<Field> annotated = new ArrayList<>();
+            for (Field field : fields)
+            {
+                if (field.isAnnotationPresent(annotationType))
+                {
+                    annotated.add(field);
+                }
+            }
+
+            return Collections.unmodifiableList(annotated);
+        });
+    }
+
+    /**
+     * Return the accessor of a property given its name.
+     * <br>
+     * The property is read through its public <b>getName()</b> (or <b>isName()</b>) method and written through its public
+     * <b>setName(value)</b> method.
+     * @param name Property name.
+     * @return Property accessor or <b>null</b> if the class has neither a getter nor a setter for this property.
+     */
+    public PropertyAccessor getProperty(final @NonNull String name)
+    {
+        return properties.computeIfAbsent(name, this::resolveProperty).orElse(null);
+    }
+
+    /**
+     * Resolve the accessor of a property.
+     * @param name Property name.
+     * @return Optional property accessor.
+     */
+    private Optional<PropertyAccessor> resolveProperty(final String name)
+    {
+        String suffix = StringUtils.capitalize(name);
+        Method getter = null;
+        Method setter = null;
+
+        for (Method method : type.getMethods())
+        {
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge())
+            {
+                continue;
+            }
+
+            String methodName = method.getName();
+            if (method.getParameterCount() == 0 && method.getReturnType() != void.class
+                    && (methodName.equals("get" + suffix) || (methodName.equals("is" + suffix) && method.getReturnType() == boolean.class)))
+            {
+                if (getter == null || methodName.startsWith("get"))
+                {
+                    getter = method;
+                }
+            }
+            else if (method.getParameterCount() == 1 && methodName.equals("set" + suffix))
+            {
+                setter = method;
+            }
+        }
+
+        if (getter != null && setter != null && setter.getParameterTypes()[0] != getter.getReturnType())
+        {
+            // Prefer the setter matching the type of the getter
+            for (Method method : type.getMethods())
+            {
+                if (method.getParameterCount() == 1 && method.getName().equals("set" + suffix) && method.getParameterTypes()[0] == getter.getReturnType())
+                {
+                    setter = method;
+                    break;
+                }
+            }
+        }
+
+        if (getter == null && setter == null)
+        {
+            return Optional.empty();
+        }
+
+        Class<?> propertyType = getter != null ? getter.getReturnType() : setter.getParameterTypes()[0];
+
+        return Optional.of(new PropertyAccessor(name, propertyType, getter, setter));
+    }
+}
@@ -14,23 +14,34 @@
  */
 package com.hemajoo.commerce.cherry.base.utilities.helper;
 
-import lombok.Cleanup;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
-import org.apache.commons.io.FileUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.Arrays;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Utility class providing convenient services for manipulating <b>files</b>.
@@ -40,6 +51,23 @@ import java.util.Objects;
 @UtilityClass
 public class FileHelper
 {
+    /**
+     * Name prefix of the directory (of the temporary directory) the resources are extracted to (followed by the user name).
+     */
+    private static final String EXTRACTION_DIRECTORY = "cherry-resources-";
+
+    /**
+     * Resolved files per class type used to load them (k = file name, v = file).
+     */
+    private static final ClassValue<Map<String, File>> RESOLVED_FILES = new ClassValue<>()
+    {
+        @Override
+        protected Map<String, File> computeValue(final Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     /**
      * Creates the necessary directory file structure contained in the given file path.
      * @param file File.
@@ -72,7 +100,12 @@ public class FileHelper
     /**
      * Returns a file given its filename.
      * <br>
-     * This service is able to retrieve a file from the classpath, from a jar file or from an url.
+     * This service is able to retrieve a file from the file system, from the classpath, from a jar file or from an url.
+     * Resolved files are cached per name. A resource located inside a jar file (or at an url) has no file handle, so
+     * its content is extracted once into a content-addressed directory of the temporary directory
+     * (<b>cherry-resources-&lt;user name&gt;/&lt;sha-256 of the content&gt;/&lt;name&gt;</b>, only accessible by its owner) and
+     * reused afterwards (once its content has been checked). Prefer
+     * {@link #openStream(String, Class)} or {@link #getPath(String, Class)} when a file handle is not required.
      * @param filename File name to retrieve.
      * @param type Class type to use to load the file.
      * @return {@link File} representing the retrieved file.
@@ -80,71 +113,291 @@ public class FileHelper
      */
     public static File getFile(final @NonNull String filename, final @NonNull Class<?> type) throws FileException
     {
-        File file;
-        boolean isTemporaryFile = false;
+        Map<String, File> cache = RESOLVED_FILES.get(type);
 
-        // 1 Try to load the given file from the file system
-        file = new File(filename);
-        if (file.isFile() && !file.isDirectory())
+        File file = cache.get(filename);
+        if (file != null && file.exists())
         {
             return file;
         }
 
-        // Try to load the file from a JAR file.
+        file = resolveFile(filename, type);
+        if (file.exists())
+        {
+            cache.put(filename, file);
+        }
+
+        return file;
+    }
+
+    /**
+     * Opens a stream on the content of a file given its filename, without copying it.
+     * <br>
+     * This service is able to read a file from the file system, from the classpath, from a jar file or from an url.
+     * @param filename File name to read.
+     * @param type Class type to use to load the file.
+     * @return Input stream (to be closed by the caller).
+     * @throws FileException Thrown when the file cannot be found or opened.
+     */
+    public static InputStream openStream(final @NonNull String filename, final @NonNull Class<?> type) throws FileException
+    {
         try
         {
-            URL url = type.getClassLoader().getResource(filename);
-            if (Objects.requireNonNull(url).toString().startsWith("jar:"))
+            File file = new File(filename);
+            if (file.isFile())
             {
-                // No chance to get a file handle if the file is located inside a jar!
-                // Throw an exception and force the creation of a temporary file.
-                throw new FileException("");
+                return Files.newInputStream(file.toPath());
             }
 
-            // Try to load the file from the classpath.
-            String path = Objects.requireNonNull(url).getFile();
-            file = new File(path);
-        }
-        catch (Exception e)
-        {
-            try
+            URL url = getClassLoader(type).getResource(filename);
+            if (url != null)
             {
-                // If not successful, then try to load it from a JAR file.
-                @Cleanup
-                InputStream stream = FileHelper.class.getResourceAsStream(filename);
-                Path path = Files.createTempFile("file", ".tjf");
-                Files.copy(stream, path, StandardCopyOption.REPLACE_EXISTING);
-                file = path.toFile();
-                isTemporaryFile = true;
+                return url.openStream();
             }
-            catch (Exception ex)
+
+            return new URL(filename).openStream();
+        }
+        catch (MalformedURLException e)
+        {
+            throw new FileException(String.format("Cannot find file: '%s'", filename));
+        }
+        catch (IOException e)
+        {
+            throw new FileException(e);
+        }
+    }
+
+    /**
+     * Returns the path of a file given its filename, without copying it.
+     * <br>
+     * This service is able to retrieve a file from the file system, from the classpath or from a jar file (the path then
+     * belongs to the file system of the jar file, it can be read using {@link Files} but has no {@link File} handle).
+     * <br>
+     * The file system of a jar file is opened on first use and stays open for the lifetime of the application, it is
+     * shared by all the paths of the jar file and must not be closed by the caller. Use {@link #openStream(String, Class)}
+     * to read a resource without opening the file system of its jar file.
+     * @param filename File name to retrieve.
+     * @param type Class type to use to load the file.
+     * @return Path.
+     * @throws FileException Thrown when the file cannot be found.
+     */
+    public static Path getPath(final @NonNull String filename, final @NonNull Class<?> type) throws FileException
+    {
+        File file = new File(filename);
+        if (file.exists())
+        {
+            return file.toPath();
+        }
+
+        URL url = getClassLoader(type).getResource(filename);
+        if (url == null)
+        {
+            throw new FileException(String.format("Cannot find file: '%s'", filename));
+        }
+
+        try
+        {
+            URI uri = url.toURI();
+            if ("jar".equals(uri.getScheme()))
             {
                 try
                 {
-                    // Still not successful, then try to load it from an URL.
-                    @Cleanup
-                    InputStream stream = new URL(filename).openStream();
-                    Path path = Files.createTempFile("file", ".tjf");
-                    Files.copy(stream, path, StandardCopyOption.REPLACE_EXISTING);
-                    file = path.toFile();
-                    isTemporaryFile = true;
+                    FileSystems.newFileSystem(uri, Map.of());
                 }
-                catch (Exception exception)
+                catch (FileSystemAlreadyExistsException e)
                 {
-                    // Try to load it from the file system.
-                    file = new File(filename);
+                    // The file system of the jar file is already opened.
                 }
             }
-            finally
+
+            return Paths.get(uri);
+        }
+        catch (URISyntaxException | IOException | RuntimeException e)
+        {
+            throw new FileException(String.format("Cannot get path of file: '%s'", filename), e);
+        }
+    }
+
+    /**
+     * Resolves a file given its filename.
+     * @param filename File name to retrieve.
+     * @param type Class type to use to load the file.
+     * @return {@link File} representing the retrieved file (it may not exist).
+     * @throws FileException Thrown when an error occurred while trying to extract the file.
+     */
+    private static File resolveFile(final String filename, final Class<?> type) throws FileException
+    {
+        // Try to load the given file from the file system
+        File file = new File(filename);
+        if (file.isFile())
+        {
+            return file;
+        }
+
+        // Try to load the file from the classpath
+        URL url = getClassLoader(type).getResource(filename);
+        if (url != null && "file".equals(url.getProtocol()))
+        {
+            try
+            {
+                return new File(url.toURI());
+            }
+            catch (URISyntaxException | IllegalArgumentException e)
+            {
+                return new File(url.getFile());
+            }
+        }
+
+        // No chance to get a file handle if the file is located inside a jar, extract it
+        if (url != null)
+        {
+            try (InputStream stream = url.openStream())
+            {
+                return extract(filename, stream);
+            }
+            catch (IOException e)
+            {
+                throw new FileException(e);
+            }
+        }
+
+        // Try to load it from an URL
+        try (InputStream stream = new URL(filename).openStream())
+        {
+            return extract(filename, stream);
+        }
+        catch (IOException e)
+        {
+            // Not an URL (or not reachable), fall back on the file system
+            return file;
+        }
+    }
+
+    /**
+     * Extracts a content to a content-addressed file of the temporary directory (the content of a given name is only
+     * stored once). An already extracted file whose content does not match is replaced.
+     * @param filename File name.
+     * @param stream Content.
+     * @return Extracted file.
+     * @throws IOException Thrown when an error occurred while trying to extract the content.
+     */
+    private static File extract(final String filename, final InputStream stream) throws IOException
+    {
+        Path directory = getExtractionDirectory();
+        MessageDigest digest = createDigest();
+
+        Path temporary = Files.createTempFile(directory, "resource", ".tmp");
+        try
+        {
+            try (InputStream input = new DigestInputStream(stream, digest))
             {
-                if (isTemporaryFile)
+                Files.copy(input, temporary, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String name = filename.substring(filename.lastIndexOf('/') + 1).replaceAll("[?#:\\\\].*$", "");
+            Path target = directory.resolve(hash).resolve(name.isEmpty() ? "resource" : name);
+
+            if (!Files.isRegularFile(target, LinkOption.NOFOLLOW_LINKS) || !hash.equals(hash(target)))
+            {
+                Files.createDirectories(target.getParent());
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            return target.toFile();
+        }
+        finally
+        {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Returns the directory the resources are extracted to, creating it (only accessible by its owner) if needed.
+     * @return Extraction directory.
+     * @throws IOException Thrown when the directory cannot be created or is accessible by other users.
+     */
+    private static Path getExtractionDirectory() throws IOException
+    {
+        String user = System.getProperty("user.name", "").replaceAll("[^A-Za-z0-9._-]", "_");
+        Path directory = Paths.get(System.getProperty("java.io.tmpdir"), EXTRACTION_DIRECTORY + user);
+        boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+
+        if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS))
+        {
+            try
+            {
+                if (posix)
                 {
-                    file.deleteOnExit();
+                    Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
                 }
+                else
+                {
+                    Files.createDirectory(directory);
+                }
+            }
+            catch (FileAlreadyExistsException e)
+            {
+                // The directory has been created concurrently.
             }
         }
 
-        return file;
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS))
+        {
+            throw new IOException(String.format("Extraction directory: '%s' is not a directory!", directory));
+        }
+
+        if (posix && !Files.getPosixFilePermissions(directory, LinkOption.NOFOLLOW_LINKS).equals(PosixFilePermissions.fromString("rwx------")))
+        {
+            throw new IOException(String.format("Extraction directory: '%s' is accessible by other users!", directory));
+        }
+
+        return directory;
+    }
+
+    /**
+     * Computes the <b>SHA-256</b> hash of the content of a file.
+     * @param file File.
+     * @return Hash (hexadecimal).
+     * @throws IOException Thrown when an error occurred while trying to read the file.
+     */
+    private static String hash(final Path file) throws IOException
+    {
+        MessageDigest digest = createDigest();
+
+        try (InputStream input = new DigestInputStream(Files.newInputStream(file), digest))
+        {
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Creates a <b>SHA-256</b> message digest.
+     * @return Message digest.
+     * @throws IOException Thrown when the algorithm is not available.
+     */
+    private static MessageDigest createDigest() throws IOException
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Returns the class loader to use to load the resources of a class.
+     * @param type Class type.
+     * @return Class loader.
+     */
+    private static ClassLoader getClassLoader(final Class<?> type)
+    {
+        return type.getClassLoader() != null ? type.getClassLoader() : ClassLoader.getSystemClassLoader();
     }
 
     /**
@@ -171,7 +424,7 @@ public class FileHelper
         File file = getFile(filename);
         try
         {
-            return FileUtils.readFileToString(file, StandardCharsets.UTF_8); // This uses the commons-io library to load the file into a string.
+            return Files.readString(file.toPath(), StandardCharsets.UTF_8);
         }
         catch (IOException e)
         {
@@ -181,13 +434,128 @@ public class FileHelper
 
     /**
      * Loads a text file given its filename.
+     * <br>
+     * Lines are read one at a time (the content of the file is never held as a whole), line terminators are not part
+     * of the lines.
      * @param filename File name to load.
      * @return List of lines.
      * @throws FileException Thrown when an error occurred while trying to load the file.
      */
     public static List<String> loadFileContentAsList(final @NonNull String filename) throws FileException
     {
-        return Arrays.asList(loadFileContentAsString(filename).split("\\n"));
+        try (Stream<String> lines = lines(filename))
+        {
+            return lines.collect(Collectors.toList());
+        }
+        catch (UncheckedIOException e)
+        {
+            throw new FileException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns a lazy stream of the lines of a (<b>UTF-8</b>) text file.
+     * <br>
+     * Lines are read as the stream is consumed, so a file of any size is processed at constant heap. The stream holds the
+     * file open and must be closed (for example, using a <b>try-with-resources</b> statement). An error occurring while
+     * the stream is consumed is raised as an {@link UncheckedIOException}.
+     * @param filename File name to read.
+     * @return Stream of lines.
+     * @throws FileException Thrown when an error occurred while trying to open the file.
+     */
+    public static Stream<String> lines(final @NonNull String filename) throws FileException
+    {
+        File file = getFile(filename);
+        try
+        {
+            return Files.lines(file.toPath(), StandardCharsets.UTF_8);
+        }
+        catch (IOException e)
+        {
+            throw new FileException(e);
+        }
+    }
+
+    /**
+     * Maps the content of a file into memory (read-only).
+     * <br>
+     * The content is accessed through the operating system page cache, it is not copied to the heap. The mapping remains
+     * valid until the buffer is garbage collected.
+     * @param filename File name to map.
+     * @return Read-only buffer of the content of the file.
+     * @throws FileException Thrown when an error occurred while trying to map the file or if the file is larger than 2 GB.
+     */
+    public static MappedByteBuffer map(final @NonNull String filename) throws FileException
+    {
+        File file = getFile(filename);
+        return map(filename, 0, file.length());
+    }
+
+    /**
+     * Maps a region of a file into memory (read-only).
+     * @param filename File name to map.
+     * @param position Position of the region in the file.
+     * @param size Size of the region (at most 2 GB).
+     * @return Read-only buffer of the region of the file.
+     * @throws FileException Thrown when an error occurred while trying to map the file.
+     */
+    public static MappedByteBuffer map(final @NonNull String filename, final long position, final long size) throws FileException
+    {
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new FileException(String.format("Cannot map: %d bytes of file: '%s', regions are limited to: %d bytes!", size, filename, Integer.MAX_VALUE));
+        }
+
+        File file = getFile(filename);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            // The mapping remains valid once the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        }
+        catch (IOException e)
+        {
+            throw new FileException(e);
+        }
+    }
+
+    /**
+     * Reads a file by chunks.
+     * <br>
+     * A single buffer of the given size is allocated and reused for all the chunks, so a file of any size is processed
+     * at constant heap. The buffer given to the consumer is ready to be read (flipped) and is only valid during the call.
+     * @param filename File name to read.
+     * @param chunkSize Maximum size of a chunk (in bytes).
+     * @param consumer Consumer of the chunks.
+     * @return Number of bytes read.
+     * @throws FileException Thrown when an error occurred while trying to read the file.
+     */
+    public static long readChunks(final @NonNull String filename, final int chunkSize, final @NonNull Consumer<ByteBuffer> consumer) throws FileException
+    {
+        if (chunkSize < 1)
+        {
+            throw new IllegalArgumentException("Chunk size must be strictly positive!");
+        }
+
+        File file = getFile(filename);
+        ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+        long total = 0;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            while (channel.read(buffer) != -1)
+            {
+                buffer.flip();
+                total += buffer.remaining();
+                consumer.accept(buffer);
+                buffer.clear();
+            }
+        }
+        catch (IOException e)
+        {
+            throw new FileException(e);
+        }
+
+        return total;
     }
 
     /**
@@ -0,0 +1,247 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.utilities.helper;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * An accessor of a property of a class, reading and writing the property through its getter and setter methods.
+ * <br>
+ * Getters and setters are bound once, as lambdas generated by the {@link LambdaMetafactory} (invoked directly, as any
+ * other lambda) or, when the class cannot be accessed that way, as method handles. Property accessors are obtained from
+ * the {@link ClassMetadata} of a class.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class PropertyAccessor
+{
+    /**
+     * Generic getter method type.
+     */
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * Generic setter method type.
+     */
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * Property name.
+     */
+    @Getter
+    private final String name;
+
+    /**
+     * Property type.
+     */
+    @Getter
+    private final Class<?> type;
+
+    /**
+     * Getter or <b>null</b> if the property cannot be read.
+     */
+    private final Function<Object, Object> getter;
+
+    /**
+     * Setter or <b>null</b> if the property cannot be written.
+     */
+    private final BiConsumer<Object, Object> setter;
+
+    /**
+     * Create a property accessor.
+     * @param name Property name.
+     * @param type Property type.
+     * @param getter Getter method or <b>null</b> if none.
+     * @param setter Setter method or <b>null</b> if none.
+     */
+    PropertyAccessor(final @NonNull String name, final @NonNull Class<?> type, final Method getter, final Method setter)
+    {
+        this.name = name;
+        this.type = type;
+        this.getter = getter != null ? bindGetter(getter) : null;
+        this.setter = setter != null ? bindSetter(setter) : null;
+    }
+
+    /**
+     * Return if the property can be read.
+     * @return <b>True</b> if the property has a getter, <b>false</b> otherwise.
+     */
+    public boolean isReadable()
+    {
+        return getter != null;
+    }
+
+    /**
+     * Return if the property can be written.
+     * @return <b>True</b> if the property has a setter, <b>false</b> otherwise.
+     */
+    public boolean isWritable()
+    {
+        return setter != null;
+    }
+
+    /**
+     * Read the value of the property.
+     * @param instance Instance.
+     * @return Property value.
+     * @throws UnsupportedOperationException Thrown to indicate the property has no getter.
+     */
+    public Object get(final @NonNull Object instance)
+    {
+        if (getter == null)
+        {
+            throw new UnsupportedOperationException(String.format("Property: '%s' cannot be read!", name));
+        }
+
+        return getter.apply(instance);
+    }
+
+    /**
+     * Write the value of the property.
+     * @param instance Instance.
+     * @param value Property value.
+     * @throws UnsupportedOperationException Thrown to indicate the property has no setter.
+     */
+    public void set(final @NonNull Object instance, final Object value)
+    {
+        if (setter == null)
+        {
+            throw new UnsupportedOperationException(String.format("Property: '%s' cannot be written!", name));
+        }
+
+        setter.accept(instance, value);
+    }
+
+    /**
+     * Bind a getter method.
+     * @param method Getter method.
+     * @return Getter.
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> bindGetter(final Method method)
+    {
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(Function.class),
+                    GETTER_TYPE,
+                    handle,
+                    handle.type().wrap());
+
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        }
+        catch (Throwable e)
+        {
+            // The declaring class cannot be accessed with private access (for example, a class of a non open module)
+            MethodHandle handle = unreflect(method).asType(GETTER_TYPE);
+
+            return instance -> {
+                try
+                {
+                    return (Object) handle.invokeExact(instance);
+                }
+                catch (Throwable t)
+                {
+                    throw rethrow(t);
+                }
+            };
+        }
+    }
+
+    /**
+     * Bind a setter method.
+     * @param method Setter method.
+     * @return Setter.
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> bindSetter(final Method method)
+    {
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    SETTER_TYPE,
+                    handle,
+                    handle.type().wrap().changeReturnType(void.class));
+
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        }
+        catch (Throwable e)
+        {
+            // The declaring class cannot be accessed with private access (for example, a class of a non open module)
+            MethodHandle handle = unreflect(method).asType(SETTER_TYPE);
+
+            return (instance, value) -> {
+                try
+                {
+                    handle.invokeExact(instance, value);
+                }
+                catch (Throwable t)
+                {
+                    throw rethrow(t);
+                }
+            };
+        }
+    }
+
+    /**
+     * Convert a method into a method handle using the public lookup.
+     * @param method Method.
+     * @return Method handle.
+     */
+    private static MethodHandle unreflect(final Method method)
+    {
+        try
+        {
+            return MethodHandles.publicLookup().unreflect(method);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalStateException(String.format("Cannot access method: '%s' of class: '%s'", method.getName(), method.getDeclaringClass().getName()), e);
+        }
+    }
+
+    /**
+     * Rethrow an exception raised by an accessor method.
+     * @param throwable Exception.
+     * @return Runtime exception to throw.
+     */
+    private static RuntimeException rethrow(final Throwable throwable)
+    {
+        if (throwable instanceof RuntimeException)
+        {
+            return (RuntimeException) throwable;
+        }
+
+        if (throwable instanceof Error)
+        {
+            throw (Error) throwable;
+        }
+
+        return new IllegalStateException(throwable);
+    }
+}
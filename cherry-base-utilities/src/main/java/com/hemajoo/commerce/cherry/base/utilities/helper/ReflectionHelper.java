@@ -34,26 +34,12 @@ public class ReflectionHelper
      * Finds a list of fields in a class hierarchy annotated with the given annotation.
      * @param type Class in which to start looking for annotated fields.
      * @param annotationType Annotation type.
-     * @return List of annotated fields.
+     * @return List of annotated fields (a modifiable copy of the fields resolved once per class, see
+     * {@link ClassMetadata#getAnnotatedFields(Class)}).
      */
     public static List<Field> findAnnotatedFieldsInClassHierarchy(final @NonNull Class<?> type, final @NonNull Class<? extends Annotation> annotationType)
     {
-        List<Field> fields = new ArrayList<Field>();
-
-        for (Field field : type.getDeclaredFields())
-        {
-            if (field.isAnnotationPresent(annotationType))
-            {
-                fields.add(field);
-            }
-        }
-
-        if (type.getSuperclass() != null)
-        {
-            fields.addAll(findAnnotatedFieldsInClassHierarchy(type.getSuperclass(), annotationType));
-        }
-
-        return fields;
+        return new ArrayList<>(ClassMetadata.of(type).getAnnotatedFields(annotationType));
     }
 
     /**
@@ -73,7 +59,8 @@ public class ReflectionHelper
     /**
      * Finds the field with the given field name from the given class type.
      * <br>
-     * If necessary this method traverses the class hierarchy to find the given field.
+     * If necessary this method traverses the class hierarchy to find the given field. The field is resolved once per
+     * class, but each call returns its own copy of the field, so making it accessible does not affect the other callers.
      * @param type Class in which to find the field.
      * @param name Field name.
      * @return Field if found.
@@ -81,19 +68,13 @@ public class ReflectionHelper
      */
     public static Field findFieldInClassHierarchy(final @NonNull Class<?> type, final @NonNull String name) throws NoSuchFieldException
     {
-        for (Field field : type.getDeclaredFields())
-        {
-            if (field.getName().equals(name))
-            {
-                return field;
-            }
-        }
-
-        if (type.getSuperclass() != null)
+        Field field = ClassMetadata.of(type).getField(name);
+        if (field == null)
         {
-            return findFieldInClassHierarchy(type.getSuperclass(), name);
+            throw new NoSuchFieldException(String.format("Cannot find field name: '%s' annotated with I18n annotation in hierarchy of class: '%s'", name, type.getName()));
         }
 
-        throw new NoSuchFieldException(String.format("Cannot find field name: '%s' annotated with I18n annotation in hierarchy of class: '%s'", name, type.getName()));
+        // The reflection api returns a new copy of the field
+        return field.getDeclaringClass().getDeclaredField(field.getName());
     }
 }
@@ -16,10 +16,7 @@ package com.hemajoo.commerce.cherry.base.utilities.helper;
 
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
-import org.apache.commons.lang3.StringUtils;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -85,6 +82,9 @@ public class StringExpander
 
     /**
      * Expands/replaces variables with real values in the given text.
+     * <br>
+     * The text is compiled (once per class of the instance) into a {@link StringTemplate}, variables can reference nested
+     * properties (ex.: <code>${person.lastName}</code>) and non string values.
      * @param instance Object instance containing the real values.
      * @param text Text containing the variables to be replaced/expanded by real variable values.
      * @return Expanded text.
@@ -92,54 +92,17 @@ public class StringExpander
      */
     public static String expandVariables(final Object instance, final @NonNull String text) throws StringExpanderException
     {
-        Object value;
-        Field field;
-        String result = text;
-        Class<?> declaringClass;
-        Method method;
-
         if (!containsVariable(text))
         {
             return text;
         }
 
-        for (String name : extractVariables(text))
+        if (instance == null)
         {
-            if (name.equals("this") && instance.getClass().isEnum())
-            {
-                result = StringExpander.expandVariable(result, name, ((Enum<?>) instance).name());
-            }
-            else
-            {
-                try
-                {
-                    field = ReflectionHelper.findFieldInObjectInstance(instance, name);
-                    declaringClass = instance.getClass();
-                    method = declaringClass.getMethod("get" + StringUtils.capitalize(field.getName()));
-                    value = method.invoke(instance);
-                    result = StringExpander.expandVariable(result, name, (String) value);
-                }
-                catch (Exception e)
-                {
-                    throw new StringExpanderException(e);
-                }
-            }
+            throw new StringExpanderException(String.format("Cannot expand variables of text: '%s' without an instance!", text));
         }
 
-        return result;
-    }
-
-    /**
-     * Expands the given variable by the given value in the given text.
-     * @param source Source containing the variable to expand (replaced by the value).
-     * @param variable Variable to expand.
-     * @param value Value to use to replace the variable in the source text.
-     * @return Expanded text.
-     */
-    private static String expandVariable(final @NonNull String source, final @NonNull String variable, final @NonNull String value)
-    {
-        String pattern = ("${" + variable + "}");
-        return source.replace(pattern, value);
+        return StringTemplate.compile(instance.getClass(), text).render(instance);
     }
 
     /**
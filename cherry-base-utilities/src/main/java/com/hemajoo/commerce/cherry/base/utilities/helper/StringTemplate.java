@@ -0,0 +1,374 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.utilities.helper;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compiled string template (ex.: <b>Hello ${person.firstName}, you are ${age}!</b>) for a given class.
+ * <br>
+ * The template is parsed once into literal and variable segments. A variable is either <b>${this}</b> (name of an
+ * enumerated value) or a path of properties (ex.: <b>person.lastName</b>), each property being read through its getter
+ * method (see {@link PropertyAccessor}). Values do not have to be strings, they are rendered using their string
+ * representation.
+ * <br>
+ * Compiled templates are cached per class and template text (up to {@value #MAX_TEMPLATES} templates per class), so
+ * compiling the same template again is a lookup.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public final class StringTemplate
+{
+    /**
+     * Variable start pattern.
+     */
+    private static final String VARIABLE_START = "${";
+
+    /**
+     * Variable end pattern.
+     */
+    private static final String VARIABLE_END = "}";
+
+    /**
+     * Enumerated value variable name.
+     */
+    private static final String VARIABLE_THIS = "this";
+
+    /**
+     * Maximum number of compiled templates cached per class.
+     */
+    public static final int MAX_TEMPLATES = 256;
+
+    /**
+     * Compiled templates per class (k = template text, v = compiled template).
+     */
+    private static final ClassValue<Map<String, StringTemplate>> TEMPLATES = new ClassValue<>()
+    {
+        @Override
+        protected Map<String, StringTemplate> computeValue(final Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Template text.
+     */
+    @Getter
+    private final String text;
+
+    /**
+     * Template segments.
+     */
+    private final Segment[] segments;
+
+    /**
+     * Length of the literal segments.
+     */
+    private final int length;
+
+    /**
+     * Create a compiled template.
+     * @param text Template text.
+     * @param segments Template segments.
+     * @param length Length of the literal segments.
+     */
+    private StringTemplate(final String text, final Segment[] segments, final int length)
+    {
+        this.text = text;
+        this.segments = segments;
+        this.length = length;
+    }
+
+    /**
+     * Return the compiled template for a given class (the template is compiled on first use).
+     * @param type Class of the instances the template will be rendered with.
+     * @param text Template text.
+     * @return Compiled template.
+     * @throws StringExpanderException Thrown to indicate the template references a variable that cannot be resolved for the given class.
+     */
+    public static StringTemplate compile(final @NonNull Class<?> type, final @NonNull String text) throws StringExpanderException
+    {
+        Map<String, StringTemplate> templates = TEMPLATES.get(type);
+
+        StringTemplate template = templates.get(text);
+        if (template == null)
+        {
+            template = parse(type, text);
+            if (templates.size() < MAX_TEMPLATES)
+            {
+                templates.putIfAbsent(text, template);
+            }
+        }
+
+        return template;
+    }
+
+    /**
+     * Return if the template references properties (the rendered text then depends on more than the name of an
+     * enumerated value).
+     * @return <b>True</b> if the template references at least one property, <b>false</b> otherwise.
+     */
+    public boolean hasProperties()
+    {
+        for (Segment segment : segments)
+        {
+            if (segment instanceof Accessor)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Render the template with the values of the given instance.
+     * @param instance Instance (of the class the template has been compiled for).
+     * @return Rendered text.
+     * @throws StringExpanderException Thrown to indicate an error occurred while reading a variable value.
+     */
+    public String render(final Object instance) throws StringExpanderException
+    {
+        if (segments.length == 1 && segments[0] instanceof Literal)
+        {
+            return text;
+        }
+
+        StringBuilder builder = new StringBuilder(length + 16 * segments.length);
+        render(instance, builder);
+
+        return builder.toString();
+    }
+
+    /**
+     * Render the template with the values of the given instance, appending the rendered text to a (reusable) builder.
+     * @param instance Instance (of the class the template has been compiled for).
+     * @param builder Builder the rendered text is appended to.
+     * @return Builder.
+     * @throws StringExpanderException Thrown to indicate an error occurred while reading a variable value.
+     */
+    public StringBuilder render(final Object instance, final @NonNull StringBuilder builder) throws StringExpanderException
+    {
+        for (Segment segment : segments)
+        {
+            segment.render(instance, builder);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Parse a template.
+     * @param type Class of the instances the template will be rendered with.
+     * @param text Template text.
+     * @return Compiled template.
+     * @throws StringExpanderException Thrown to indicate the template references a variable that cannot be resolved for the given class.
+     */
+    private static StringTemplate parse(final Class<?> type, final String text) throws StringExpanderException
+    {
+        List<Segment> segments = new ArrayList<>();
+        int length = 0;
+        int index = 0;
+        int start;
+        int end;
+
+        while ((start = text.indexOf(VARIABLE_START, index)) >= 0 && (end = text.indexOf(VARIABLE_END, start)) > start)
+        {
+            if (start > index)
+            {
+                segments.add(new Literal(text.substring(index, start)));
+                length += start - index;
+            }
+
+            String name = text.substring(start + VARIABLE_START.length(), end);
+            if (name.equals(VARIABLE_THIS) && Enum.class.isAssignableFrom(type))
+            {
+                segments.add(new EnumName());
+            }
+            else
+            {
+                segments.add(new Accessor(text, name, findAccessors(type, name)));
+            }
+
+            index = end + VARIABLE_END.length();
+        }
+
+        if (index < text.length() || segments.isEmpty())
+        {
+            segments.add(new Literal(text.substring(index)));
+            length += text.length() - index;
+        }
+
+        return new StringTemplate(text, segments.toArray(new Segment[0]), length);
+    }
+
+    /**
+     * Find the accessors of the properties of a path.
+     * @param type Class.
+     * @param path Property path (ex.: <b>person.lastName</b>).
+     * @return Property accessors (one per property of the path).
+     * @throws StringExpanderException Thrown to indicate a property cannot be found or read.
+     */
+    private static PropertyAccessor[] findAccessors(final Class<?> type, final String path) throws StringExpanderException
+    {
+        String[] names = path.split("\\.");
+        PropertyAccessor[] accessors = new PropertyAccessor[names.length];
+        Class<?> current = type;
+
+        for (int i = 0; i < names.length; i++)
+        {
+            PropertyAccessor accessor = ClassMetadata.of(current).getProperty(names[i]);
+            if (accessor == null || !accessor.isReadable())
+            {
+                throw new StringExpanderException(String.format("Cannot find getter of property: '%s' (variable: '%s') in class: '%s'", names[i], path, current.getName()));
+            }
+
+            accessors[i] = accessor;
+            current = accessor.getType();
+        }
+
+        return accessors;
+    }
+
+    /**
+     * A template segment.
+     */
+    private interface Segment
+    {
+        /**
+         * Render the segment.
+         * @param instance Instance.
+         * @param builder Builder the rendered segment is appended to.
+         * @throws StringExpanderException Thrown to indicate an error occurred while reading a variable value.
+         */
+        void render(final Object instance, final StringBuilder builder) throws StringExpanderException;
+    }
+
+    /**
+     * A literal segment.
+     */
+    private static final class Literal implements Segment
+    {
+        /**
+         * Literal text.
+         */
+        private final String text;
+
+        /**
+         * Create a literal segment.
+         * @param text Literal text.
+         */
+        private Literal(final String text)
+        {
+            this.text = text;
+        }
+
+        @Override
+        public void render(final Object instance, final StringBuilder builder)
+        {
+            builder.append(text);
+        }
+    }
+
+    /**
+     * A segment rendering the name of an enumerated value (<b>${this}</b>).
+     */
+    private static final class EnumName implements Segment
+    {
+        @Override
+        public void render(final Object instance, final StringBuilder builder)
+        {
+            builder.append(((Enum<?>) instance).name());
+        }
+    }
+
+    /**
+     * A segment rendering the value of a property path.
+     */
+    private static final class Accessor implements Segment
+    {
+        /**
+         * Template text.
+         */
+        private final String template;
+
+        /**
+         * Property path.
+         */
+        private final String path;
+
+        /**
+         * Accessors of the properties of the path.
+         */
+        private final PropertyAccessor[] accessors;
+
+        /**
+         * Create a property path segment.
+         * @param template Template text.
+         * @param path Property path.
+         * @param accessors Accessors of the properties of the path.
+         */
+        private Accessor(final String template, final String path, final PropertyAccessor[] accessors)
+        {
+            this.template = template;
+            this.path = path;
+            this.accessors = accessors;
+        }
+
+        @Override
+        public void render(final Object instance, final StringBuilder builder) throws StringExpanderException
+        {
+            Object value = instance;
+
+            for (PropertyAccessor accessor : accessors)
+            {
+                if (value == null)
+                {
+                    break;
+                }
+
+                try
+                {
+                    value = accessor.get(value);
+                }
+                catch (RuntimeException e)
+                {
+                    throw new StringExpanderException(String.format("Cannot render template: '%s', cannot read variable: '%s', cause: %s", template, path, e.getMessage()));
+                }
+            }
+
+            if (value == null)
+            {
+                throw new StringExpanderException(String.format("Cannot render template: '%s', variable: '%s' is null!", template, path));
+            }
+
+            if (value instanceof CharSequence)
+            {
+                builder.append((CharSequence) value);
+            }
+            else
+            {
+                builder.append(value);
+            }
+        }
+    }
+}
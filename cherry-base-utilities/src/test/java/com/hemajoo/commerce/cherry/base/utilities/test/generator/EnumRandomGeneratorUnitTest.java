@@ -0,0 +1,176 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.utilities.test.generator;
+
+import com.hemajoo.commerce.cherry.base.utilities.generator.EnumRandomGenerator;
+import com.hemajoo.commerce.cherry.base.utilities.generator.GeneratorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A unit test class for testing the generator of random enumerated values.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class EnumRandomGeneratorUnitTest
+{
+    /**
+     * Number of values generated to check a distribution.
+     */
+    private static final int SAMPLES = 100_000;
+
+    /**
+     * Seed of the random number generator used to check a distribution.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Enumeration used by the tests.
+     */
+    private enum Size
+    {
+        /**
+         * Small.
+         */
+        SMALL,
+
+        /**
+         * Medium.
+         */
+        MEDIUM,
+
+        /**
+         * Large.
+         */
+        LARGE
+    }
+
+    /**
+     * Enumeration foreign to the generators of the tests.
+     */
+    private enum Color
+    {
+        /**
+         * Red.
+         */
+        RED
+    }
+
+    @Test
+    @DisplayName("Generate all the enumerated values, including the last one")
+    void testGenerateAllValues() throws GeneratorException
+    {
+        EnumRandomGenerator generator = new EnumRandomGenerator(Size.class);
+
+        Set<Size> generated = EnumSet.noneOf(Size.class);
+        for (int i = 0; i < 1_000; i++)
+        {
+            generated.add((Size) generator.generate());
+        }
+        assertThat(generated).containsExactlyInAnyOrder(Size.values());
+
+        // Only the last value can be generated
+        generator.exclude(Size.SMALL).exclude(Size.MEDIUM);
+        for (int i = 0; i < 100; i++)
+        {
+            assertThat(generator.generate()).isEqualTo(Size.LARGE);
+        }
+    }
+
+    @Test
+    @DisplayName("Fail to generate a value when all the values are excluded")
+    void testExcludeAllValues() throws GeneratorException
+    {
+        EnumRandomGenerator generator = new EnumRandomGenerator(Size.class)
+                .exclude(Size.SMALL)
+                .exclude(Size.MEDIUM)
+                .exclude(Size.LARGE);
+
+        assertThrows(GeneratorException.class, generator::generate);
+
+        // A value given a weight again can be generated
+        generator.weight(Size.MEDIUM, 1D);
+        assertThat(generator.generate()).isEqualTo(Size.MEDIUM);
+    }
+
+    @Test
+    @DisplayName("Reject foreign enumerated values and invalid weights")
+    void testInvalidWeights()
+    {
+        EnumRandomGenerator generator = new EnumRandomGenerator(Size.class);
+
+        assertThrows(IllegalArgumentException.class, () -> generator.exclude(Color.RED));
+        assertThrows(IllegalArgumentException.class, () -> generator.weight(Color.RED, 1D));
+        assertThrows(IllegalArgumentException.class, () -> generator.weight(Size.SMALL, -1D));
+        assertThrows(IllegalArgumentException.class, () -> generator.weight(Size.SMALL, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> generator.weight(Size.SMALL, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    @DisplayName("Generate values according to their weights")
+    void testWeightedDistribution() throws GeneratorException
+    {
+        EnumRandomGenerator generator = new EnumRandomGenerator(Size.class)
+                .weight(Size.SMALL, 1D)
+                .weight(Size.MEDIUM, 2D)
+                .weight(Size.LARGE, 7D);
+
+        Map<Size, Double> frequencies = sample(generator, new Random(SEED));
+        assertThat(frequencies.get(Size.SMALL)).isCloseTo(0.1D, within(0.01D));
+        assertThat(frequencies.get(Size.MEDIUM)).isCloseTo(0.2D, within(0.01D));
+        assertThat(frequencies.get(Size.LARGE)).isCloseTo(0.7D, within(0.01D));
+
+        // A seeded generator produces a reproducible sequence of values
+        assertThat(sample(generator, new Random(SEED))).isEqualTo(frequencies);
+
+        // Uniform distribution once a value is excluded
+        generator.weight(Size.MEDIUM, 1D).weight(Size.LARGE, 0D);
+        frequencies = sample(generator, new Random(SEED));
+        assertThat(frequencies.get(Size.SMALL)).isCloseTo(0.5D, within(0.01D));
+        assertThat(frequencies.get(Size.MEDIUM)).isCloseTo(0.5D, within(0.01D));
+        assertThat(frequencies).doesNotContainKey(Size.LARGE);
+    }
+
+    /**
+     * Generate values and compute their frequencies.
+     * @param generator Generator.
+     * @param random Random number generator.
+     * @return Frequencies of the generated values.
+     * @throws GeneratorException Thrown to indicate an error occurred trying to generate a random value.
+     */
+    private static Map<Size, Double> sample(final EnumRandomGenerator generator, final Random random) throws GeneratorException
+    {
+        Map<Size, Integer> counts = new EnumMap<>(Size.class);
+        for (int i = 0; i < SAMPLES; i++)
+        {
+            counts.merge((Size) generator.generate(random), 1, Integer::sum);
+        }
+
+        Map<Size, Double> frequencies = new EnumMap<>(Size.class);
+        counts.forEach((size, count) -> frequencies.put(size, (double) count / SAMPLES));
+
+        return frequencies;
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.utilities.test.helper;
+
+import com.hemajoo.commerce.cherry.base.utilities.helper.ClassMetadata;
+import com.hemajoo.commerce.cherry.base.utilities.helper.PropertyAccessor;
+import com.hemajoo.commerce.cherry.base.utilities.helper.ReflectionHelper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A unit test class for testing the reflection metadata of classes and the property accessors.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class ClassMetadataUnitTest
+{
+    @Test
+    @DisplayName("Box and unbox the values of primitive properties")
+    void testPrimitiveProperty()
+    {
+        Bean bean = new Bean();
+        PropertyAccessor accessor = ClassMetadata.of(Bean.class).getProperty("count");
+
+        assertThat(accessor.getType()).isEqualTo(int.class);
+        assertThat(accessor.isReadable()).isTrue();
+        assertThat(accessor.isWritable()).isTrue();
+
+        accessor.set(bean, 42);
+        assertThat(bean.getCount()).isEqualTo(42);
+        assertThat(accessor.get(bean)).isEqualTo(42);
+
+        // A primitive property cannot be set to null
+        assertThrows(NullPointerException.class, () -> accessor.set(bean, null));
+        assertThrows(ClassCastException.class, () -> accessor.set(bean, "42"));
+    }
+
+    @Test
+    @DisplayName("Prefer the get method over the is method of a boolean property")
+    void testBooleanGetter()
+    {
+        Bean bean = new Bean();
+        PropertyAccessor accessor = ClassMetadata.of(Bean.class).getProperty("enabled");
+
+        assertThat(accessor.getType()).isEqualTo(boolean.class);
+        assertThat(accessor.get(bean)).isEqualTo(Boolean.FALSE);
+
+        // A boolean property only having an is method is read through it
+        assertThat(ClassMetadata.of(Bean.class).getProperty("visible").get(bean)).isEqualTo(Boolean.TRUE);
+        assertThat(ClassMetadata.of(Bean.class).getProperty("visible").isWritable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Choose the setter matching the type of the getter among overloaded setters")
+    void testOverloadedSetters()
+    {
+        Bean bean = new Bean();
+        PropertyAccessor accessor = ClassMetadata.of(Bean.class).getProperty("value");
+
+        assertThat(accessor.getType()).isEqualTo(String.class);
+
+        accessor.set(bean, "Hello");
+        assertThat(bean.getValue()).isEqualTo("Hello");
+        assertThat(bean.getSetter()).isEqualTo("setValue(String)");
+
+        assertThat(ClassMetadata.of(Bean.class).getProperty("unknown")).isNull();
+    }
+
+    @Test
+    @DisplayName("Bind the accessors of a class that cannot be accessed with private access")
+    void testMethodHandleFallback()
+    {
+        // The package of the class is not opened, the accessors are bound as method handles
+        assertThrows(IllegalAccessException.class, () -> MethodHandles.privateLookupIn(Logger.class, MethodHandles.lookup()));
+
+        Logger logger = Logger.getAnonymousLogger();
+        PropertyAccessor level = ClassMetadata.of(Logger.class).getProperty("level");
+        PropertyAccessor useParentHandlers = ClassMetadata.of(Logger.class).getProperty("useParentHandlers");
+        PropertyAccessor parent = ClassMetadata.of(Logger.class).getProperty("parent");
+
+        level.set(logger, Level.FINE);
+        assertThat(logger.getLevel()).isEqualTo(Level.FINE);
+        assertThat(level.get(logger)).isEqualTo(Level.FINE);
+
+        assertThat(useParentHandlers.getType()).isEqualTo(boolean.class);
+        useParentHandlers.set(logger, false);
+        assertThat(logger.getUseParentHandlers()).isFalse();
+        assertThat(useParentHandlers.get(logger)).isEqualTo(Boolean.FALSE);
+
+        // Exceptions raised by the accessor methods are propagated
+        assertThrows(NullPointerException.class, () -> parent.set(logger, null));
+    }
+
+    @Test
+    @DisplayName("Resolve the field hiding the field of a super class")
+    void testHiddenField() throws NoSuchFieldException
+    {
+        Field field = ClassMetadata.of(Bean.class).getField("name");
+
+        assertThat(field.getDeclaringClass()).isEqualTo(Bean.class);
+        assertThat(field.getType()).isEqualTo(int.class);
+        assertThat(ClassMetadata.of(Bean.class).getFields()).filteredOn(f -> f.getName().equals("name")).hasSize(2);
+        assertThat(ClassMetadata.of(Parent.class).getField("name").getType()).isEqualTo(String.class);
+
+        // Each caller gets its own copy of the field, making it accessible does not affect the other callers
+        Field shared = ClassMetadata.of(ClassMetadata.class).getField("type");
+        Field copy = ReflectionHelper.findFieldInClassHierarchy(ClassMetadata.class, "type");
+        assertThat(copy).isEqualTo(shared).isNotSameAs(shared).isNotSameAs(ReflectionHelper.findFieldInClassHierarchy(ClassMetadata.class, "type"));
+
+        ClassMetadata metadata = ClassMetadata.of(Bean.class);
+        assertThat(copy.canAccess(metadata)).isFalse();
+        copy.setAccessible(true);
+        assertThat(copy.canAccess(metadata)).isTrue();
+        assertThat(shared.canAccess(metadata)).isFalse();
+        assertThat(ReflectionHelper.findFieldInClassHierarchy(ClassMetadata.class, "type").canAccess(metadata)).isFalse();
+    }
+
+    /**
+     * A parent class declaring a field hidden by its subclass.
+     */
+    public static class Parent
+    {
+        /**
+         * Name.
+         */
+        private String name;
+    }
+
+    /**
+     * A bean class.
+     */
+    public static class Bean extends Parent
+    {
+        /**
+         * Name (hiding the name of the parent class).
+         */
+        private int name;
+
+        /**
+         * Count.
+         */
+        private int count;
+
+        /**
+         * Value.
+         */
+        private String value;
+
+        /**
+         * Setter invoked to set the value.
+         */
+        private String setter;
+
+        /**
+         * Return the count.
+         * @return Count.
+         */
+        public int getCount()
+        {
+            return count;
+        }
+
+        /**
+         * Set the count.
+         * @param count Count.
+         */
+        public void setCount(final int count)
+        {
+            this.count = count;
+        }
+
+        /**
+         * Return if the bean is enabled.
+         * @return Always <b>true</b>.
+         */
+        public boolean isEnabled()
+        {
+            return true;
+        }
+
+        /**
+         * Return if the bean is enabled.
+         * @return Always <b>false</b>.
+         */
+        public boolean getEnabled()
+        {
+            return false;
+        }
+
+        /**
+         * Return if the bean is visible.
+         * @return Always <b>true</b>.
+         */
+        public boolean isVisible()
+        {
+            return true;
+        }
+
+        /**
+         * Return the value.
+         * @return Value.
+         */
+        public String getValue()
+        {
+            return value;
+        }
+
+        /**
+         * Set the value.
+         * @param value Value.
+         */
+        public void setValue(final Object value)
+        {
+            this.value = String.valueOf(value);
+            this.setter = "setValue(Object)";
+        }
+
+        /**
+         * Set the value.
+         * @param value Value.
+         */
+        public void setValue(final String value)
+        {
+            this.value = value;
+            this.setter = "setValue(String)";
+        }
+
+        /**
+         * Set the value.
+         * @param value Value.
+         */
+        public void setValue(final int value)
+        {
+            this.value = Integer.toString(value);
+            this.setter = "setValue(int)";
+        }
+
+        /**
+         * Return the setter invoked to set the value.
+         * @return Setter.
+         */
+        public String getSetter()
+        {
+            return setter;
+        }
+    }
+}
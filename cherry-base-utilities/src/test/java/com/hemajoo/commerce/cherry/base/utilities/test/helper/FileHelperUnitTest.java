@@ -0,0 +1,228 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.utilities.test.helper;
+
+import com.hemajoo.commerce.cherry.base.utilities.helper.FileException;
+import com.hemajoo.commerce.cherry.base.utilities.helper.FileHelper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A unit test class for testing the resolution, the extraction and the reading of files.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class FileHelperUnitTest
+{
+    /**
+     * Resource located inside the jar file of the <b>JUnit</b> api.
+     */
+    private static final String JAR_RESOURCE = "org/junit/jupiter/api/Test.class";
+
+    /**
+     * Temporary directory.
+     */
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Cache the resolved files and resolve them again once deleted")
+    void testResolvedFilesCache() throws IOException, FileException
+    {
+        Path path = Files.writeString(directory.resolve("cached.txt"), "Hello", StandardCharsets.UTF_8);
+
+        File file = FileHelper.getFile(path.toString(), FileHelperUnitTest.class);
+        assertThat(file).hasContent("Hello");
+        assertThat(FileHelper.getFile(path.toString(), FileHelperUnitTest.class)).isSameAs(file);
+
+        // A deleted file is resolved again
+        Files.delete(path);
+        assertThat(FileHelper.getFile(path.toString(), FileHelperUnitTest.class)).isNotSameAs(file).doesNotExist();
+
+        Files.writeString(path, "Hello again", StandardCharsets.UTF_8);
+        assertThat(FileHelper.getFile(path.toString(), FileHelperUnitTest.class)).hasContent("Hello again");
+    }
+
+    @Test
+    @DisplayName("Extract a resource located inside a jar file")
+    void testExtractJarResource() throws IOException, FileException
+    {
+        byte[] content;
+        try (InputStream stream = FileHelper.openStream(JAR_RESOURCE, Test.class))
+        {
+            content = stream.readAllBytes();
+        }
+
+        File file = FileHelper.getFile(JAR_RESOURCE, Test.class);
+        assertThat(file).isFile().hasBinaryContent(content);
+        assertThat(FileHelper.getFile(JAR_RESOURCE, Test.class)).isSameAs(file);
+
+        // The extraction directory is only accessible by its owner
+        Path extraction = file.toPath().getParent().getParent();
+        assertThat(extraction.getFileName().toString()).isEqualTo("cherry-resources-" + System.getProperty("user.name").replaceAll("[^A-Za-z0-9._-]", "_"));
+        if (extraction.getFileSystem().supportedFileAttributeViews().contains("posix"))
+        {
+            assertThat(Files.getPosixFilePermissions(extraction)).isEqualTo(PosixFilePermissions.fromString("rwx------"));
+        }
+
+        // An extracted file is extracted again once deleted
+        Files.delete(file.toPath());
+        assertThat(FileHelper.getFile(JAR_RESOURCE, Test.class)).isFile().hasBinaryContent(content);
+
+        // An extracted file whose content has been altered is replaced (resolving the resource through its url)
+        Files.writeString(file.toPath(), "Altered", StandardCharsets.UTF_8);
+        String url = Test.class.getClassLoader().getResource(JAR_RESOURCE).toString();
+        assertThat(FileHelper.getFile(url, Test.class)).isEqualTo(file).hasBinaryContent(content);
+    }
+
+    @Test
+    @DisplayName("Read a resource located inside a jar file through its path")
+    void testJarResourcePath() throws IOException, FileException
+    {
+        byte[] content;
+        try (InputStream stream = FileHelper.openStream(JAR_RESOURCE, Test.class))
+        {
+            content = stream.readAllBytes();
+        }
+
+        Path path = FileHelper.getPath(JAR_RESOURCE, Test.class);
+        assertThat(path.getFileSystem().provider().getScheme()).isEqualTo("jar");
+        assertThat(Files.readAllBytes(path)).isEqualTo(content);
+
+        // The file system of the jar file is shared
+        assertThat(FileHelper.getPath(JAR_RESOURCE, Test.class).getFileSystem()).isSameAs(path.getFileSystem());
+
+        assertThrows(FileException.class, () -> FileHelper.getPath("does/not/exist.txt", Test.class));
+    }
+
+    @Test
+    @DisplayName("Read the lines of a file lazily and release the file once the stream is closed")
+    void testLazyLines() throws IOException, FileException
+    {
+        // The first line is followed by more than a decoder buffer of text, then by a malformed UTF-8 sequence
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        content.writeBytes("First line\n".getBytes(StandardCharsets.UTF_8));
+        content.writeBytes("x".repeat(64 * 1024).getBytes(StandardCharsets.UTF_8));
+        content.writeBytes(new byte[] { '\n', (byte) 0xFF, '\n' });
+        Path path = Files.write(directory.resolve("lazy.txt"), content.toByteArray());
+
+        long descriptors = getOpenFileDescriptorCount();
+        try (Stream<String> lines = FileHelper.lines(path.toString()))
+        {
+            // Only the beginning of the file is read
+            assertThat(lines.findFirst()).contains("First line");
+            if (descriptors >= 0)
+            {
+                assertThat(getOpenFileDescriptorCount()).isEqualTo(descriptors + 1);
+            }
+        }
+
+        if (descriptors >= 0)
+        {
+            assertThat(getOpenFileDescriptorCount()).isEqualTo(descriptors);
+        }
+
+        // Reading the whole file reaches the malformed sequence
+        assertThrows(FileException.class, () -> FileHelper.loadFileContentAsList(path.toString()));
+    }
+
+    @Test
+    @DisplayName("Strip the carriage returns of the lines of a file")
+    void testCrLfLines() throws IOException, FileException
+    {
+        Path path = Files.writeString(directory.resolve("crlf.txt"), "First\r\nSecond\r\n\r\nFourth", StandardCharsets.UTF_8);
+
+        assertThat(FileHelper.loadFileContentAsList(path.toString())).containsExactly("First", "Second", "", "Fourth");
+    }
+
+    @Test
+    @DisplayName("Map a file and a region of a file into memory")
+    void testMap() throws IOException, FileException
+    {
+        Path path = Files.writeString(directory.resolve("map.txt"), "0123456789abcdef", StandardCharsets.US_ASCII);
+
+        MappedByteBuffer buffer = FileHelper.map(path.toString());
+        assertThat(buffer.isReadOnly()).isTrue();
+        assertThat(StandardCharsets.US_ASCII.decode(buffer).toString()).isEqualTo("0123456789abcdef");
+
+        MappedByteBuffer region = FileHelper.map(path.toString(), 4, 6);
+        assertThat(region.capacity()).isEqualTo(6);
+        assertThat(StandardCharsets.US_ASCII.decode(region).toString()).isEqualTo("456789");
+
+        // Regions larger than 2 GB cannot be mapped by a single buffer
+        assertThrows(FileException.class, () -> FileHelper.map(path.toString(), 0, Integer.MAX_VALUE + 1L));
+    }
+
+    @Test
+    @DisplayName("Read a file by chunks")
+    void testReadChunks() throws IOException, FileException
+    {
+        byte[] content = new byte[10000];
+        for (int i = 0; i < content.length; i++)
+        {
+            content[i] = (byte) i;
+        }
+        Path path = Files.write(directory.resolve("chunks.bin"), content);
+
+        // The chunk size does not divide the file length
+        List<Integer> sizes = new ArrayList<>();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        long total = FileHelper.readChunks(path.toString(), 4096, chunk -> {
+            sizes.add(chunk.remaining());
+            byte[] bytes = new byte[chunk.remaining()];
+            chunk.get(bytes);
+            read.writeBytes(bytes);
+        });
+
+        assertThat(total).isEqualTo(content.length);
+        assertThat(sizes).containsExactly(4096, 4096, 1808);
+        assertThat(read.toByteArray()).isEqualTo(content);
+
+        assertThrows(IllegalArgumentException.class, () -> FileHelper.readChunks(path.toString(), 0, ByteBuffer::clear));
+    }
+
+    /**
+     * Return the number of file descriptors opened by the process.
+     * @return Number of open file descriptors or <b>-1</b> if not available on the platform.
+     */
+    private static long getOpenFileDescriptorCount()
+    {
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+
+        return bean instanceof com.sun.management.UnixOperatingSystemMXBean
+                ? ((com.sun.management.UnixOperatingSystemMXBean) bean).getOpenFileDescriptorCount()
+                : -1;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2022 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.hemajoo.commerce.cherry.base.utilities.test.helper;
+
+import com.hemajoo.commerce.cherry.base.utilities.helper.StringExpander;
+import com.hemajoo.commerce.cherry.base.utilities.helper.StringExpanderException;
+import com.hemajoo.commerce.cherry.base.utilities.helper.StringTemplate;
+import lombok.Getter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A unit test class for testing the compiled string templates against the behavior of the former string expander.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+class StringTemplateUnitTest
+{
+    /**
+     * Enumeration used to test the <b>${this}</b> variable.
+     */
+    public enum Color
+    {
+        /**
+         * Red.
+         */
+        RED,
+
+        /**
+         * Green.
+         */
+        GREEN
+    }
+
+    /**
+     * Person used to test the property variables.
+     */
+    @Getter
+    public static final class Person
+    {
+        /**
+         * First name.
+         */
+        private final String firstName;
+
+        /**
+         * Last name.
+         */
+        private final String lastName;
+
+        /**
+         * Age.
+         */
+        private final Integer age;
+
+        /**
+         * Partner.
+         */
+        private final Person partner;
+
+        /**
+         * Create a person.
+         * @param firstName First name.
+         * @param lastName Last name.
+         * @param age Age.
+         * @param partner Partner.
+         */
+        public Person(final String firstName, final String lastName, final Integer age, final Person partner)
+        {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.age = age;
+            this.partner = partner;
+        }
+    }
+
+    /**
+     * Class only used to test the bounded cache of compiled templates.
+     */
+    @Getter
+    public static final class Counter
+    {
+        /**
+         * Value.
+         */
+        private final String value = "1";
+    }
+
+    /**
+     * Person used by the tests.
+     */
+    private static final Person JOHN = new Person("John", "Doe", 42, new Person("Jane", "Doe", 40, null));
+
+    @Test
+    @DisplayName("Render texts without variables unchanged")
+    void testLiterals() throws StringExpanderException
+    {
+        assertThat(StringTemplate.compile(Person.class, "No variable").render(JOHN)).isEqualTo("No variable");
+        assertThat(StringTemplate.compile(Person.class, "").render(JOHN)).isEmpty();
+        assertThat(StringExpander.expandVariables(JOHN, "No variable")).isEqualTo("No variable");
+
+        // Closing braces without an opening variable pattern are literals
+        assertThat(StringTemplate.compile(Person.class, "} $ {firstName}").render(JOHN)).isEqualTo("} $ {firstName}");
+    }
+
+    @Test
+    @DisplayName("Render adjacent variables")
+    void testAdjacentVariables() throws StringExpanderException
+    {
+        assertThat(StringTemplate.compile(Person.class, "${firstName}${lastName}").render(JOHN)).isEqualTo("JohnDoe");
+        assertThat(StringExpander.expandVariables(JOHN, "Hello ${firstName} ${lastName}!")).isEqualTo("Hello John Doe!");
+        assertThat(StringExpander.expandVariables(Color.RED, "color.${this}${this}.name")).isEqualTo("color.REDRED.name");
+        assertThat(StringExpander.expandVariables(Color.GREEN, "color.${this}.name")).isEqualTo("color.GREEN.name");
+    }
+
+    @Test
+    @DisplayName("Keep an unterminated variable pattern as a literal")
+    void testUnterminatedVariable() throws StringExpanderException
+    {
+        assertThat(StringTemplate.compile(Person.class, "Hello ${firstName").render(JOHN)).isEqualTo("Hello ${firstName");
+        assertThat(StringExpander.expandVariables(JOHN, "${firstName} ${lastName")).isEqualTo("John ${lastName");
+        assertThat(StringExpander.expandVariables(JOHN, "${")).isEqualTo("${");
+    }
+
+    @Test
+    @DisplayName("Reject variables without a getter")
+    void testMissingGetter()
+    {
+        assertThrows(StringExpanderException.class, () -> StringTemplate.compile(Person.class, "Hello ${nickName}"));
+        assertThrows(StringExpanderException.class, () -> StringExpander.expandVariables(JOHN, "Hello ${nickName}"));
+        assertThrows(StringExpanderException.class, () -> StringExpander.expandVariables(JOHN, "Hello ${partner.nickName}"));
+
+        // The ${this} variable is only defined for enumerated values
+        assertThrows(StringExpanderException.class, () -> StringExpander.expandVariables(JOHN, "Hello ${this}"));
+    }
+
+    @Test
+    @DisplayName("Reject null variable values")
+    void testNullValue() throws StringExpanderException
+    {
+        Person anonymous = new Person("Anonymous", null, null, null);
+        StringTemplate template = StringTemplate.compile(Person.class, "Hello ${firstName} ${lastName}");
+
+        assertThrows(StringExpanderException.class, () -> template.render(anonymous));
+        assertThrows(StringExpanderException.class, () -> StringExpander.expandVariables(anonymous, "${partner.firstName}"));
+        assertThat(template.render(JOHN)).isEqualTo("Hello John Doe");
+    }
+
+    @Test
+    @DisplayName("Render nested properties and non string values")
+    void testNestedProperties() throws StringExpanderException
+    {
+        assertThat(StringExpander.expandVariables(JOHN, "${firstName} (${age}) and ${partner.firstName} (${partner.age})")).isEqualTo("John (42) and Jane (40)");
+
+        StringBuilder builder = new StringBuilder("> ");
+        StringTemplate.compile(Person.class, "${partner.lastName}").render(JOHN, builder);
+        assertThat(builder).hasToString("> Doe");
+    }
+
+    @Test
+    @DisplayName("Cache a bounded number of compiled templates per class")
+    void testTemplateCache() throws StringExpanderException
+    {
+        for (int i = 0; i < StringTemplate.MAX_TEMPLATES; i++)
+        {
+            StringTemplate template = StringTemplate.compile(Counter.class, i + ".${value}");
+            assertThat(StringTemplate.compile(Counter.class, i + ".${value}")).isSameAs(template);
+        }
+
+        // Once the cache is full, templates are still compiled but no longer cached
+        StringTemplate template = StringTemplate.compile(Counter.class, "last.${value}");
+        assertThat(template.render(new Counter())).isEqualTo("last.1");
+        assertThat(StringTemplate.compile(Counter.class, "last.${value}")).isNotSameAs(template);
+        assertThat(StringTemplate.compile(Counter.class, "0.${value}").render(new Counter())).isEqualTo("0.1");
+    }
+}